@@ -0,0 +1,12 @@
+package com.trafficmanagement.smartflow.benchmarks;
+
+/** Settings shared by every benchmark class. */
+final class BenchmarkSupport {
+  /** Quiet logback config so INFO logging on the measured paths does not dominate the results. */
+  static final String QUIET_LOGGING = "-Dlogback.configurationFile=logback-bench.xml";
+
+  static final double WIDTH = 1920.0;
+  static final double HEIGHT = 1080.0;
+
+  private BenchmarkSupport() {}
+}
@@ -0,0 +1,78 @@
+package com.trafficmanagement.smartflow.benchmarks;
+
+import com.trafficmanagement.smartflow.data.enums.Locations;
+import com.trafficmanagement.smartflow.data.enums.VehicleMovement;
+import com.trafficmanagement.smartflow.data.enums.VehicleType;
+import com.trafficmanagement.smartflow.data.model.Intersection;
+import com.trafficmanagement.smartflow.data.model.Vehicle;
+import com.trafficmanagement.smartflow.data.model.VehicleStateStore;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link Intersection#isMyTurn} and {@link Intersection#getPositionInQueue} with {@code
+ * queueDepth} vehicles waiting, spread round-robin over the four approaches. The head is the
+ * first arrival; the tail is the last one.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = BenchmarkSupport.QUIET_LOGGING)
+public class IntersectionQueueBenchmark {
+  private static final Locations[] APPROACHES = {
+    Locations.NORTH, Locations.EAST, Locations.SOUTH, Locations.WEST
+  };
+
+  @Param({"1", "16", "128", "1024"})
+  public int queueDepth;
+
+  private Intersection intersection;
+  private Vehicle head;
+  private Vehicle tail;
+
+  @Setup(Level.Trial)
+  public void fillQueues() {
+    VehicleStateStore stateStore = new VehicleStateStore();
+    intersection = new Intersection();
+    for (int ind = 0; ind < queueDepth; ind++) {
+      Vehicle vehicle =
+          new Vehicle(
+              stateStore,
+              VehicleType.NORMAL,
+              APPROACHES[ind % APPROACHES.length],
+              VehicleMovement.STRAIGHT,
+              intersection);
+      intersection.addToQueue(vehicle);
+      if (head == null) head = vehicle;
+      tail = vehicle;
+    }
+  }
+
+  @Benchmark
+  public boolean isMyTurnHead() {
+    return intersection.isMyTurn(head);
+  }
+
+  @Benchmark
+  public boolean isMyTurnTail() {
+    return intersection.isMyTurn(tail);
+  }
+
+  @Benchmark
+  public int positionInQueueTail() {
+    return intersection.getPositionInQueue(tail);
+  }
+}
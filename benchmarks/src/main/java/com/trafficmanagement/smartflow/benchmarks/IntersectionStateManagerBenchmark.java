@@ -0,0 +1,71 @@
+package com.trafficmanagement.smartflow.benchmarks;
+
+import com.trafficmanagement.smartflow.data.enums.Locations;
+import com.trafficmanagement.smartflow.data.enums.VehicleMovement;
+import com.trafficmanagement.smartflow.data.enums.VehicleType;
+import com.trafficmanagement.smartflow.data.model.IntersectionStateManager;
+import com.trafficmanagement.smartflow.data.model.MotorwayIntersection;
+import com.trafficmanagement.smartflow.data.model.Vehicle;
+import com.trafficmanagement.smartflow.data.model.VehicleStateStore;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link IntersectionStateManager#isOpposingTrafficCrossing} with {@code zoneOccupancy} vehicles
+ * inside the straight zone. With {@code opposing=false} every vehicle comes from the turning
+ * vehicle's own side, which is the full-scan worst case.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = BenchmarkSupport.QUIET_LOGGING)
+public class IntersectionStateManagerBenchmark {
+  // An intersection of the default scenario.
+  private static final int TARGET_INTERSECTION = 2;
+
+  @Param({"0", "8", "64"})
+  public int zoneOccupancy;
+
+  @Param({"false", "true"})
+  public boolean opposing;
+
+  private IntersectionStateManager stateManager;
+  private Vehicle turningVehicle;
+
+  @Setup(Level.Trial)
+  public void fillZone() {
+    VehicleStateStore stateStore = new VehicleStateStore();
+    MotorwayIntersection intersection = new MotorwayIntersection(TARGET_INTERSECTION);
+    stateManager = new IntersectionStateManager();
+    turningVehicle =
+        new Vehicle(
+            stateStore, VehicleType.NORMAL, Locations.WEST, VehicleMovement.TURN_LEFT, intersection);
+
+    for (int ind = 0; ind < zoneOccupancy; ind++) {
+      boolean last = ind == zoneOccupancy - 1;
+      Locations origin = opposing && last ? Locations.EAST : Locations.WEST;
+      Vehicle straight =
+          new Vehicle(
+              stateStore, VehicleType.NORMAL, origin, VehicleMovement.STRAIGHT, intersection);
+      stateManager.vehicleEntersStraightZone(TARGET_INTERSECTION, straight);
+    }
+  }
+
+  @Benchmark
+  public boolean isOpposingTrafficCrossing() {
+    return stateManager.isOpposingTrafficCrossing(TARGET_INTERSECTION, turningVehicle);
+  }
+}
@@ -0,0 +1,109 @@
+package com.trafficmanagement.smartflow.benchmarks;
+
+import com.trafficmanagement.smartflow.data.model.VehiclePath;
+import com.trafficmanagement.smartflow.utils.GeometryUtils;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javafx.geometry.Point2D;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One motorway movement step (leader proximity check, move towards the current path vertex,
+ * segment advance) done the way {@code Vehicle} used to do it, with {@code Point2D}, {@code
+ * Math.pow} and {@code atan2/cos/sin}, against the primitive kernel it uses now.
+ *
+ * <p>Run with {@code -prof gc}: {@code gc.alloc.rate.norm} is the bytes allocated per step.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = BenchmarkSupport.QUIET_LOGGING)
+public class KinematicsBenchmark {
+  private static final double[] PATH_XS = {0, 900, 960, 960};
+  private static final double[] PATH_YS = {540, 540, 540, -50};
+  private static final double SPEED = 2.0;
+  private static final double SAFE_DISTANCE = 50.0;
+  private static final double SEGMENT_REACHED = 2.0;
+  private static final double LEADER_X = 5_000;
+  private static final double LEADER_Y = 540;
+
+  private List<Point2D> pointPath;
+  private VehiclePath vehiclePath;
+  private double x;
+  private double y;
+  private int segment;
+
+  @Setup(Level.Trial)
+  public void buildPaths() {
+    pointPath = new ArrayList<>();
+    for (int ind = 0; ind < PATH_XS.length; ind++)
+      pointPath.add(new Point2D(PATH_XS[ind], PATH_YS[ind]));
+    vehiclePath = VehiclePath.of(PATH_XS, PATH_YS);
+    restart();
+  }
+
+  @Benchmark
+  public double pointStep() {
+    if (legacyDistanceTo(new Point2D(LEADER_X, LEADER_Y)) < SAFE_DISTANCE) return x;
+
+    Point2D target = pointPath.get(segment);
+    if (legacyDistanceTo(target) < SPEED) {
+      x = target.getX();
+      y = target.getY();
+    } else {
+      double angle = Math.atan2(target.getY() - y, target.getX() - x);
+      x += SPEED * Math.cos(angle);
+      y += SPEED * Math.sin(angle);
+    }
+    if (legacyDistanceTo(target) < SEGMENT_REACHED) segment++;
+    if (segment >= pointPath.size()) restart();
+    return x + y;
+  }
+
+  @Benchmark
+  public double kernelStep() {
+    if (GeometryUtils.isWithin(x, y, LEADER_X, LEADER_Y, SAFE_DISTANCE)) return x;
+
+    double targetX = vehiclePath.getX(segment);
+    double targetY = vehiclePath.getY(segment);
+    double dx = targetX - x;
+    double dy = targetY - y;
+    if (dx * dx + dy * dy < SPEED * SPEED) {
+      x = targetX;
+      y = targetY;
+    } else {
+      x += SPEED * vehiclePath.getUnitX(segment);
+      y += SPEED * vehiclePath.getUnitY(segment);
+    }
+    if (GeometryUtils.isWithin(x, y, targetX, targetY, SEGMENT_REACHED)) {
+      x = targetX;
+      y = targetY;
+      segment++;
+    }
+    if (segment >= vehiclePath.size()) restart();
+    return x + y;
+  }
+
+  private double legacyDistanceTo(Point2D target) {
+    return Math.sqrt(Math.pow(target.getX() - x, 2) + Math.pow(target.getY() - y, 2));
+  }
+
+  private void restart() {
+    x = PATH_XS[0];
+    y = PATH_YS[0];
+    segment = 1;
+  }
+}
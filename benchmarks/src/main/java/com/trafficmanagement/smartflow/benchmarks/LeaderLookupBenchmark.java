@@ -0,0 +1,91 @@
+package com.trafficmanagement.smartflow.benchmarks;
+
+import com.trafficmanagement.smartflow.data.enums.Locations;
+import com.trafficmanagement.smartflow.data.enums.VehicleMovement;
+import com.trafficmanagement.smartflow.data.enums.VehicleType;
+import com.trafficmanagement.smartflow.data.model.MotorwayIntersection;
+import com.trafficmanagement.smartflow.data.model.Vehicle;
+import com.trafficmanagement.smartflow.data.model.VehicleStateStore;
+import com.trafficmanagement.smartflow.simulation.LaneIndex;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Leader lookup for one follower with {@code vehicleCount} vehicles on the motorway, half of them
+ * in the follower's lane. {@code linearScan} is the all-vehicles loop the controller used before
+ * the engine existed; {@code laneIndex} is the {@link LaneIndex} lookup the headless engine and
+ * the controller share now.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = BenchmarkSupport.QUIET_LOGGING)
+public class LeaderLookupBenchmark {
+  // An intersection of the default scenario.
+  private static final int TARGET_INTERSECTION = 4;
+
+  private static final double SPACING = 12.0;
+  private static final double LANE_Y = 540.0;
+
+  @Param({"16", "256", "4096"})
+  public int vehicleCount;
+
+  private final List<Vehicle> vehicles = new ArrayList<>();
+  private final LaneIndex laneIndex = new LaneIndex();
+  private Vehicle follower;
+
+  @Setup(Level.Trial)
+  public void placeVehicles() {
+    VehicleStateStore stateStore = new VehicleStateStore();
+    MotorwayIntersection intersection = new MotorwayIntersection(TARGET_INTERSECTION);
+    for (int ind = 0; ind < vehicleCount; ind++) {
+      Vehicle vehicle =
+          new Vehicle(
+              stateStore, VehicleType.NORMAL, Locations.WEST, VehicleMovement.STRAIGHT, intersection);
+      vehicle.setLane(ind % 2 == 0 ? Locations.FIRST_RAIL : Locations.SECOND_RAIL);
+      vehicle.setPosition(ind * SPACING, LANE_Y);
+      vehicles.add(vehicle);
+      laneIndex.add(vehicle);
+    }
+    laneIndex.refresh();
+    follower = vehicles.get(vehicleCount / 2 - (vehicleCount / 2) % 2);
+  }
+
+  @Benchmark
+  public Vehicle linearScan() {
+    Vehicle leader = null;
+    double minDistance = Double.MAX_VALUE;
+    for (Vehicle potentialLeader : vehicles) {
+      if (follower.equals(potentialLeader)) continue;
+      if (follower.getOrigin() == potentialLeader.getOrigin()
+          && follower.getLane() == potentialLeader.getLane()) {
+        double distance = potentialLeader.getX() - follower.getX();
+        if (distance > 0 && distance < minDistance) {
+          minDistance = distance;
+          leader = potentialLeader;
+        }
+      }
+    }
+    return leader;
+  }
+
+  @Benchmark
+  public Vehicle laneIndex() {
+    return laneIndex.findLeadingVehicle(follower);
+  }
+}
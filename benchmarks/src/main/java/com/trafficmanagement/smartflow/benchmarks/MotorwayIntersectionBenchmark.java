@@ -0,0 +1,130 @@
+package com.trafficmanagement.smartflow.benchmarks;
+
+import com.trafficmanagement.smartflow.data.enums.Locations;
+import com.trafficmanagement.smartflow.data.enums.VehicleMovement;
+import com.trafficmanagement.smartflow.data.enums.VehicleType;
+import com.trafficmanagement.smartflow.data.model.MotorwayIntersection;
+import com.trafficmanagement.smartflow.data.model.Vehicle;
+import com.trafficmanagement.smartflow.data.model.VehicleStateStore;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+/**
+ * Admission cycle of one {@link MotorwayIntersection} shared by 1, 4, 16 and 64 threads. Each
+ * thread owns one vehicle, alternating direction and lane by thread index, and repeatedly queues
+ * it, asks for its turn, crosses when admitted and leaves.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = BenchmarkSupport.QUIET_LOGGING)
+public class MotorwayIntersectionBenchmark {
+  // An intersection of the default scenario.
+  private static final int TARGET_INTERSECTION = 2;
+
+  private static final Locations[] LANES = {
+    Locations.FIRST_RAIL, Locations.SECOND_RAIL, Locations.THIRD_RAIL
+  };
+
+  @State(Scope.Benchmark)
+  public static class SharedIntersection {
+    final VehicleStateStore stateStore = new VehicleStateStore();
+    MotorwayIntersection intersection;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      intersection = new MotorwayIntersection(TARGET_INTERSECTION);
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class ThreadVehicle {
+    Vehicle vehicle;
+
+    @Setup(Level.Iteration)
+    public void create(SharedIntersection shared, ThreadParams threadParams) {
+      vehicle = createVehicle(shared, threadParams.getThreadIndex());
+    }
+  }
+
+  /** A thread's vehicle that stays queued, so {@code isMyTurn} walks the real admission rules. */
+  @State(Scope.Thread)
+  public static class QueuedVehicle {
+    Vehicle vehicle;
+
+    @Setup(Level.Iteration)
+    public void createAndQueue(SharedIntersection shared, ThreadParams threadParams) {
+      vehicle = createVehicle(shared, threadParams.getThreadIndex());
+      shared.intersection.addToQueue(vehicle);
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public boolean admissionCycle01(SharedIntersection shared, ThreadVehicle state) {
+    return admissionCycle(shared.intersection, state.vehicle);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public boolean admissionCycle04(SharedIntersection shared, ThreadVehicle state) {
+    return admissionCycle(shared.intersection, state.vehicle);
+  }
+
+  @Benchmark
+  @Threads(16)
+  public boolean admissionCycle16(SharedIntersection shared, ThreadVehicle state) {
+    return admissionCycle(shared.intersection, state.vehicle);
+  }
+
+  @Benchmark
+  @Threads(64)
+  public boolean admissionCycle64(SharedIntersection shared, ThreadVehicle state) {
+    return admissionCycle(shared.intersection, state.vehicle);
+  }
+
+  @Benchmark
+  @Threads(1)
+  public boolean isMyTurn01(SharedIntersection shared, QueuedVehicle state) {
+    return shared.intersection.isMyTurn(state.vehicle);
+  }
+
+  @Benchmark
+  @Threads(64)
+  public boolean isMyTurn64(SharedIntersection shared, QueuedVehicle state) {
+    return shared.intersection.isMyTurn(state.vehicle);
+  }
+
+  private static Vehicle createVehicle(SharedIntersection shared, int threadIndex) {
+    Locations origin = threadIndex % 2 == 0 ? Locations.WEST : Locations.EAST;
+    Vehicle vehicle =
+        new Vehicle(
+            shared.stateStore,
+            VehicleType.NORMAL,
+            origin,
+            VehicleMovement.TURN_LEFT,
+            shared.intersection);
+    vehicle.setLane(LANES[(threadIndex / 2) % LANES.length]);
+    return vehicle;
+  }
+
+  private static boolean admissionCycle(MotorwayIntersection intersection, Vehicle vehicle) {
+    intersection.addToQueue(vehicle);
+    boolean admitted = intersection.isMyTurn(vehicle) && intersection.startCrossing(vehicle);
+    intersection.leaveIntersection(vehicle);
+    return admitted;
+  }
+}
@@ -0,0 +1,58 @@
+package com.trafficmanagement.smartflow.benchmarks;
+
+import com.trafficmanagement.smartflow.data.enums.Locations;
+import com.trafficmanagement.smartflow.data.enums.VehicleMovement;
+import com.trafficmanagement.smartflow.data.model.MotorwayIntersection;
+import com.trafficmanagement.smartflow.data.model.VehiclePath;
+import com.trafficmanagement.smartflow.simulation.IntersectionGeometry;
+import com.trafficmanagement.smartflow.simulation.MotorwayGeometry;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Route lookup at spawn, on the motorway and on the 4-way intersection. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = BenchmarkSupport.QUIET_LOGGING)
+public class PathBenchmark {
+  // An intersection of the default scenario.
+  private static final int TARGET_INTERSECTION = 3;
+
+  @Param({"STRAIGHT", "TURN_LEFT", "TURN_RIGHT", "U_TURN"})
+  public VehicleMovement movement;
+
+  private final MotorwayGeometry motorwayGeometry = new MotorwayGeometry();
+  private final IntersectionGeometry intersectionGeometry = new IntersectionGeometry();
+  private final MotorwayIntersection target = new MotorwayIntersection(TARGET_INTERSECTION);
+  private Locations lane;
+
+  @Setup(Level.Trial)
+  public void resize() {
+    motorwayGeometry.resize(BenchmarkSupport.WIDTH, BenchmarkSupport.HEIGHT);
+    intersectionGeometry.resize(BenchmarkSupport.WIDTH, BenchmarkSupport.HEIGHT);
+    lane = movement == VehicleMovement.TURN_RIGHT ? Locations.THIRD_RAIL : Locations.FIRST_RAIL;
+  }
+
+  @Benchmark
+  public VehiclePath motorwayPath() {
+    return motorwayGeometry.routeFor(Locations.WEST, lane, movement, target);
+  }
+
+  @Benchmark
+  public VehiclePath intersectionPath() {
+    return intersectionGeometry.routeFor(Locations.WEST, movement);
+  }
+}
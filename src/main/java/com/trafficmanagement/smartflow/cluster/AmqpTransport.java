@@ -0,0 +1,101 @@
+package com.trafficmanagement.smartflow.cluster;
+
+import static com.trafficmanagement.smartflow.utils.ClusterConstants.*;
+
+import com.rabbitmq.client.BuiltinExchangeType;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Connection;
+import com.rabbitmq.client.ConnectionFactory;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Transport over an AMQP 0-9-1 broker, by default the RabbitMQ of {@code compose.yml} ({@code
+ * -Dsmartflow.amqpUri} to point elsewhere). Every partition has its own queue bound to one direct
+ * exchange under the partition number. Each endpoint declares all of them on connect, so a message
+ * waits in its queue even if the receiving JVM has not started yet. Queues and exchange are
+ * transient and go away once the last partition disconnects.
+ *
+ * <p>Messages are published on one channel and consumed on another with automatic
+ * acknowledgement: a lost partition stalls the run at the next tick barrier anyway, so there is
+ * nothing to redeliver to.
+ */
+@Slf4j
+public class AmqpTransport implements ClusterTransport {
+  @Getter private final int partition;
+  @Getter private final int partitionCount;
+  private final Connection connection;
+  private final Channel publishChannel;
+  private final BlockingQueue<ByteBuffer> inbox = new LinkedBlockingQueue<>();
+
+  public AmqpTransport(int partition, int partitionCount) throws IOException {
+    this(System.getProperty(AMQP_URI_PROPERTY, AMQP_DEFAULT_URI), partition, partitionCount);
+  }
+
+  public AmqpTransport(String uri, int partition, int partitionCount) throws IOException {
+    this.partition = partition;
+    this.partitionCount = partitionCount;
+    ConnectionFactory factory = new ConnectionFactory();
+    try {
+      factory.setUri(uri);
+      connection = factory.newConnection(AMQP_CONNECTION_PREFIX + partition);
+    } catch (URISyntaxException | GeneralSecurityException e) {
+      throw new IOException("malformed amqp uri: " + uri, e);
+    } catch (TimeoutException e) {
+      throw new IOException("amqp connection timed out: " + factory.getHost(), e);
+    }
+    try {
+      publishChannel = connection.createChannel();
+      publishChannel.exchangeDeclare(AMQP_EXCHANGE, BuiltinExchangeType.DIRECT, false, true, null);
+      for (int ind = 0; ind < partitionCount; ind++) {
+        publishChannel.queueDeclare(queueOf(ind), false, false, true, null);
+        publishChannel.queueBind(queueOf(ind), AMQP_EXCHANGE, Integer.toString(ind));
+      }
+      Channel consumeChannel = connection.createChannel();
+      consumeChannel.basicConsume(
+          queueOf(partition),
+          true,
+          (consumerTag, delivery) -> inbox.add(ByteBuffer.wrap(delivery.getBody())),
+          consumerTag -> log.warn("amqp_consumer_cancelled partition={}", partition));
+    } catch (IOException e) {
+      connection.abort();
+      throw e;
+    }
+    log.info(
+        "amqp_transport_connected host={} partition={} partitionCount={} queue={}",
+        factory.getHost(),
+        partition,
+        partitionCount,
+        queueOf(partition));
+  }
+
+  private static String queueOf(int partition) {
+    return AMQP_QUEUE_PREFIX + partition;
+  }
+
+  @Override
+  public void send(int partition, ByteBuffer message) throws IOException {
+    byte[] body = new byte[message.remaining()];
+    message.get(body);
+    publishChannel.basicPublish(AMQP_EXCHANGE, Integer.toString(partition), null, body);
+  }
+
+  @Override
+  public ByteBuffer receive(long timeoutMillis) throws InterruptedException {
+    return inbox.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (connection.isOpen()) connection.close();
+    log.info("amqp_transport_closed partition={}", partition);
+  }
+}
@@ -0,0 +1,133 @@
+package com.trafficmanagement.smartflow.cluster;
+
+import static com.trafficmanagement.smartflow.utils.ClusterConstants.*;
+import static com.trafficmanagement.smartflow.utils.SimulationConstants.*;
+
+import com.trafficmanagement.smartflow.controller.TrafficLightController;
+import com.trafficmanagement.smartflow.data.enums.SimulationType;
+import com.trafficmanagement.smartflow.network.RoadNetwork;
+import com.trafficmanagement.smartflow.simulation.SimulationReplay;
+import com.trafficmanagement.smartflow.simulation.SpawnSchedule;
+import com.trafficmanagement.smartflow.simulation.VehicleExecutor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs a motorway workload split into partitions, see {@link PartitionNode}.
+ *
+ * <p>Arguments: {@code [partitions] [vehicles] [ticks] [seed]}. With the default {@code
+ * -Dsmartflow.clusterTransport=LOOPBACK} every partition runs on its own thread in this JVM, and
+ * the totals are logged next to an unpartitioned run of the same schedule. With {@code AMQP} this
+ * JVM runs only partition {@code -Dsmartflow.clusterPartition=<n>}; start one JVM per partition
+ * with the same arguments.
+ */
+@Slf4j
+public class ClusterSimulationRunner {
+
+  private ClusterSimulationRunner() {}
+
+  public static void main(String[] args) throws Exception {
+    int partitions = args.length > 0 ? Integer.parseInt(args[0]) : CLUSTER_DEFAULT_PARTITIONS;
+    int vehicles = args.length > 1 ? Integer.parseInt(args[1]) : HEADLESS_DEFAULT_VEHICLES;
+    long ticks = args.length > 2 ? Long.parseLong(args[2]) : HEADLESS_DEFAULT_TICKS;
+    long seed = args.length > 3 ? Long.parseLong(args[3]) : HEADLESS_DEFAULT_SEED;
+    RoadNetwork network = RoadNetwork.fromSystemProperty();
+    TrafficLightController.Mode signalControlMode =
+        TrafficLightController.Mode.fromSystemProperty();
+    SpawnSchedule schedule =
+        SpawnSchedule.random(
+            SimulationType.MOTORWAY,
+            seed,
+            HEADLESS_DEFAULT_WIDTH,
+            HEADLESS_DEFAULT_HEIGHT,
+            vehicles,
+            0,
+            Math.max(1, ticks / 2),
+            network);
+
+    if (ClusterTransport.Kind.fromSystemProperty() == ClusterTransport.Kind.AMQP) {
+      int partition = Integer.getInteger(CLUSTER_PARTITION_PROPERTY, 0);
+      try (PartitionNode node =
+          new PartitionNode(
+              new AmqpTransport(partition, partitions), schedule, signalControlMode, network)) {
+        logPartition(node.run(ticks));
+      }
+      return;
+    }
+
+    LoopbackTransport[] transports = LoopbackTransport.connect(partitions);
+    List<PartitionNode> nodes = new ArrayList<>();
+    for (LoopbackTransport transport : transports)
+      nodes.add(new PartitionNode(transport, schedule, signalControlMode, network));
+    List<PartitionNode.Result> results = new ArrayList<>();
+    try (ExecutorService threads = Executors.newFixedThreadPool(partitions)) {
+      List<Future<PartitionNode.Result>> running = new ArrayList<>();
+      for (PartitionNode node : nodes) running.add(threads.submit(() -> node.run(ticks)));
+      for (Future<PartitionNode.Result> result : running) results.add(result.get());
+    } catch (ExecutionException e) {
+      log.error("cluster_run_failed partitions={}", partitions, e.getCause());
+      return;
+    } finally {
+      for (PartitionNode node : nodes) node.close();
+    }
+
+    long finished = 0;
+    int remaining = 0;
+    long handedOff = 0;
+    long messages = 0;
+    long bytes = 0;
+    long hash = 0;
+    long elapsedNanos = 0;
+    for (PartitionNode.Result result : results) {
+      logPartition(result);
+      finished += result.vehiclesFinished();
+      remaining += result.vehiclesRemaining();
+      handedOff += result.vehiclesHandedOff();
+      messages += result.messagesSent();
+      bytes += result.bytesSent();
+      hash = hash * 31 + result.stateHash();
+      elapsedNanos = Math.max(elapsedNanos, result.elapsedNanos());
+    }
+    SimulationReplay.Result single =
+        SimulationReplay.run(
+            schedule,
+            ticks,
+            signalControlMode,
+            new VehicleExecutor(VehicleExecutor.Mode.SHARDED, 1));
+    log.info(
+        "cluster_run_completed transport=LOOPBACK partitions={} ticks={} vehiclesSpawned={} vehiclesFinished={} vehiclesRemaining={} vehiclesHandedOff={} messagesPerTick={} bytesPerMessage={} elapsedMillis={} stateHash={} unpartitionedFinished={} unpartitionedRemaining={} unpartitionedMillis={}",
+        partitions,
+        ticks,
+        schedule.events().size(),
+        finished,
+        remaining,
+        handedOff,
+        messages / Math.max(1, ticks),
+        bytes / Math.max(1, messages),
+        elapsedNanos / NANOS_PER_MILLI,
+        Long.toHexString(hash),
+        single.vehiclesFinished(),
+        single.vehiclesRemaining(),
+        single.elapsedNanos() / NANOS_PER_MILLI);
+  }
+
+  private static void logPartition(PartitionNode.Result result) {
+    log.info(
+        "cluster_partition_completed partition={} ticks={} vehiclesSpawned={} vehiclesFinished={} vehiclesRemaining={} vehiclesHandedOff={} messagesSent={} bytesSent={} elapsedMillis={} stateHash={}",
+        result.partition(),
+        result.ticks(),
+        result.vehiclesSpawned(),
+        result.vehiclesFinished(),
+        result.vehiclesRemaining(),
+        result.vehiclesHandedOff(),
+        result.messagesSent(),
+        result.bytesSent(),
+        result.elapsedNanos() / NANOS_PER_MILLI,
+        Long.toHexString(result.stateHash()));
+  }
+}
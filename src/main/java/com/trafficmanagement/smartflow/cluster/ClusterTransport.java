@@ -0,0 +1,41 @@
+package com.trafficmanagement.smartflow.cluster;
+
+import static com.trafficmanagement.smartflow.utils.ClusterConstants.CLUSTER_TRANSPORT_PROPERTY;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Carries binary messages between the partitions of a distributed run, one endpoint per
+ * partition. Messages from one sender arrive in the order they were sent; messages from different
+ * senders may interleave.
+ */
+public interface ClusterTransport extends AutoCloseable {
+  /**
+   * {@code LOOPBACK} keeps every partition in one JVM and hands messages over in memory. {@code
+   * AMQP} runs one partition per JVM and exchanges messages through a broker such as the RabbitMQ
+   * of {@code compose.yml}.
+   */
+  enum Kind {
+    LOOPBACK,
+    AMQP;
+
+    public static Kind fromSystemProperty() {
+      String configured = System.getProperty(CLUSTER_TRANSPORT_PROPERTY);
+      return configured == null ? LOOPBACK : Kind.valueOf(configured.trim().toUpperCase());
+    }
+  }
+
+  int getPartition();
+
+  int getPartitionCount();
+
+  /** Sends the remaining bytes of {@code message}; the buffer can be reused once this returns. */
+  void send(int partition, ByteBuffer message) throws IOException;
+
+  /** The next message for this partition, or {@code null} if none arrived within the timeout. */
+  ByteBuffer receive(long timeoutMillis) throws IOException, InterruptedException;
+
+  @Override
+  void close() throws IOException;
+}
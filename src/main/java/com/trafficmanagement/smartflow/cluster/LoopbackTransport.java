@@ -0,0 +1,54 @@
+package com.trafficmanagement.smartflow.cluster;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import lombok.Getter;
+
+/**
+ * In-memory transport for running every partition of a distributed run inside one JVM, in tests
+ * or as a stand-in for the broker. Each partition has an unbounded inbox; sending copies the
+ * message into it.
+ */
+public class LoopbackTransport implements ClusterTransport {
+  @Getter private final int partition;
+  private final List<BlockingQueue<ByteBuffer>> inboxes;
+
+  private LoopbackTransport(int partition, List<BlockingQueue<ByteBuffer>> inboxes) {
+    this.partition = partition;
+    this.inboxes = inboxes;
+  }
+
+  /** One endpoint per partition, all connected to each other. */
+  public static LoopbackTransport[] connect(int partitionCount) {
+    List<BlockingQueue<ByteBuffer>> inboxes = new ArrayList<>(partitionCount);
+    LoopbackTransport[] endpoints = new LoopbackTransport[partitionCount];
+    for (int ind = 0; ind < partitionCount; ind++) inboxes.add(new LinkedBlockingQueue<>());
+    for (int ind = 0; ind < partitionCount; ind++)
+      endpoints[ind] = new LoopbackTransport(ind, inboxes);
+    return endpoints;
+  }
+
+  @Override
+  public int getPartitionCount() {
+    return inboxes.size();
+  }
+
+  @Override
+  public void send(int partition, ByteBuffer message) {
+    ByteBuffer copy = ByteBuffer.allocate(message.remaining());
+    copy.put(message).flip();
+    inboxes.get(partition).add(copy);
+  }
+
+  @Override
+  public ByteBuffer receive(long timeoutMillis) throws InterruptedException {
+    return inboxes.get(partition).poll(timeoutMillis, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public void close() {}
+}
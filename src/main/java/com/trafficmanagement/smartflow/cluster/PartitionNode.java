@@ -0,0 +1,278 @@
+package com.trafficmanagement.smartflow.cluster;
+
+import static com.trafficmanagement.smartflow.utils.ClusterConstants.*;
+
+import com.trafficmanagement.smartflow.controller.LightMask;
+import com.trafficmanagement.smartflow.controller.TrafficLightController;
+import com.trafficmanagement.smartflow.data.enums.Locations;
+import com.trafficmanagement.smartflow.data.enums.SimulationType;
+import com.trafficmanagement.smartflow.data.model.Vehicle;
+import com.trafficmanagement.smartflow.network.RoadNetwork;
+import com.trafficmanagement.smartflow.simulation.MotorwayLayout;
+import com.trafficmanagement.smartflow.simulation.SimulationEngine;
+import com.trafficmanagement.smartflow.simulation.SpawnEvent;
+import com.trafficmanagement.smartflow.simulation.SpawnSchedule;
+import com.trafficmanagement.smartflow.simulation.VehicleExecutor;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * One partition of a motorway simulation spread over several JVMs. The motorway is cut at {@link
+ * MotorwayLayout#spanCuts} points and each partition runs its own {@link SimulationEngine} for the
+ * vehicles in its span. After every tick it sends each other partition one {@link TickBatch}: the
+ * vehicles that crossed into the receiver's span, its own vehicles close enough to the shared cut
+ * to lead the receiver's vehicles, and the lights at its intersections. A partition starts tick
+ * {@code t} only once it holds the batches of tick {@code t - 1} from every other partition, so the
+ * batches are the tick barrier as well.
+ *
+ * <p>The engine runs the {@code SHARDED} executor with one worker, which judges leaders on their
+ * start-of-tick positions, so the neighbours' positions at the end of the previous tick are all a
+ * partition needs. Vehicles enter from the west in the first partition and from the east in the
+ * last one. Lights at another partition's intersections follow that partition one tick late; no
+ * vehicle of this partition is close enough to them for that to matter.
+ */
+@Slf4j
+public class PartitionNode implements AutoCloseable {
+  public record Result(
+      int partition,
+      long ticks,
+      int vehiclesSpawned,
+      long vehiclesFinished,
+      int vehiclesRemaining,
+      long vehiclesHandedOff,
+      long messagesSent,
+      long bytesSent,
+      long stateHash,
+      long elapsedNanos) {}
+
+  private final ClusterTransport transport;
+  private final int partition;
+  private final int partitionCount;
+  private final SimulationEngine engine;
+  private final double[] cuts;
+  private final double westEdge;
+  private final double eastEdge;
+  private final LightMask ownedLights;
+  private final int vehiclesSpawned;
+  private final TickBatch.Writer[] writers;
+  private final List<ArrayDeque<TickBatch>> received;
+  // Stand-ins for other partitions' vehicles near a cut, per sender and keyed by its vehicle ids.
+  private final List<Map<Integer, Vehicle>> boundaryVehicles;
+  // Stand-ins for vehicles handed off after the last tick, until the receiver reports them.
+  private final List<Vehicle> departed = new ArrayList<>();
+  private long vehiclesHandedOff;
+  private long messagesSent;
+  private long bytesSent;
+
+  public PartitionNode(
+      ClusterTransport transport,
+      SpawnSchedule schedule,
+      TrafficLightController.Mode signalControlMode,
+      RoadNetwork network) {
+    if (schedule.simulationType() != SimulationType.MOTORWAY)
+      throw new IllegalArgumentException("only motorway runs can be partitioned");
+    this.transport = transport;
+    this.partition = transport.getPartition();
+    this.partitionCount = transport.getPartitionCount();
+    this.engine =
+        new SimulationEngine(
+            SimulationType.MOTORWAY,
+            new VehicleExecutor(VehicleExecutor.Mode.SHARDED, 1),
+            signalControlMode,
+            network);
+    engine.resize(schedule.width(), schedule.height());
+    MotorwayLayout layout = engine.getMotorwayGeometry().getLayout();
+    this.cuts = layout.spanCuts(partitionCount);
+    if (cuts.length != partitionCount - 1)
+      throw new IllegalArgumentException(
+          "scenario has room for " + (cuts.length + 1) + " partitions, not " + partitionCount);
+    this.westEdge = partition == 0 ? Double.NEGATIVE_INFINITY : cuts[partition - 1];
+    this.eastEdge = partition == partitionCount - 1 ? Double.POSITIVE_INFINITY : cuts[partition];
+
+    LightMask lights = LightMask.NONE;
+    for (int ind = 0; ind < network.getSignalCount(); ind++) {
+      int lightId = network.getSignalId(ind);
+      double centerX = layout.getIntersectionCenterX(network.getSignalIntersection(lightId));
+      if (MotorwayLayout.spanAt(cuts, centerX) == partition)
+        lights = lights.with(lightId);
+    }
+    this.ownedLights = lights;
+
+    List<SpawnEvent> owned = new ArrayList<>();
+    for (SpawnEvent event : schedule.events())
+      if (entryPartition(event.origin()) == partition) owned.add(event);
+    this.vehiclesSpawned = owned.size();
+    engine.scheduleSpawns(
+        new SpawnSchedule(
+            schedule.simulationType(),
+            schedule.seed(),
+            schedule.width(),
+            schedule.height(),
+            owned));
+
+    writers = new TickBatch.Writer[partitionCount];
+    received = new ArrayList<>(partitionCount);
+    boundaryVehicles = new ArrayList<>(partitionCount);
+    for (int ind = 0; ind < partitionCount; ind++) {
+      writers[ind] = new TickBatch.Writer();
+      received.add(new ArrayDeque<>());
+      boundaryVehicles.add(new HashMap<>());
+    }
+    log.info(
+        "partition_node_created partition={} partitionCount={} westEdge={} eastEdge={} vehicles={}",
+        partition,
+        partitionCount,
+        westEdge,
+        eastEdge,
+        vehiclesSpawned);
+  }
+
+  private int entryPartition(Locations origin) {
+    return origin == Locations.WEST ? 0 : partitionCount - 1;
+  }
+
+  public Result run(long ticks) throws IOException, InterruptedException {
+    long hash = 0;
+    long startNanos = System.nanoTime();
+    for (long tick = 0; tick < ticks; tick++) {
+      if (tick > 0) applyBatchesOf(tick - 1);
+      engine.tick();
+      hash = hash * 31 + engine.stateHash();
+      sendBatchesOf(tick);
+    }
+    long elapsedNanos = System.nanoTime() - startNanos;
+    return new Result(
+        partition,
+        engine.getTickCount(),
+        vehiclesSpawned,
+        engine.getFinishedVehicleCount(),
+        engine.getVehicleCount(),
+        vehiclesHandedOff,
+        messagesSent,
+        bytesSent,
+        hash,
+        elapsedNanos);
+  }
+
+  private void sendBatchesOf(long tick) throws IOException {
+    LightMask greenMask =
+        engine.getTrafficLightController().getLightMask().intersection(ownedLights);
+    for (int other = 0; other < partitionCount; other++)
+      if (other != partition) writers[other].begin(partition, tick, ownedLights, greenMask);
+
+    List<Vehicle> leaving =
+        engine.handOffVehicles(vehicle -> MotorwayLayout.spanAt(cuts, vehicle.getX()) != partition);
+    for (Vehicle vehicle : leaving) {
+      writers[MotorwayLayout.spanAt(cuts, vehicle.getX())].addHandoff(vehicle);
+      departed.add(
+          engine.addBoundaryVehicle(
+              vehicle.getType(),
+              vehicle.getOrigin(),
+              vehicle.getLane(),
+              vehicle.getX(),
+              vehicle.getY()));
+      vehicle.detach();
+    }
+    vehiclesHandedOff += leaving.size();
+
+    engine.forEachVehicle(
+        vehicle -> {
+          double x = vehicle.getX();
+          if (x - westEdge < BOUNDARY_VEHICLE_DISTANCE)
+            writers[partition - 1].addBoundaryVehicle(vehicle);
+          if (eastEdge - x < BOUNDARY_VEHICLE_DISTANCE)
+            writers[partition + 1].addBoundaryVehicle(vehicle);
+        });
+
+    for (int other = 0; other < partitionCount; other++) {
+      if (other == partition) continue;
+      ByteBuffer message = writers[other].finish();
+      bytesSent += message.remaining();
+      messagesSent++;
+      transport.send(other, message);
+    }
+  }
+
+  /** Waits for the batches of {@code tick} from every other partition and applies them. */
+  private void applyBatchesOf(long tick) throws IOException, InterruptedException {
+    for (Vehicle standIn : departed) remove(standIn);
+    departed.clear();
+    for (int other = 0; other < partitionCount; other++) {
+      if (other == partition) continue;
+      while (received.get(other).isEmpty()) receiveOne(tick);
+      TickBatch batch = received.get(other).poll();
+      if (batch.tick() != tick)
+        throw new IOException(
+            "partition " + other + " sent tick " + batch.tick() + " while waiting for " + tick);
+      apply(batch);
+    }
+  }
+
+  private void apply(TickBatch batch) {
+    engine.getTrafficLightController().applyRemote(batch.lights(), batch.greenMask());
+    for (TickBatch.Handoff handoff : batch.handoffs()) {
+      Vehicle vehicle =
+          engine.adoptMotorwayVehicle(
+              handoff.type(),
+              handoff.origin(),
+              handoff.lane(),
+              handoff.movement(),
+              handoff.targetIntersectionId(),
+              handoff.routeStartX(),
+              handoff.routeStartY());
+      if (vehicle == null) continue;
+      vehicle.restoreState(
+          handoff.x(),
+          handoff.y(),
+          handoff.speed(),
+          handoff.pathSegment(),
+          handoff.nextLightIndex(),
+          handoff.flags());
+    }
+
+    Map<Integer, Vehicle> previous = boundaryVehicles.get(batch.sender());
+    Map<Integer, Vehicle> current = new HashMap<>();
+    for (TickBatch.BoundaryVehicle remote : batch.boundaryVehicles()) {
+      Vehicle standIn = previous.remove(remote.vehicleId());
+      if (standIn == null)
+        standIn =
+            engine.addBoundaryVehicle(
+                remote.type(), remote.origin(), remote.lane(), remote.x(), remote.y());
+      else standIn.setPosition(remote.x(), remote.y());
+      current.put(remote.vehicleId(), standIn);
+    }
+    for (Vehicle standIn : previous.values()) remove(standIn);
+    boundaryVehicles.set(batch.sender(), current);
+  }
+
+  private static void remove(Vehicle standIn) {
+    standIn.handOff();
+    standIn.detach();
+  }
+
+  private void receiveOne(long tick) throws IOException, InterruptedException {
+    ByteBuffer message = transport.receive(CLUSTER_BARRIER_TIMEOUT_MS);
+    if (message == null)
+      throw new IOException("no batch for tick " + tick + " within " + CLUSTER_BARRIER_TIMEOUT_MS);
+    TickBatch batch = TickBatch.decode(message);
+    if (batch.sender() < 0 || batch.sender() >= partitionCount || batch.sender() == partition)
+      throw new IOException("malformed tick batch: sender " + batch.sender());
+    received.get(batch.sender()).add(batch);
+  }
+
+  @Override
+  public void close() {
+    engine.shutdown();
+    try {
+      transport.close();
+    } catch (IOException e) {
+      log.warn("cluster_transport_close_failed partition={}", partition, e);
+    }
+  }
+}
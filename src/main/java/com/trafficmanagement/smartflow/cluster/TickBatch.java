@@ -0,0 +1,242 @@
+package com.trafficmanagement.smartflow.cluster;
+
+import static com.trafficmanagement.smartflow.utils.ClusterConstants.*;
+
+import com.trafficmanagement.smartflow.controller.LightMask;
+import com.trafficmanagement.smartflow.data.enums.Locations;
+import com.trafficmanagement.smartflow.data.enums.VehicleMovement;
+import com.trafficmanagement.smartflow.data.enums.VehicleType;
+import com.trafficmanagement.smartflow.data.model.Vehicle;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Everything one partition tells another about one tick, sent as a single message. Big-endian,
+ * a header followed by {@code records} records that each start with their kind:
+ *
+ * <pre>
+ * header            int magic, short version, short sender, long tick, int records,
+ *                   short light words, light words times (long lights, long green)
+ * handoff           byte kind, int vehicle id, byte type, byte origin, byte lane, byte movement,
+ *                   int target intersection, byte flags, int path segment, int next light,
+ *                   double x, double y, double speed
+ *                   [double route start x, double route start y after a U-turn]
+ * boundary vehicle  byte kind, int vehicle id, byte type, byte origin, byte lane, double x,
+ *                   double y
+ * </pre>
+ *
+ * <p>{@code lights} are the lights at the sender's intersections and {@code green} which of them
+ * are green, each as the words of a {@link LightMask}; the header carries as many words as the
+ * highest of the sender's lights needs. Vehicle ids are the sender's; an ordinal of -1 stands for
+ * no lane or no target intersection.
+ */
+record TickBatch(
+    int sender,
+    long tick,
+    LightMask lights,
+    LightMask greenMask,
+    List<Handoff> handoffs,
+    List<BoundaryVehicle> boundaryVehicles) {
+  private static final VehicleType[] TYPES = VehicleType.values();
+  private static final Locations[] LOCATIONS = Locations.values();
+  private static final VehicleMovement[] MOVEMENTS = VehicleMovement.values();
+  private static final int NONE = -1;
+
+  /** A vehicle that crossed into the receiver's span, with the state it needs to carry on. */
+  record Handoff(
+      int vehicleId,
+      VehicleType type,
+      Locations origin,
+      Locations lane,
+      VehicleMovement movement,
+      int targetIntersectionId,
+      int flags,
+      int pathSegment,
+      int nextLightIndex,
+      double x,
+      double y,
+      double speed,
+      double routeStartX,
+      double routeStartY) {}
+
+  /** A vehicle of the sender close enough to the shared cut to lead the receiver's vehicles. */
+  record BoundaryVehicle(
+      int vehicleId, VehicleType type, Locations origin, Locations lane, double x, double y) {}
+
+  static TickBatch decode(ByteBuffer message) throws IOException {
+    try {
+      if (message.getInt() != BATCH_MAGIC || message.getShort() != BATCH_VERSION)
+        throw new IOException("malformed tick batch: unknown magic or version");
+      int sender = message.getShort();
+      long tick = message.getLong();
+      int records = message.getInt();
+      int lightWords = Short.toUnsignedInt(message.getShort());
+      long[] lights = new long[lightWords];
+      long[] green = new long[lightWords];
+      for (int word = 0; word < lightWords; word++) {
+        lights[word] = message.getLong();
+        green[word] = message.getLong();
+      }
+      List<Handoff> handoffs = new ArrayList<>();
+      List<BoundaryVehicle> boundaryVehicles = new ArrayList<>();
+      for (int ind = 0; ind < records; ind++) {
+        byte kind = message.get();
+        if (kind == BATCH_RECORD_HANDOFF) handoffs.add(decodeHandoff(message));
+        else if (kind == BATCH_RECORD_BOUNDARY_VEHICLE)
+          boundaryVehicles.add(decodeBoundaryVehicle(message));
+        else throw new IOException("malformed tick batch: record kind " + kind);
+      }
+      return new TickBatch(
+          sender,
+          tick,
+          LightMask.ofWords(lights),
+          LightMask.ofWords(green),
+          handoffs,
+          boundaryVehicles);
+    } catch (BufferUnderflowException | ArrayIndexOutOfBoundsException e) {
+      throw new IOException("malformed tick batch: truncated", e);
+    }
+  }
+
+  private static Handoff decodeHandoff(ByteBuffer message) {
+    int vehicleId = message.getInt();
+    VehicleType type = TYPES[message.get()];
+    Locations origin = LOCATIONS[message.get()];
+    Locations lane = location(message.get());
+    VehicleMovement movement = MOVEMENTS[message.get()];
+    int targetIntersectionId = message.getInt();
+    int flags = Byte.toUnsignedInt(message.get());
+    int pathSegment = message.getInt();
+    int nextLightIndex = message.getInt();
+    double x = message.getDouble();
+    double y = message.getDouble();
+    double speed = message.getDouble();
+    boolean afterUTurn = movement == VehicleMovement.STRAIGH_AFTER_U_TURN;
+    double routeStartX = afterUTurn ? message.getDouble() : x;
+    double routeStartY = afterUTurn ? message.getDouble() : y;
+    return new Handoff(
+        vehicleId,
+        type,
+        origin,
+        lane,
+        movement,
+        targetIntersectionId,
+        flags,
+        pathSegment,
+        nextLightIndex,
+        x,
+        y,
+        speed,
+        routeStartX,
+        routeStartY);
+  }
+
+  private static BoundaryVehicle decodeBoundaryVehicle(ByteBuffer message) {
+    int vehicleId = message.getInt();
+    VehicleType type = TYPES[message.get()];
+    Locations origin = LOCATIONS[message.get()];
+    Locations lane = location(message.get());
+    return new BoundaryVehicle(
+        vehicleId, type, origin, lane, message.getDouble(), message.getDouble());
+  }
+
+  private static Locations location(int ordinal) {
+    return ordinal == NONE ? null : LOCATIONS[ordinal];
+  }
+
+  private static byte ordinal(Enum<?> value) {
+    return value == null ? NONE : (byte) value.ordinal();
+  }
+
+  /**
+   * Encodes batches into one buffer reused from tick to tick, so sending a batch allocates nothing
+   * once the buffer has grown to the largest batch seen.
+   */
+  static final class Writer {
+    private static final int RECORDS_OFFSET = Integer.BYTES + 2 * Short.BYTES + Long.BYTES;
+
+    private ByteBuffer buffer = ByteBuffer.allocate(BATCH_INITIAL_BYTES);
+    private int records;
+
+    void begin(int sender, long tick, LightMask lights, LightMask greenMask) {
+      int lightWords = Math.max(lights.wordCount(), greenMask.wordCount());
+      buffer.clear();
+      reserve(BATCH_HEADER_BYTES + lightWords * BATCH_LIGHT_WORD_BYTES);
+      buffer.putInt(BATCH_MAGIC);
+      buffer.putShort((short) BATCH_VERSION);
+      buffer.putShort((short) sender);
+      buffer.putLong(tick);
+      buffer.putInt(0);
+      buffer.putShort((short) lightWords);
+      for (int word = 0; word < lightWords; word++) {
+        buffer.putLong(lights.word(word));
+        buffer.putLong(greenMask.word(word));
+      }
+      records = 0;
+    }
+
+    void addHandoff(Vehicle vehicle) {
+      boolean afterUTurn = vehicle.getMovement() == VehicleMovement.STRAIGH_AFTER_U_TURN;
+      reserve(BATCH_HANDOFF_BYTES + (afterUTurn ? BATCH_ROUTE_START_BYTES : 0));
+      buffer.put(BATCH_RECORD_HANDOFF);
+      buffer.putInt(vehicle.getId());
+      buffer.put(ordinal(vehicle.getType()));
+      buffer.put(ordinal(vehicle.getOrigin()));
+      buffer.put(ordinal(vehicle.getLane()));
+      buffer.put(ordinal(vehicle.getMovement()));
+      buffer.putInt(
+          vehicle.getTargetIntersection() == null
+              ? NONE
+              : vehicle.getTargetIntersection().getId());
+      buffer.put(flagsOf(vehicle));
+      buffer.putInt(vehicle.getCurrentPathSegment());
+      buffer.putInt(vehicle.getNextLightIndex());
+      buffer.putDouble(vehicle.getX());
+      buffer.putDouble(vehicle.getY());
+      buffer.putDouble(vehicle.getSpeed());
+      if (afterUTurn) {
+        buffer.putDouble(vehicle.getPath().getX(0));
+        buffer.putDouble(vehicle.getPath().getY(0));
+      }
+      records++;
+    }
+
+    /** Flags go out as one byte; a flag above bit 7 would arrive cleared, so refuse to send it. */
+    private static byte flagsOf(Vehicle vehicle) {
+      int flags = vehicle.getStateFlags();
+      if ((flags & ~0xFF) != 0)
+        throw new IllegalStateException(
+            "vehicle " + vehicle.getId() + " has flags " + flags + " beyond the byte a batch holds");
+      return (byte) flags;
+    }
+
+    void addBoundaryVehicle(Vehicle vehicle) {
+      reserve(BATCH_BOUNDARY_VEHICLE_BYTES);
+      buffer.put(BATCH_RECORD_BOUNDARY_VEHICLE);
+      buffer.putInt(vehicle.getId());
+      buffer.put(ordinal(vehicle.getType()));
+      buffer.put(ordinal(vehicle.getOrigin()));
+      buffer.put(ordinal(vehicle.getLane()));
+      buffer.putDouble(vehicle.getX());
+      buffer.putDouble(vehicle.getY());
+      records++;
+    }
+
+    /** The encoded batch, valid until the next {@link #begin}. */
+    ByteBuffer finish() {
+      buffer.putInt(RECORDS_OFFSET, records);
+      return buffer.flip();
+    }
+
+    private void reserve(int bytes) {
+      if (buffer.remaining() >= bytes) return;
+      int capacity = Math.max(buffer.capacity() * 2, buffer.position() + bytes);
+      ByteBuffer grown = ByteBuffer.allocate(capacity);
+      grown.put(buffer.flip());
+      buffer = grown;
+    }
+  }
+}
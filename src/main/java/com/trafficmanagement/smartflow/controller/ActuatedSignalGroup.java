@@ -0,0 +1,48 @@
+package com.trafficmanagement.smartflow.controller;
+
+import static com.trafficmanagement.smartflow.utils.TrafficLightConstants.*;
+
+/**
+ * The conflicting lights of one motorway intersection, of which at most one is green. The green
+ * phase is held for at least {@code ADAPTIVE_MIN_GREEN_MS}. After that it ends when vehicles are
+ * queued at another light of the group and either nobody has passed the green light for {@code
+ * ADAPTIVE_GAP_OUT_MS} (gap-out) or {@code ADAPTIVE_MAX_GREEN_MS} is reached (max-out). A light
+ * nobody is waiting at is skipped, and without any conflicting demand the green rests where it is.
+ */
+final class ActuatedSignalGroup {
+  private final int[] lights;
+  private int green;
+  private long greenSinceMillis;
+
+  ActuatedSignalGroup(int... lights) {
+    this.lights = lights;
+  }
+
+  int greenLight() {
+    return lights[green];
+  }
+
+  /** The light that should be green from {@code nowMillis} on. */
+  int advance(long nowMillis, TrafficLightController controller) {
+    int candidate = nextWithDemand(controller);
+    if (candidate < 0) return greenLight();
+
+    long greenFor = nowMillis - greenSinceMillis;
+    if (greenFor < ADAPTIVE_MIN_GREEN_MS) return greenLight();
+    long lastActivity = Math.max(greenSinceMillis, controller.lastPassageAt(greenLight()));
+    long sincePassage = nowMillis - lastActivity;
+    if (sincePassage < ADAPTIVE_GAP_OUT_MS && greenFor < ADAPTIVE_MAX_GREEN_MS) return greenLight();
+
+    green = candidate;
+    greenSinceMillis = nowMillis;
+    return greenLight();
+  }
+
+  private int nextWithDemand(TrafficLightController controller) {
+    for (int step = 1; step < lights.length; step++) {
+      int candidate = (green + step) % lights.length;
+      if (controller.waitingAt(lights[candidate]) > 0) return candidate;
+    }
+    return -1;
+  }
+}
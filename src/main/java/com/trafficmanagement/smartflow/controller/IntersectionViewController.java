@@ -1,32 +1,28 @@
 package com.trafficmanagement.smartflow.controller;
 
+import static com.trafficmanagement.smartflow.utils.DemandConstants.DEMAND_BATCH_DURATION_MS;
 import static com.trafficmanagement.smartflow.utils.IntersectionConstants.*;
+import static com.trafficmanagement.smartflow.utils.SimulationConstants.SEED_PROPERTY;
+import static com.trafficmanagement.smartflow.utils.SimulationConstants.TICK_DURATION_MS;
 
 import com.trafficmanagement.smartflow.data.enums.Locations;
+import com.trafficmanagement.smartflow.data.enums.SimulationType;
 import com.trafficmanagement.smartflow.data.enums.VehicleMovement;
 import com.trafficmanagement.smartflow.data.enums.VehicleType;
-import com.trafficmanagement.smartflow.data.model.Intersection;
-import com.trafficmanagement.smartflow.data.model.Vehicle;
+import com.trafficmanagement.smartflow.simulation.SimulationEngine;
+import com.trafficmanagement.smartflow.simulation.TrafficDemand;
 import com.trafficmanagement.smartflow.ui.ComboBoxWrapper;
+import com.trafficmanagement.smartflow.ui.VehicleRenderer;
 import com.trafficmanagement.smartflow.utils.CompassUtils;
-import com.trafficmanagement.smartflow.utils.MotorwayConstants;
 import com.trafficmanagement.smartflow.utils.ViewsHandler;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Map;
 import java.util.Random;
-import java.util.concurrent.ConcurrentHashMap;
 import javafx.animation.AnimationTimer;
 import javafx.animation.PauseTransition;
-import javafx.application.Platform;
 import javafx.fxml.FXML;
-import javafx.geometry.Point2D;
 import javafx.scene.Group;
 import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
 import javafx.scene.layout.Pane;
-import javafx.scene.paint.Color;
-import javafx.scene.shape.Circle;
 import javafx.scene.shape.Line;
 import javafx.scene.shape.Rectangle;
 import javafx.util.Duration;
@@ -36,9 +32,15 @@ import org.kordamp.ikonli.javafx.FontIcon;
 
 @Slf4j
 public class IntersectionViewController {
-  private final Intersection intersection = new Intersection();
-  private final Map<Vehicle, Circle> vehicleMap = new ConcurrentHashMap<>();
+  private final SimulationEngine engine = new SimulationEngine(SimulationType.INTERSECTION);
+  private final TrafficDemand demand =
+      TrafficDemand.fromSystemProperty(SimulationType.INTERSECTION, engine.getRoadNetwork());
   private final Group streetGroup = new Group();
+  private final Rectangle hStreet = new Rectangle();
+  private final Rectangle vStreet = new Rectangle();
+  private final Line hLine = new Line();
+  private final Line vLine = new Line();
+  private boolean layoutPending = true;
   private Group compass;
   @FXML private Pane simulationPane;
   @FXML private ComboBox<VehicleType> typeComboBox;
@@ -51,6 +53,8 @@ public class IntersectionViewController {
   private ComboBoxWrapper<Locations> originWrapper;
   private ComboBoxWrapper<VehicleMovement> vehicleMovementWrapper;
   private AnimationTimer animationTimer;
+  private VehicleRenderer vehicleRenderer;
+  private final Random batchSeeds = new Random(Long.getLong(SEED_PROPERTY, System.nanoTime()));
 
   @FXML
   private void goBackToMenu() {
@@ -58,11 +62,11 @@ public class IntersectionViewController {
       animationTimer.stop();
       log.info("animation_timer_stopped simulationType=intersection");
     }
-    log.info("simulation_stopping vehicleCount={} simulationType=intersection", vehicleMap.size());
-    for (Vehicle vehicle : vehicleMap.keySet()) {
-      vehicle.stop();
-    }
-    vehicleMap.clear();
+    log.info(
+        "simulation_stopping vehicleCount={} simulationType=intersection",
+        engine.getVehicleCount());
+    engine.shutdown();
+    vehicleRenderer.clear();
     simulationPane.getChildren().clear();
     compass = null;
     log.info("simulation_cleaned simulationType=intersection");
@@ -92,49 +96,63 @@ public class IntersectionViewController {
     compass = CompassUtils.createCompass();
     simulationPane.getChildren().add(compass);
 
-    simulationPane
-        .widthProperty()
-        .addListener(
-            (obs, oldVal, newVal) -> {
-              redrawStreet();
-              repositionCompass();
-            });
-    simulationPane
-        .heightProperty()
-        .addListener(
-            (obs, oldVal, newVal) -> {
-              redrawStreet();
-              repositionCompass();
-            });
+    buildStreet();
+    simulationPane.widthProperty().addListener((obs, oldVal, newVal) -> layoutPending = true);
+    simulationPane.heightProperty().addListener((obs, oldVal, newVal) -> layoutPending = true);
 
+    vehicleRenderer =
+        VehicleRenderer.create(
+            simulationPane, VEHICLE_RADIUS, VEHICLE_VISUAL_OFFSET, "intersection");
+    engine.start();
     startAnimationLoop();
   }
 
-  private void redrawStreet() {
-    streetGroup.getChildren().clear();
+  /** Creates the street nodes once; {@link #layoutStreet} places them. */
+  private void buildStreet() {
+    for (Rectangle street : new Rectangle[] {hStreet, vStreet}) {
+      street.setFill(STREET_COLOR);
+      street.setStroke(STREET_STROKE_COLOR);
+    }
+    for (Line laneDivider : new Line[] {hLine, vLine}) {
+      laneDivider.setStroke(LANE_DIVIDER_COLOR);
+      laneDivider.getStrokeDashArray().addAll(DASH_LENGTH, DASH_SPACING);
+    }
+    streetGroup.getChildren().addAll(hStreet, vStreet, hLine, vLine);
+  }
 
+  /**
+   * Moves and resizes the street nodes to the current pane size. Size changes only mark the layout
+   * as pending, and the animation loop calls this at most once per pulse.
+   */
+  private void layoutStreet() {
+    layoutPending = false;
     double width = simulationPane.getWidth();
     double height = simulationPane.getHeight();
-    if (width == 0 || height == 0) return;
-
-    double streetWidth = Math.min(width, height) / STREET_WIDTH_DIVISOR;
-
-    Rectangle hStreet = new Rectangle(0, height / 2 - streetWidth / 2, width, streetWidth);
-    Rectangle vStreet = new Rectangle(width / 2 - streetWidth / 2, 0, streetWidth, height);
-    hStreet.setFill(STREET_COLOR);
-    vStreet.setFill(STREET_COLOR);
-    hStreet.setStroke(STREET_STROKE_COLOR);
-    vStreet.setStroke(STREET_STROKE_COLOR);
-    streetGroup.getChildren().addAll(hStreet, vStreet);
+    engine.resize(width, height);
+    repositionCompass();
 
-    Line hLine = new Line(0, height / 2, width, height / 2);
-    hLine.setStroke(LANE_DIVIDER_COLOR);
-    hLine.getStrokeDashArray().addAll(DASH_LENGTH, DASH_SPACING);
+    boolean visible = width > 0 && height > 0;
+    streetGroup.setVisible(visible);
+    if (!visible) return;
 
-    Line vLine = new Line(width / 2, 0, width / 2, height);
-    vLine.setStroke(LANE_DIVIDER_COLOR);
-    vLine.getStrokeDashArray().addAll(DASH_LENGTH, DASH_SPACING);
-    streetGroup.getChildren().addAll(hLine, vLine);
+    double streetWidth = Math.min(width, height) / STREET_WIDTH_DIVISOR;
+    hStreet.setX(0);
+    hStreet.setY(height / 2 - streetWidth / 2);
+    hStreet.setWidth(width);
+    hStreet.setHeight(streetWidth);
+    vStreet.setX(width / 2 - streetWidth / 2);
+    vStreet.setY(0);
+    vStreet.setWidth(streetWidth);
+    vStreet.setHeight(height);
+
+    hLine.setStartX(0);
+    hLine.setStartY(height / 2);
+    hLine.setEndX(width);
+    hLine.setEndY(height / 2);
+    vLine.setStartX(width / 2);
+    vLine.setStartY(0);
+    vLine.setEndX(width / 2);
+    vLine.setEndY(height);
   }
 
   private void repositionCompass() {
@@ -151,69 +169,20 @@ public class IntersectionViewController {
   }
 
   private void createAndStartVehicle(VehicleType type, Locations origin, VehicleMovement movement) {
-    Vehicle vehicle = new Vehicle(type, origin, movement, intersection);
-    vehicle.setController(this);
-
-    Circle vehicleCircle =
-        new Circle(
-            VEHICLE_RADIUS,
-            type == VehicleType.EMERGENCY
-                ? Color.web(MotorwayConstants.EMERGENCY_VEHICLE_COLOR)
-                : Color.web(MotorwayConstants.NORMAL_VEHICLE_COLOR));
-    vehicleCircle.setStroke(MotorwayConstants.VEHICLE_STROKE_COLOR);
-
-    List<Point2D> path = getPath(origin, movement);
-    if (path.isEmpty()) return;
-
-    Point2D startPos = path.getFirst();
-    vehicle.setPosition(startPos.getX(), startPos.getY());
-
-    vehicleMap.put(vehicle, vehicleCircle);
-    simulationPane.getChildren().add(vehicleCircle);
-    vehicleCircle.toFront();
-
-    new Thread(vehicle).start();
+    engine.spawnIntersectionVehicle(type, origin, movement);
   }
 
   @FXML
   private void addMultipleVehicles() {
     disableButtonsTemporarily();
-    final int numberOfVehiclesToAdd = MULTIPLE_VEHICLES_COUNT;
+    long seed = batchSeeds.nextLong();
     log.info(
-        "batch_vehicle_creation_started count={} simulationType=intersection",
-        numberOfVehiclesToAdd);
-    final Random random = new Random();
-
-    new Thread(
-            () -> {
-              try {
-                Locations[] origins = {
-                  Locations.NORTH, Locations.SOUTH, Locations.EAST, Locations.WEST
-                };
-                VehicleMovement[] movements = VehicleMovement.values();
-
-                for (int ind = 0; ind < numberOfVehiclesToAdd; ind++) {
-                  Locations randomOrigin = origins[random.nextInt(origins.length)];
-                  VehicleMovement randomDestination = movements[random.nextInt(movements.length)];
-
-                  VehicleType randomType =
-                      (random.nextInt(EMERGENCY_VEHICLE_PROBABILITY) == 0)
-                          ? VehicleType.EMERGENCY
-                          : VehicleType.NORMAL;
-
-                  Platform.runLater(
-                      () -> createAndStartVehicle(randomType, randomOrigin, randomDestination));
-
-                  Thread.sleep(VEHICLE_SPAWN_DELAY_MS);
-                }
-              } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-              }
-              log.info(
-                  "batch_vehicle_creation_completed count={} simulationType=intersection",
-                  numberOfVehiclesToAdd);
-            })
-        .start();
+        "demand_batch_started source={} durationMs={} seed={} simulationType=intersection",
+        demand.getSource(),
+        DEMAND_BATCH_DURATION_MS,
+        seed);
+    engine.addDemand(
+        demand, seed, engine.getTickCount() + 1, DEMAND_BATCH_DURATION_MS / TICK_DURATION_MS);
   }
 
   private void startAnimationLoop() {
@@ -221,20 +190,8 @@ public class IntersectionViewController {
         new AnimationTimer() {
           @Override
           public void handle(long now) {
-            Iterator<Map.Entry<Vehicle, Circle>> iterator = vehicleMap.entrySet().iterator();
-            while (iterator.hasNext()) {
-              Map.Entry<Vehicle, Circle> entry = iterator.next();
-              if (entry.getKey().isFinished()) {
-                simulationPane.getChildren().remove(entry.getValue());
-                iterator.remove();
-              } else {
-                entry
-                    .getValue()
-                    .relocate(
-                        entry.getKey().getX() - VEHICLE_VISUAL_OFFSET,
-                        entry.getKey().getY() - VEHICLE_VISUAL_OFFSET);
-              }
-            }
+            if (layoutPending) layoutStreet();
+            vehicleRenderer.render(now, engine.getVehicles());
           }
         };
     this.animationTimer.start();
@@ -254,143 +211,4 @@ public class IntersectionViewController {
 
     pause.play();
   }
-
-  public List<Point2D> getPath(Locations origin, VehicleMovement movement) {
-    double width = simulationPane.getWidth();
-    double height = simulationPane.getHeight();
-    if (width == 0 || height == 0) return List.of();
-
-    double streetW = Math.min(width, height) / STREET_WIDTH_DIVISOR;
-    final double STOP_GAP = STOP_LINE_GAP;
-    double N_IN_X = width / 2 - streetW / 4;
-    double N_OUT_X = width / 2 + streetW / 4;
-    double S_IN_X = width / 2 + streetW / 4;
-    double S_OUT_X = width / 2 - streetW / 4;
-    double E_IN_Y = height / 2 - streetW / 4;
-    double E_OUT_Y = height / 2 + streetW / 4;
-    double W_IN_Y = height / 2 + streetW / 4;
-    double W_OUT_Y = height / 2 - streetW / 4;
-
-    Point2D stopN = new Point2D(N_IN_X, height / 2 - streetW / 2 - STOP_GAP);
-    Point2D stopS = new Point2D(S_IN_X, height / 2 + streetW / 2 + STOP_GAP);
-    Point2D stopE = new Point2D(width / 2 + streetW / 2 + STOP_GAP, E_IN_Y);
-    Point2D stopW = new Point2D(width / 2 - streetW / 2 - STOP_GAP, W_IN_Y);
-
-    Point2D exitN = new Point2D(N_OUT_X, -ENTRY_EXIT_OFFSET);
-    Point2D exitS = new Point2D(S_OUT_X, height + ENTRY_EXIT_OFFSET);
-    Point2D exitE = new Point2D(width + ENTRY_EXIT_OFFSET, E_OUT_Y);
-    Point2D exitW = new Point2D(-ENTRY_EXIT_OFFSET, W_OUT_Y);
-    if (movement.equals(VehicleMovement.U_TURN)) {
-      switch (origin) {
-        case NORTH:
-          return List.of(
-              new Point2D(N_IN_X, -ENTRY_EXIT_OFFSET),
-              stopN,
-              new Point2D(N_OUT_X, stopN.getY() + STOP_GAP),
-              exitN);
-        case SOUTH:
-          return List.of(
-              new Point2D(S_IN_X, height + ENTRY_EXIT_OFFSET),
-              stopS,
-              new Point2D(S_OUT_X, stopS.getY() - STOP_GAP),
-              exitS);
-        case EAST:
-          return List.of(
-              new Point2D(width + ENTRY_EXIT_OFFSET, E_IN_Y),
-              stopE,
-              new Point2D(stopE.getX() - STOP_GAP, E_OUT_Y),
-              exitE);
-        case WEST:
-          return List.of(
-              new Point2D(-ENTRY_EXIT_OFFSET, W_IN_Y),
-              stopW,
-              new Point2D(stopW.getX() + STOP_GAP, W_OUT_Y),
-              exitW);
-        default:
-          break;
-      }
-    }
-
-    switch (origin) {
-      case NORTH:
-        Point2D startN = new Point2D(N_IN_X, -ENTRY_EXIT_OFFSET);
-        Point2D enterN = new Point2D(N_IN_X, stopN.getY() + STOP_GAP);
-        switch (movement) {
-          case STRAIGHT:
-            return List.of(startN, stopN, new Point2D(N_IN_X, stopS.getY()), exitS);
-          case TURN_RIGHT:
-            return List.of(startN, stopN, enterN, new Point2D(stopW.getX(), W_OUT_Y), exitW);
-          case TURN_LEFT:
-            return List.of(
-                startN,
-                stopN,
-                new Point2D(N_IN_X, E_OUT_Y),
-                new Point2D(stopE.getX(), E_OUT_Y),
-                exitE);
-          default:
-            break;
-        }
-        break;
-      case SOUTH:
-        Point2D startS = new Point2D(S_IN_X, height + ENTRY_EXIT_OFFSET);
-        Point2D enterS = new Point2D(S_IN_X, stopS.getY() - STOP_GAP);
-        switch (movement) {
-          case STRAIGHT:
-            return List.of(startS, stopS, new Point2D(S_IN_X, stopN.getY()), exitN);
-          case TURN_RIGHT:
-            return List.of(startS, stopS, enterS, new Point2D(stopE.getX(), E_OUT_Y), exitE);
-          case TURN_LEFT:
-            return List.of(
-                startS,
-                stopS,
-                new Point2D(S_IN_X, W_OUT_Y),
-                new Point2D(stopW.getX(), W_OUT_Y),
-                exitW);
-          default:
-            break;
-        }
-        break;
-      case EAST:
-        Point2D startE = new Point2D(width + ENTRY_EXIT_OFFSET, E_IN_Y);
-        Point2D enterE = new Point2D(stopE.getX() - STOP_GAP, E_IN_Y);
-        switch (movement) {
-          case STRAIGHT:
-            return List.of(startE, stopE, new Point2D(stopW.getX(), E_IN_Y), exitW);
-          case TURN_RIGHT:
-            return List.of(
-                startE,
-                stopE,
-                new Point2D(N_OUT_X, E_IN_Y),
-                new Point2D(N_OUT_X, stopN.getY()),
-                exitN);
-          case TURN_LEFT:
-            return List.of(startE, stopE, enterE, new Point2D(S_OUT_X, stopS.getY()), exitS);
-          default:
-            break;
-        }
-        break;
-      case WEST:
-        Point2D startW = new Point2D(-ENTRY_EXIT_OFFSET, W_IN_Y);
-        Point2D enterW = new Point2D(stopW.getX() + STOP_GAP, W_IN_Y);
-        switch (movement) {
-          case STRAIGHT:
-            return List.of(startW, stopW, new Point2D(stopE.getX(), W_IN_Y), exitE);
-          case TURN_RIGHT:
-            return List.of(
-                startW,
-                stopW,
-                new Point2D(S_OUT_X, W_IN_Y),
-                new Point2D(S_OUT_X, stopS.getY()),
-                exitS);
-          case TURN_LEFT:
-            return List.of(startW, stopW, enterW, new Point2D(N_OUT_X, stopN.getY()), exitN);
-          default:
-            break;
-        }
-        break;
-      default:
-        break;
-    }
-    return List.of(new Point2D(0, 0));
-  }
 }
@@ -0,0 +1,130 @@
+package com.trafficmanagement.smartflow.controller;
+
+import static com.trafficmanagement.smartflow.utils.TrafficLightConstants.MIN_LIGHT_ID;
+
+import java.util.Arrays;
+import java.util.StringJoiner;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * An immutable set of light ids: bit {@code (lightId - MIN_LIGHT_ID) % 64} of word {@code (lightId
+ * - MIN_LIGHT_ID) / 64} per light, with as many words as the highest light in the set needs.
+ * Trailing zero words are dropped, so equal sets have equal words.
+ */
+public final class LightMask {
+  public static final LightMask NONE = new LightMask(new long[0]);
+
+  private final long[] words;
+
+  private LightMask(long[] words) {
+    this.words = words;
+  }
+
+  /** The set of the lights whose bits are set in {@code words}, which is copied. */
+  public static LightMask ofWords(long[] words) {
+    return trimmed(words.clone());
+  }
+
+  private static LightMask trimmed(long[] words) {
+    int length = words.length;
+    while (length > 0 && words[length - 1] == 0) length--;
+    if (length == 0) return NONE;
+    return new LightMask(length == words.length ? words : Arrays.copyOf(words, length));
+  }
+
+  /** Words needed to hold light ids up to {@code maxLightId}. */
+  public static int wordsFor(int maxLightId) {
+    return maxLightId < MIN_LIGHT_ID ? 0 : wordOf(maxLightId) + 1;
+  }
+
+  /** Sets the bit of {@code lightId} in {@code words}, which must be {@link #wordsFor} long. */
+  public static void set(long[] words, int lightId) {
+    words[wordOf(lightId)] |= bitOf(lightId);
+  }
+
+  private static int wordOf(int lightId) {
+    return (lightId - MIN_LIGHT_ID) / Long.SIZE;
+  }
+
+  private static long bitOf(int lightId) {
+    return 1L << (lightId - MIN_LIGHT_ID);
+  }
+
+  public boolean contains(int lightId) {
+    if (lightId < MIN_LIGHT_ID) return false;
+    int word = wordOf(lightId);
+    return word < words.length && (words[word] & bitOf(lightId)) != 0;
+  }
+
+  public LightMask with(int lightId) {
+    if (contains(lightId)) return this;
+    long[] grown = Arrays.copyOf(words, Math.max(words.length, wordOf(lightId) + 1));
+    set(grown, lightId);
+    return new LightMask(grown);
+  }
+
+  public LightMask without(int lightId) {
+    if (!contains(lightId)) return this;
+    long[] shrunk = words.clone();
+    shrunk[wordOf(lightId)] &= ~bitOf(lightId);
+    return trimmed(shrunk);
+  }
+
+  public LightMask union(LightMask other) {
+    return combine(other, (mine, theirs) -> mine | theirs);
+  }
+
+  public LightMask intersection(LightMask other) {
+    return combine(other, (mine, theirs) -> mine & theirs);
+  }
+
+  public LightMask minus(LightMask other) {
+    return combine(other, (mine, theirs) -> mine & ~theirs);
+  }
+
+  /** The lights in exactly one of the two sets. */
+  public LightMask xor(LightMask other) {
+    return combine(other, (mine, theirs) -> mine ^ theirs);
+  }
+
+  private LightMask combine(LightMask other, LongBinaryOperator operator) {
+    long[] combined = new long[Math.max(words.length, other.words.length)];
+    for (int ind = 0; ind < combined.length; ind++)
+      combined[ind] = operator.applyAsLong(word(ind), other.word(ind));
+    return trimmed(combined);
+  }
+
+  public boolean isEmpty() {
+    return words.length == 0;
+  }
+
+  public int wordCount() {
+    return words.length;
+  }
+
+  /** Word {@code index} of the set, 0 past {@link #wordCount}. */
+  public long word(int index) {
+    return index < words.length ? words[index] : 0;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return other instanceof LightMask mask && Arrays.equals(words, mask.words);
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(words);
+  }
+
+  @Override
+  public String toString() {
+    StringJoiner lights = new StringJoiner(", ", "[", "]");
+    for (int word = 0; word < words.length; word++)
+      for (long bits = words[word]; bits != 0; bits &= bits - 1) {
+        int lightId = MIN_LIGHT_ID + word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+        lights.add(Integer.toString(lightId));
+      }
+    return lights.toString();
+  }
+}
@@ -1,70 +1,393 @@
 package com.trafficmanagement.smartflow.controller;
 
+import static com.trafficmanagement.smartflow.utils.NetworkConstants.FIRST_SIGNAL_PHASE;
+import static com.trafficmanagement.smartflow.utils.SimulationConstants.TICK_DURATION_MS;
 import static com.trafficmanagement.smartflow.utils.TrafficLightConstants.*;
+import static com.trafficmanagement.smartflow.utils.VehicleConstants.NORMAL_SPEED;
+import static com.trafficmanagement.smartflow.utils.VehicleConstants.NO_INTERSECTION;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import com.trafficmanagement.smartflow.data.enums.Locations;
+import com.trafficmanagement.smartflow.network.RoadNetwork;
+import com.trafficmanagement.smartflow.simulation.MotorwayGeometry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Runs the motorway signal plan. The state of all lights is published as one immutable {@link
+ * TrafficLightSnapshot}, so a reader sees every light with a single volatile read, and each change
+ * is pushed to the registered listeners.
+ */
 @Slf4j
 public class TrafficLightController {
-  private final Map<Integer, AtomicBoolean> lightStates = new ConcurrentHashMap<>();
-  private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+  /**
+   * {@code FIXED_CYCLE} toggles every light each {@code CYCLE_INTERVAL_SECONDS}, phase 0 lights
+   * first. {@code ADAPTIVE} runs one {@link ActuatedSignalGroup} per intersection, driven by the
+   * vehicles queued at each red light and the passages through each green one. {@code GREEN_WAVE}
+   * keeps the fixed cycle length but shifts each light by the travel time from the previous light
+   * of its direction.
+   */
+  public enum Mode {
+    FIXED_CYCLE,
+    ADAPTIVE,
+    GREEN_WAVE;
+
+    public static Mode fromSystemProperty() {
+      String configured = System.getProperty(SIGNAL_CONTROL_MODE_PROPERTY);
+      return configured == null ? FIXED_CYCLE : Mode.valueOf(configured.trim().toUpperCase());
+    }
+  }
+
+  private static final long CYCLE_INTERVAL_MS = TimeUnit.SECONDS.toMillis(CYCLE_INTERVAL_SECONDS);
+  private static final long CYCLE_PERIOD_MS = 2 * CYCLE_INTERVAL_MS;
+  private static final long NEVER = Long.MIN_VALUE;
+  private static final CompletableFuture<Void> ALREADY_GREEN =
+      CompletableFuture.completedFuture(null);
+  @Getter private final Mode mode;
+  @Getter private final RoadNetwork network;
+  private final LightMask allLights;
+  @Getter private volatile TrafficLightSnapshot snapshot;
+  private final List<Consumer<TrafficLightSnapshot>> listeners = new CopyOnWriteArrayList<>();
+  private final AtomicReferenceArray<CompletableFuture<Void>> greenSignals;
+  private final AtomicIntegerArray waitingAtLight;
+  private final AtomicLongArray lastPassageAtLight;
+  private final ActuatedSignalGroup[] signalGroups;
+  private long nextToggleAtMillis = TimeUnit.SECONDS.toMillis(INITIAL_DELAY_SECONDS);
+  // Green-wave offset per light id; replaced as a whole when the layout changes.
+  private volatile long[] greenWaveOffsets;
+  // Green-wave lights of the current tick, reused from tick to tick.
+  private final long[] greenWaveWords;
+  private volatile long currentMillis;
+  // Lights another partition runs (see applyRemote) and their last reported state.
+  private LightMask remoteLights = LightMask.NONE;
+  private LightMask remoteGreen = LightMask.NONE;
 
   public TrafficLightController() {
-    for (int ind = MIN_LIGHT_ID; ind <= TOTAL_TRAFFIC_LIGHTS; ind++) {
-      lightStates.put(ind, new AtomicBoolean(INITIAL_LIGHT_STATE));
+    this(Mode.fromSystemProperty());
+  }
+
+  public TrafficLightController(Mode mode) {
+    this(mode, RoadNetwork.fromSystemProperty());
+  }
+
+  public TrafficLightController(Mode mode, RoadNetwork network) {
+    this.mode = mode;
+    this.network = network;
+    int lightSlots = network.getMaxSignalId() + 1;
+    greenSignals = new AtomicReferenceArray<>(lightSlots);
+    waitingAtLight = new AtomicIntegerArray(lightSlots);
+    lastPassageAtLight = new AtomicLongArray(lightSlots);
+    LightMask lights = LightMask.NONE;
+    for (int ind = 0; ind < network.getSignalCount(); ind++) {
+      int lightId = network.getSignalId(ind);
+      lights = lights.with(lightId);
+      lastPassageAtLight.set(lightId, NEVER);
     }
+    allLights = lights;
+    greenWaveWords = new long[allLights.wordCount()];
+    snapshot =
+        new TrafficLightSnapshot(
+            0,
+            INITIAL_LIGHT_STATE ? allLights : LightMask.NONE,
+            TrafficLightSnapshot.NO_SWITCH_SCHEDULED);
+    signalGroups = signalGroupsOf(network);
+    greenWaveOffsets = fixedCycleOffsets(network);
     log.info(
-        "traffic_light_controller_initialized lightCount={} initialState=red",
-        TOTAL_TRAFFIC_LIGHTS);
+        "traffic_light_controller_initialized lightCount={} initialState=red mode={}",
+        network.getSignalCount(),
+        mode);
     startCycle();
   }
 
+  /** One group per intersection, west to east, cycling through its lights in phase order. */
+  private static ActuatedSignalGroup[] signalGroupsOf(RoadNetwork network) {
+    List<ActuatedSignalGroup> groups = new ArrayList<>();
+    for (int ind = 0; ind < network.getIntersectionCount(); ind++) {
+      int intersectionId = network.getIntersectionId(ind);
+      List<Integer> lights = new ArrayList<>();
+      for (int signal = 0; signal < network.getSignalCount(); signal++) {
+        int lightId = network.getSignalId(signal);
+        if (network.getSignalIntersection(lightId) == intersectionId) lights.add(lightId);
+      }
+      if (lights.isEmpty()) continue;
+      lights.sort(Comparator.comparingInt(network::getSignalPhase));
+      groups.add(new ActuatedSignalGroup(lights.stream().mapToInt(Integer::intValue).toArray()));
+    }
+    return groups.toArray(ActuatedSignalGroup[]::new);
+  }
+
   private void startCycle() {
-      lightStates.get(LIGHT_3).set(true);
-      lightStates.get(LIGHT_5).set(true);
-    scheduler.scheduleAtFixedRate(
-        () -> {
-            toggleLight(LIGHT_1);
-            toggleLight(LIGHT_6);
-            toggleLight(LIGHT_2);
-            toggleLight(LIGHT_4);
-            toggleLight(LIGHT_5);
-            toggleLight(LIGHT_3);
-        },
-        INITIAL_DELAY_SECONDS,
-        CYCLE_INTERVAL_SECONDS,
-        TimeUnit.SECONDS);
-  }
-
-  private void toggleLight(int lightId) {
-    boolean newState = !isGreen(lightId);
-    lightStates.get(lightId).set(newState);
-    log.debug("traffic_light_toggled lightId={} state={}", lightId, newState ? "green" : "red");
+    if (mode == Mode.GREEN_WAVE) return;
+    if (mode == Mode.ADAPTIVE) {
+      LightMask mask = LightMask.NONE;
+      for (ActuatedSignalGroup group : signalGroups) mask = mask.with(group.greenLight());
+      publish(mask, TrafficLightSnapshot.NO_SWITCH_SCHEDULED);
+      return;
+    }
+    LightMask mask = LightMask.NONE;
+    for (int ind = 0; ind < network.getSignalCount(); ind++) {
+      int lightId = network.getSignalId(ind);
+      if (network.getSignalPhase(lightId) == FIRST_SIGNAL_PHASE) mask = mask.with(lightId);
+    }
+    publish(mask, nextToggleAtMillis);
+  }
+
+  /**
+   * Calls {@code listener} with every snapshot published from now on, on the thread that changed
+   * the lights (the simulation tick thread, or the caller of {@link #setEmergencyGreen}).
+   */
+  public void addListener(Consumer<TrafficLightSnapshot> listener) {
+    listeners.add(listener);
+  }
+
+  public void removeListener(Consumer<TrafficLightSnapshot> listener) {
+    listeners.remove(listener);
+  }
+
+  /**
+   * Advances the signal plan to the given simulated time. Called once per tick by the simulation
+   * engine, so the lights follow simulated time instead of a wall-clock scheduler.
+   */
+  public void advanceTo(long simulatedTimeMillis) {
+    currentMillis = simulatedTimeMillis;
+    if (mode == Mode.ADAPTIVE) {
+      advanceAdaptive(simulatedTimeMillis);
+      return;
+    }
+    if (mode == Mode.GREEN_WAVE) {
+      advanceGreenWave(simulatedTimeMillis);
+      return;
+    }
+    if (simulatedTimeMillis < nextToggleAtMillis) return;
+    LightMask mask = snapshot.greenMask();
+    while (simulatedTimeMillis >= nextToggleAtMillis) {
+      mask = mask.xor(allLights);
+      nextToggleAtMillis += CYCLE_INTERVAL_MS;
+    }
+    publish(mask, nextToggleAtMillis);
+  }
+
+  private void advanceAdaptive(long simulatedTimeMillis) {
+    LightMask mask = snapshot.greenMask();
+    for (ActuatedSignalGroup group : signalGroups) {
+      int previous = group.greenLight();
+      int next = group.advance(simulatedTimeMillis, this);
+      if (next == previous) continue;
+      mask = mask.without(previous).with(next);
+      log.debug(
+          "signal_phase_changed previousLightId={} lightId={} simulatedMillis={}",
+          previous,
+          next,
+          simulatedTimeMillis);
+    }
+    publish(mask, TrafficLightSnapshot.NO_SWITCH_SCHEDULED);
+  }
+
+  private void advanceGreenWave(long simulatedTimeMillis) {
+    long[] offsets = greenWaveOffsets;
+    long[] green = greenWaveWords;
+    Arrays.fill(green, 0);
+    long nextSwitchAtMillis = Long.MAX_VALUE;
+    for (int ind = 0; ind < network.getSignalCount(); ind++) {
+      int lightId = network.getSignalId(ind);
+      long phase = Math.floorMod(simulatedTimeMillis - offsets[lightId], CYCLE_PERIOD_MS);
+      boolean isGreen = phase < CYCLE_INTERVAL_MS;
+      if (isGreen) LightMask.set(green, lightId);
+      long untilSwitch = (isGreen ? CYCLE_INTERVAL_MS : CYCLE_PERIOD_MS) - phase;
+      nextSwitchAtMillis = Math.min(nextSwitchAtMillis, simulatedTimeMillis + untilSwitch);
+    }
+    publish(LightMask.ofWords(green), nextSwitchAtMillis);
+  }
+
+  /**
+   * Recomputes the green-wave offsets from the stop-line spacing of {@code geometry}. Each
+   * direction's wave follows the lights met driving through from one motorway end, starting with
+   * the first eastbound light. A westbound light that shares its intersection with an eastbound
+   * one turns green when that one turns red. A shared intersection therefore takes an eastbound
+   * offset rounded down to whole half-cycles, so each platoon reaches the next light the same
+   * time into its green; the other lights get the exact travel time from the light before them.
+   */
+  public void layoutChanged(MotorwayGeometry geometry) {
+    if (mode != Mode.GREEN_WAVE || geometry.getWidth() <= 0) return;
+    long[] offsets = fixedCycleOffsets(network);
+    int[] eastbound = network.getSignalsOnRoute(Locations.WEST, NO_INTERSECTION);
+    for (int ind = 0; ind < eastbound.length; ind++) {
+      int lightId = eastbound[ind];
+      if (ind == 0) {
+        offsets[lightId] = 0;
+        continue;
+      }
+      int previous = eastbound[ind - 1];
+      long offset = offsets[previous] + travelMillis(geometry, previous, lightId, Locations.WEST);
+      if (opposingLight(lightId, Locations.EAST) != 0)
+        offset = offset / CYCLE_INTERVAL_MS * CYCLE_INTERVAL_MS;
+      offsets[lightId] = offset;
+    }
+    int[] westbound = network.getSignalsOnRoute(Locations.EAST, NO_INTERSECTION);
+    for (int ind = 0; ind < westbound.length; ind++) {
+      int lightId = westbound[ind];
+      int opposing = opposingLight(lightId, Locations.WEST);
+      if (opposing != 0) {
+        offsets[lightId] = offsets[opposing] + CYCLE_INTERVAL_MS;
+      } else if (ind == 0) {
+        offsets[lightId] = CYCLE_INTERVAL_MS;
+      } else {
+        int previous = westbound[ind - 1];
+        offsets[lightId] =
+            offsets[previous] + travelMillis(geometry, previous, lightId, Locations.EAST);
+      }
+    }
+    long[] published = new long[network.getSignalCount()];
+    for (int ind = 0; ind < published.length; ind++) {
+      int lightId = network.getSignalId(ind);
+      offsets[lightId] = Math.floorMod(offsets[lightId], CYCLE_PERIOD_MS);
+      published[ind] = offsets[lightId];
+    }
+    greenWaveOffsets = offsets;
+    log.info(
+        "green_wave_offsets_updated width={} offsetsMs={}",
+        geometry.getWidth(),
+        Arrays.toString(published));
+  }
+
+  /** The light stopping traffic from {@code origin} at the intersection of {@code lightId}. */
+  private int opposingLight(int lightId, Locations origin) {
+    return network.getSignalInto(origin, network.getSignalIntersection(lightId));
+  }
+
+  private static long travelMillis(
+      MotorwayGeometry geometry, int fromLightId, int toLightId, Locations origin) {
+    double distance =
+        Math.abs(
+            geometry.getStopLineX(toLightId, origin) - geometry.getStopLineX(fromLightId, origin));
+    return Math.round(distance / NORMAL_SPEED) * TICK_DURATION_MS;
+  }
+
+  /** The fixed cycle expressed as offsets: phase 0 lights green first, the others after them. */
+  private static long[] fixedCycleOffsets(RoadNetwork network) {
+    long[] offsets = new long[network.getMaxSignalId() + 1];
+    for (int ind = 0; ind < network.getSignalCount(); ind++) {
+      int lightId = network.getSignalId(ind);
+      offsets[lightId] =
+          network.getSignalPhase(lightId) == FIRST_SIGNAL_PHASE ? 0 : CYCLE_INTERVAL_MS;
+    }
+    return offsets;
+  }
+
+  /**
+   * Vehicles that found {@code lightId} red since it last turned green. A vehicle that missed the
+   * green asks again once the light is red, so it counts in every red phase it waits through.
+   */
+  int waitingAt(int lightId) {
+    return waitingAtLight.get(lightId);
+  }
+
+  long lastPassageAt(int lightId) {
+    return lastPassageAtLight.get(lightId);
+  }
+
+  /** Called by a vehicle as it crosses the stop line of {@code lightId}. */
+  public void vehiclePassed(int lightId) {
+    if (network.hasSignal(lightId)) lastPassageAtLight.set(lightId, currentMillis);
+  }
+
+  /**
+   * Publishes a new snapshot if the lights or the next switch time changed, then releases the
+   * vehicles waiting at every light that turned green and notifies the listeners.
+   */
+  private synchronized void publish(LightMask greenMask, long nextSwitchAtMillis) {
+    if (!remoteLights.isEmpty()) greenMask = greenMask.minus(remoteLights).union(remoteGreen);
+    TrafficLightSnapshot previous = snapshot;
+    if (previous.greenMask().equals(greenMask)
+        && previous.nextSwitchAtMillis() == nextSwitchAtMillis) return;
+    TrafficLightSnapshot next =
+        new TrafficLightSnapshot(previous.version() + 1, greenMask, nextSwitchAtMillis);
+    snapshot = next;
+
+    LightMask changed = previous.greenMask().xor(greenMask);
+    for (int ind = 0; ind < network.getSignalCount(); ind++) {
+      int lightId = network.getSignalId(ind);
+      if (!changed.contains(lightId)) continue;
+      boolean green = next.isGreen(lightId);
+      if (green) signalGreen(lightId);
+      log.debug("traffic_light_toggled lightId={} state={}", lightId, green ? "green" : "red");
+    }
+    for (Consumer<TrafficLightSnapshot> listener : listeners) listener.accept(next);
+  }
+
+  /**
+   * Shows {@code lights} as {@code greenMask} reports them from now on, instead of running them by
+   * this controller's own plan. Used when another partition of a distributed run owns their
+   * intersections and publishes their state once per tick.
+   */
+  public synchronized void applyRemote(LightMask lights, LightMask greenMask) {
+    remoteLights = remoteLights.union(lights);
+    remoteGreen = remoteGreen.minus(lights).union(greenMask.intersection(lights));
+    TrafficLightSnapshot current = snapshot;
+    publish(current.greenMask(), current.nextSwitchAtMillis());
   }
 
   public boolean isGreen(int lightId) {
-    if (lightId < MIN_LIGHT_ID || lightId > MAX_LIGHT_ID) return false;
-    return lightStates.get(lightId).get();
+    return snapshot.isGreen(lightId);
+  }
+
+  /** The lights that are green now. */
+  public LightMask getLightMask() {
+    return snapshot.greenMask();
+  }
+
+  /**
+   * Completes when {@code lightId} turns green, immediately if it already is. Vehicles waiting on
+   * the same red phase share one future. A completed future stays completed after the light turns
+   * red again: a caller that could not use that green asks again for the next one. Asking is what
+   * counts a vehicle in {@link #waitingAt}; the engine still ticks it while it waits.
+   *
+   * @throws IllegalArgumentException if the network has no signal {@code lightId}, whose future
+   *     would never complete
+   */
+  public CompletableFuture<Void> awaitGreen(int lightId) {
+    if (!network.hasSignal(lightId))
+      throw new IllegalArgumentException("no signal in the road network: " + lightId);
+    if (isGreen(lightId)) return ALREADY_GREEN;
+    waitingAtLight.incrementAndGet(lightId);
+    CompletableFuture<Void> signal = greenSignals.get(lightId);
+    if (signal == null) {
+      CompletableFuture<Void> created = new CompletableFuture<>();
+      signal = greenSignals.compareAndExchange(lightId, null, created);
+      if (signal == null) signal = created;
+    }
+    if (isGreen(lightId)) signalGreen(lightId);
+    return signal;
+  }
+
+  private void signalGreen(int lightId) {
+    waitingAtLight.set(lightId, 0);
+    CompletableFuture<Void> signal = greenSignals.getAndSet(lightId, null);
+    if (signal != null) signal.complete(null);
   }
 
   public void setEmergencyGreen(int lightId, boolean green) {
-    if (lightId >= MIN_LIGHT_ID && lightId <= MAX_LIGHT_ID) {
-      lightStates.get(lightId).set(green);
+    if (network.hasSignal(lightId)) {
+      synchronized (this) {
+        TrafficLightSnapshot current = snapshot;
+        LightMask mask =
+            green ? current.greenMask().with(lightId) : current.greenMask().without(lightId);
+        publish(mask, current.nextSwitchAtMillis());
+      }
       log.warn(
           "emergency_override_activated lightId={} forcedState={}",
           lightId,
           green ? "green" : "red");
     }
   }
-
-  public void shutdown() {
-    scheduler.shutdown();
-    log.info("traffic_light_controller_shutdown schedulerShutdown=true");
-  }
 }
@@ -0,0 +1,15 @@
+package com.trafficmanagement.smartflow.controller;
+
+/**
+ * Every light's state at one point of the signal plan. {@code greenMask} holds the green lights,
+ * {@code version} grows by one with every published change and {@code nextSwitchAtMillis} is the
+ * simulated time of the next planned change, or {@code NO_SWITCH_SCHEDULED} when the plan reacts
+ * to traffic instead of following a clock.
+ */
+public record TrafficLightSnapshot(long version, LightMask greenMask, long nextSwitchAtMillis) {
+  public static final long NO_SWITCH_SCHEDULED = Long.MAX_VALUE;
+
+  public boolean isGreen(int lightId) {
+    return greenMask.contains(lightId);
+  }
+}
@@ -0,0 +1,21 @@
+package com.trafficmanagement.smartflow.data.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * @author cristiandelahooz
+ */
+@Getter
+@RequiredArgsConstructor
+public enum SimulationType {
+  INTERSECTION("intersection"),
+  MOTORWAY("motorway");
+
+  private final String logName;
+
+  @Override
+  public String toString() {
+    return logName;
+  }
+}
@@ -1,39 +1,76 @@
 package com.trafficmanagement.smartflow.data.model;
 
+import static com.trafficmanagement.smartflow.utils.VehicleConstants.NO_QUEUE_TICKET;
+import static com.trafficmanagement.smartflow.utils.VehicleConstants.NO_TIMESTAMP;
+
 import com.trafficmanagement.smartflow.data.enums.Locations;
 import com.trafficmanagement.smartflow.data.enums.VehicleType;
-import java.util.ArrayList;
+import com.trafficmanagement.smartflow.metrics.IntersectionMetrics;
+import java.util.Arrays;
 import java.util.EnumMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Predicate;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 public class Intersection implements TrafficManager {
-  private final Map<Locations, ConcurrentLinkedQueue<Vehicle>> waitingQueues;
-  private final ConcurrentLinkedQueue<Vehicle> globalArrivalQueue = new ConcurrentLinkedQueue<>();
+  private static final Locations[] APPROACHES = {
+    Locations.NORTH, Locations.SOUTH, Locations.EAST, Locations.WEST
+  };
+
+  private final Map<Locations, TicketedLane> waitingQueues;
+  private final TicketedLane globalArrivalQueue = new TicketedLane();
   private final Set<Vehicle> crossingVehicles = ConcurrentHashMap.newKeySet();
+  // Emergency vehicles still waiting, keyed by arrival ticket: the first entry has priority.
+  private final ConcurrentNavigableMap<Integer, Vehicle> pendingEmergencies =
+      new ConcurrentSkipListMap<>();
+  private final TurnGrants turnGrants = new TurnGrants();
+  private final Predicate<Vehicle> turnCheck = this::isMyTurn;
+  @Getter private final IntersectionMetrics metrics =
+      new IntersectionMetrics("intersection", Arrays.stream(APPROACHES).map(Enum::name).toList());
 
   public Intersection() {
     waitingQueues = new EnumMap<>(Locations.class);
-    for (Locations dir :
-        new Locations[] { Locations.NORTH, Locations.SOUTH, Locations.EAST, Locations.WEST}) {
-      waitingQueues.put(dir, new ConcurrentLinkedQueue<>());
+    for (Locations dir : APPROACHES) {
+      waitingQueues.put(dir, new TicketedLane());
     }
   }
 
   @Override
   public void addToQueue(Vehicle vehicle) {
-    waitingQueues.get(vehicle.getOrigin()).add(vehicle);
-    globalArrivalQueue.add(vehicle);
-    log.info(
-        "vehicle_queued vehicleId={} type={} origin={} queuePosition={}",
-        vehicle.getId(),
-        vehicle.getType(),
-        vehicle.getOrigin(),
-        getPositionInQueue(vehicle));
+    vehicle.setQueuedAtNanos(System.nanoTime());
+    metrics.vehicleQueued(approachIndexOf(vehicle.getOrigin()));
+    vehicle.setQueueTicket(waitingQueues.get(vehicle.getOrigin()).add(vehicle));
+    int arrivalTicket = globalArrivalQueue.add(vehicle);
+    vehicle.setArrivalTicket(arrivalTicket);
+    if (vehicle.getType() == VehicleType.EMERGENCY) pendingEmergencies.put(arrivalTicket, vehicle);
+    log.atInfo()
+        .setMessage("vehicle_queued vehicleId={} type={} origin={} queuePosition={}")
+        .addArgument(vehicle.getId())
+        .addArgument(vehicle.getType())
+        .addArgument(vehicle.getOrigin())
+        .addArgument(() -> getPositionInQueue(vehicle))
+        .log();
+    signalTurns();
+  }
+
+  @Override
+  public CompletableFuture<Void> awaitTurn(Vehicle vehicle) {
+    return turnGrants.await(vehicle, turnCheck);
+  }
+
+  private void signalTurns() {
+    if (turnGrants.isEmpty()) return;
+    turnGrants.grantIf(globalArrivalQueue.peek(), turnCheck);
+    for (TicketedLane queue : waitingQueues.values()) {
+      turnGrants.grantIf(queue.peek(), turnCheck);
+    }
   }
 
   @Override
@@ -58,20 +95,22 @@ public class Intersection implements TrafficManager {
   }
 
   private Vehicle findActiveEmergency() {
-    for (ConcurrentLinkedQueue<Vehicle> queue : waitingQueues.values()) {
-      for (Vehicle v : queue) {
-        if (v.getType() == VehicleType.EMERGENCY) {
-          return v;
-        }
-      }
-    }
-    return null;
+    Map.Entry<Integer, Vehicle> first = pendingEmergencies.firstEntry();
+    return first == null ? null : first.getValue();
   }
 
   @Override
-  public void startCrossing(Vehicle vehicle) {
-    globalArrivalQueue.remove(vehicle);
-    waitingQueues.get(vehicle.getOrigin()).remove(vehicle);
+  public boolean startCrossing(Vehicle vehicle) {
+    if (!isMyTurn(vehicle)) return false;
+    if (vehicle.getType() == VehicleType.EMERGENCY) {
+      pendingEmergencies.remove(vehicle.getArrivalTicket(), vehicle);
+      if (globalArrivalQueue.peek() != vehicle) metrics.emergencyPreempted();
+    }
+    globalArrivalQueue.remove(vehicle, vehicle.getArrivalTicket());
+    waitingQueues.get(vehicle.getOrigin()).remove(vehicle, vehicle.getQueueTicket());
+    vehicle.setArrivalTicket(NO_QUEUE_TICKET);
+    vehicle.setQueueTicket(NO_QUEUE_TICKET);
+    recordCrossingStarted(vehicle);
     crossingVehicles.add(vehicle);
     log.info(
         "vehicle_crossing_started vehicleId={} type={} origin={} destination={} emergencyActive={}",
@@ -80,11 +119,12 @@ public class Intersection implements TrafficManager {
         vehicle.getOrigin(),
         vehicle.getMovement(),
         isEmergencyActive());
+    return true;
   }
 
   @Override
   public void leaveIntersection(Vehicle vehicle) {
-    crossingVehicles.remove(vehicle);
+    if (crossingVehicles.remove(vehicle)) recordLeft(vehicle);
     log.info(
         "vehicle_crossing_completed vehicleId={} type={} origin={} destination={} crossingVehiclesRemaining={}",
         vehicle.getId(),
@@ -92,16 +132,43 @@ public class Intersection implements TrafficManager {
         vehicle.getOrigin(),
         vehicle.getMovement(),
         crossingVehicles.size());
+    turnGrants.cancel(vehicle);
+    signalTurns();
+  }
+
+  private void recordCrossingStarted(Vehicle vehicle) {
+    long now = System.nanoTime();
+    long queuedAt = vehicle.getQueuedAtNanos();
+    if (queuedAt != NO_TIMESTAMP) {
+      metrics.crossingStarted(approachIndexOf(vehicle.getOrigin()), now - queuedAt);
+      vehicle.setQueuedAtNanos(NO_TIMESTAMP);
+    }
+    vehicle.setCrossingStartedAtNanos(now);
+  }
+
+  private void recordLeft(Vehicle vehicle) {
+    long startedAt = vehicle.getCrossingStartedAtNanos();
+    if (startedAt == NO_TIMESTAMP) {
+      metrics.vehicleLeft();
+      return;
+    }
+    metrics.vehicleLeft(System.nanoTime() - startedAt);
+    vehicle.setCrossingStartedAtNanos(NO_TIMESTAMP);
+  }
+
+  private static int approachIndexOf(Locations origin) {
+    for (int ind = 0; ind < APPROACHES.length; ind++) if (APPROACHES[ind] == origin) return ind;
+    throw new IllegalArgumentException("not an intersection approach: " + origin);
   }
 
   @Override
   public int getPositionInQueue(Vehicle vehicle) {
-    return new ArrayList<>(waitingQueues.get(vehicle.getOrigin())).indexOf(vehicle);
+    return waitingQueues.get(vehicle.getOrigin()).positionOf(vehicle.getQueueTicket());
   }
 
   @Override
   public boolean isEmergencyActive() {
-    return findActiveEmergency() != null;
+    return !pendingEmergencies.isEmpty();
   }
 
   @Override
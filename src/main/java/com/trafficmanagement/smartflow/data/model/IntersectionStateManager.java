@@ -1,28 +1,33 @@
 package com.trafficmanagement.smartflow.data.model;
 
 import com.trafficmanagement.smartflow.data.enums.Locations;
+import com.trafficmanagement.smartflow.network.RoadNetwork;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import lombok.extern.slf4j.Slf4j;
 
-import static com.trafficmanagement.smartflow.utils.MotorwayConstants.TOTAL_INTERSECTIONS;
+import static com.trafficmanagement.smartflow.logging.LogMarkers.HOT_PATH;
 
 @Slf4j
 public class IntersectionStateManager {
 
-  private final Map<Integer, Set<Vehicle>> crossingStraightVehicles;
+  private final Map<Integer, Set<Vehicle>> crossingStraightVehicles = new ConcurrentHashMap<>();
 
-  {
-    crossingStraightVehicles = new ConcurrentHashMap<>();
-    for (int ind = 1; ind <= TOTAL_INTERSECTIONS; ind++)
-      crossingStraightVehicles.put(ind, ConcurrentHashMap.newKeySet());
+  public IntersectionStateManager() {
+    this(RoadNetwork.fromSystemProperty());
+  }
+
+  public IntersectionStateManager(RoadNetwork network) {
+    for (int ind = 0; ind < network.getIntersectionCount(); ind++)
+      crossingStraightVehicles.put(network.getIntersectionId(ind), ConcurrentHashMap.newKeySet());
   }
 
   public void vehicleEntersStraightZone(int intersectionId, Vehicle vehicle) {
-    crossingStraightVehicles.get(intersectionId).add(vehicle);
+    if (!crossingStraightVehicles.get(intersectionId).add(vehicle)) return;
     log.info(
+        HOT_PATH,
         "vehicle_entered_straight_zone vehicleId={} type={} origin={} intersectionId={} vehiclesInZone={}",
         vehicle.getId(),
         vehicle.getType(),
@@ -52,6 +57,7 @@ public class IntersectionStateManager {
 
     if (hasOpposingTraffic)
       log.info(
+          HOT_PATH,
           "opposing_traffic_detected vehicleId={} type={} origin={} intersectionId={} opposingLocations={}",
           turningVehicle.getId(),
           turningVehicle.getType(),
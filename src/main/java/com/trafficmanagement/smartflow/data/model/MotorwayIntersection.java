@@ -1,184 +1,364 @@
 package com.trafficmanagement.smartflow.data.model;
 
+import static com.trafficmanagement.smartflow.utils.VehicleConstants.NO_QUEUE_TICKET;
+import static com.trafficmanagement.smartflow.utils.VehicleConstants.NO_TIMESTAMP;
+
 import com.trafficmanagement.smartflow.data.enums.Locations;
 import com.trafficmanagement.smartflow.data.enums.VehicleType;
-import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.locks.ReentrantLock;
+import com.trafficmanagement.smartflow.metrics.IntersectionMetrics;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
-@Getter
-@Slf4j
 /**
+ * Admission control for one motorway intersection without a lock. Lane occupancy, the direction
+ * rotation and the waiting and emergency counts live in a single packed state word that is only
+ * changed by compare-and-set, so {@link #isMyTurn(Vehicle)} is one volatile read plus a lane
+ * head check. {@link #startCrossing(Vehicle)} checks the same conditions in the compare-and-set
+ * that sets its lane bit, so an emergency arriving in between cannot let two directions cross.
+ * Each lane is a {@link TicketedLane}.
+ *
+ * <p>State word layout, low bits first:
+ *
+ * <ul>
+ *   <li>bits 0-5: one bit per (direction, lane), set while that lane's head vehicle is crossing;
+ *   <li>bits 8-11: direction rotation, two 2-bit slots holding direction index + 1 (0 = empty),
+ *       slot 0 being the direction allowed to cross;
+ *   <li>bits 16-47: vehicles queued per direction, 16 bits each. A crossing vehicle stays at the
+ *       head of its lane queue until it leaves, so it is counted here too;
+ *   <li>bits 48-63: emergency vehicles queued and not yet left.
+ * </ul>
+ *
+ * Counts are checked against their 16 bits before they are packed: a vehicle that would overflow
+ * one is taken back out of its lane and refused with an {@link IllegalStateException}, instead of
+ * carrying into the next field.
+ *
+ * A direction is in the rotation exactly while it has queued vehicles. An emergency vehicle moves
+ * its direction to the front of the rotation.
+ *
  * @author cristiandelahooz
  */
+@Slf4j
 public class MotorwayIntersection implements TrafficManager {
-  private final int id;
-  private final ReentrantLock lock = new ReentrantLock(true);
-  private final Map<Locations, Map<Locations, ConcurrentLinkedQueue<Vehicle>>> waitingLanes;
-  private final LinkedList<Locations> laneQueue = new LinkedList<>();
-  private final Set<Vehicle> crossingVehicles = ConcurrentHashMap.newKeySet();
-  private volatile boolean emergencyActive = false;
+  private static final List<Locations> DIRECTIONS = Locations.getMotorwayDirections();
+  private static final Locations[] LANES = {
+    Locations.FIRST_RAIL, Locations.SECOND_RAIL, Locations.THIRD_RAIL
+  };
+  private static final int LANE_COUNT = LANES.length;
+  private static final int LANE_SLOTS = DIRECTIONS.size() * LANE_COUNT;
+
+  private static final long LANES_MASK = (1L << LANE_SLOTS) - 1;
+  private static final int ROTATION_SHIFT = 8;
+  private static final int ROTATION_SLOT_BITS = 2;
+  private static final long ROTATION_SLOT_MASK = (1L << ROTATION_SLOT_BITS) - 1;
+  private static final int WAITING_SHIFT = 16;
+  private static final int COUNT_BITS = 16;
+  private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+  private static final int EMERGENCY_SHIFT = WAITING_SHIFT + COUNT_BITS * DIRECTIONS.size();
+  private static final int EMERGENCY_FIELD = -1;
+
+  @Getter private final int id;
+  private final TicketedLane[] waitingLanes;
+  private final AtomicLong state = new AtomicLong();
+  private final TurnGrants turnGrants = new TurnGrants();
+  private final Predicate<Vehicle> turnCheck = this::isMyTurn;
+  @Getter private final IntersectionMetrics metrics;
 
   public MotorwayIntersection(int id) {
     this.id = id;
-    this.waitingLanes = new EnumMap<>(Locations.class);
-    for (Locations dir : Locations.getMotorwayDirections()) {
-      Map<Locations, ConcurrentLinkedQueue<Vehicle>> lanes = new EnumMap<>(Locations.class);
-      lanes.put(Locations.FIRST_RAIL, new ConcurrentLinkedQueue<>());
-      lanes.put(Locations.SECOND_RAIL, new ConcurrentLinkedQueue<>());
-      lanes.put(Locations.THIRD_RAIL, new ConcurrentLinkedQueue<>());
-      waitingLanes.put(dir, lanes);
-    }
+    this.waitingLanes = new TicketedLane[LANE_SLOTS];
+    for (int ind = 0; ind < LANE_SLOTS; ind++) waitingLanes[ind] = new TicketedLane();
+    List<String> laneNames = new ArrayList<>(LANE_SLOTS);
+    for (Locations direction : DIRECTIONS)
+      for (Locations lane : LANES) laneNames.add(direction + "/" + lane);
+    this.metrics = new IntersectionMetrics("motorway-" + id, laneNames);
   }
 
   @Override
   public void addToQueue(Vehicle vehicle) {
-    waitingLanes.get(vehicle.getOrigin()).get(vehicle.getLane()).add(vehicle);
-    log.info(
-        "vehicle_queued vehicleId={} type={} origin={} lane={} intersectionId={} queuePosition={}",
-        vehicle.getId(),
-        vehicle.getType(),
-        vehicle.getOrigin(),
-        vehicle.getLane(),
-        id,
-        getPositionInQueue(vehicle));
+    int direction = directionOf(vehicle.getOrigin());
+    int laneSlot = laneSlotOf(direction, vehicle.getLane());
+    vehicle.setQueuedAtNanos(System.nanoTime());
+    metrics.vehicleQueued(laneSlot);
+    int ticket = waitingLanes[laneSlot].add(vehicle);
+    vehicle.setQueueTicket(ticket);
+    log.atInfo()
+        .setMessage(
+            "vehicle_queued vehicleId={} type={} origin={} lane={} intersectionId={} queuePosition={}")
+        .addArgument(vehicle.getId())
+        .addArgument(vehicle.getType())
+        .addArgument(vehicle.getOrigin())
+        .addArgument(vehicle.getLane())
+        .addArgument(id)
+        .addArgument(() -> getPositionInQueue(vehicle))
+        .log();
 
-    lock.lock();
+    boolean emergency = vehicle.getType() == VehicleType.EMERGENCY;
+    long current;
+    long next;
     try {
-      Locations originLane = vehicle.getOrigin();
-      if (vehicle.getType() == VehicleType.EMERGENCY) {
-        if (!this.emergencyActive) {
-          this.emergencyActive = true;
-          log.warn(
-              "emergency_mode_activated intersectionId={} priorityLane={} vehicleId={}",
-              id,
-              originLane,
-              vehicle.getId());
-        }
-        laneQueue.remove(originLane);
-        laneQueue.addFirst(originLane);
-      } else {
-        if (!laneQueue.contains(originLane)) {
-          laneQueue.addLast(originLane);
+      do {
+        current = state.get();
+        next = withWaiting(current, direction, waitingCount(current, direction) + 1);
+        if (emergency) {
+          next = withEmergencyCount(next, emergencyCount(current) + 1);
+          next = moveToFront(next, direction);
+        } else if (!isInRotation(next, direction)) {
+          next = appendToRotation(next, direction);
         }
-      }
-    } finally {
-      lock.unlock();
+      } while (!state.compareAndSet(current, next));
+    } catch (IllegalStateException e) {
+      waitingLanes[laneSlot].remove(vehicle, ticket);
+      vehicle.setQueueTicket(NO_QUEUE_TICKET);
+      vehicle.setQueuedAtNanos(NO_TIMESTAMP);
+      metrics.vehicleDequeued(laneSlot);
+      throw new IllegalStateException(
+          "intersection " + id + " refused vehicle " + vehicle.getId() + ": " + e.getMessage(), e);
     }
+
+    if (emergency && activeDirection(current) >= 0 && activeDirection(current) != direction)
+      metrics.emergencyPreempted();
+    if (emergency && emergencyCount(current) == 0)
+      log.warn(
+          "emergency_mode_activated intersectionId={} priorityLane={} vehicleId={}",
+          id,
+          vehicle.getOrigin(),
+          vehicle.getId());
+
+    signalTurns();
   }
 
   @Override
   public boolean isMyTurn(Vehicle vehicle) {
-    lock.lock();
-    try {
+    int direction = directionOf(vehicle.getOrigin());
+    int laneSlot = laneSlotOf(direction, vehicle.getLane());
+    return admits(state.get(), direction, laneSlot) && waitingLanes[laneSlot].peek() == vehicle;
+  }
 
-      boolean otherDirectionIsCrossing =
-          crossingVehicles.stream().anyMatch(v -> v.getOrigin() != vehicle.getOrigin());
-      if (otherDirectionIsCrossing) {
-        return false;
-      }
-
-      Locations activeLocations = laneQueue.peek();
-      if (!vehicle.getOrigin().equals(activeLocations)) {
-        return false;
-      }
-
-      boolean vehicleFromMyLaneIsCrossing =
-          crossingVehicles.stream()
-              .anyMatch(
-                  v -> v.getOrigin() == vehicle.getOrigin() && v.getLane() == vehicle.getLane());
-      if (vehicleFromMyLaneIsCrossing) {
-        return false;
-      }
-
-      return Objects.equals(
-          waitingLanes.get(vehicle.getOrigin()).get(vehicle.getLane()).peek(), vehicle);
-    } finally {
-      lock.unlock();
-    }
+  /** No other direction crossing, {@code direction} at the front, its lane not crossing yet. */
+  private static boolean admits(long word, int direction, int laneSlot) {
+    return (word & LANES_MASK & ~directionLanes(direction)) == 0
+        && activeDirection(word) == direction
+        && (word & (1L << laneSlot)) == 0;
   }
 
   @Override
-  public void startCrossing(Vehicle vehicle) {
-    lock.lock();
-    try {
-      if (waitingLanes.get(vehicle.getOrigin()).get(vehicle.getLane()).peek() == vehicle) {
-        crossingVehicles.add(vehicle);
-        log.info(
-            "vehicle_crossing_started vehicleId={} type={} origin={} lane={} intersectionId={} emergencyActive={} crossingVehiclesCount={}",
-            vehicle.getId(),
-            vehicle.getType(),
-            vehicle.getOrigin(),
-            vehicle.getLane(),
-            id,
-            emergencyActive,
-            crossingVehicles.size());
-      }
-    } finally {
-      lock.unlock();
+  public CompletableFuture<Void> awaitTurn(Vehicle vehicle) {
+    return turnGrants.await(vehicle, turnCheck);
+  }
+
+  private void signalTurns() {
+    if (turnGrants.isEmpty()) return;
+    for (TicketedLane lane : waitingLanes) turnGrants.grantIf(lane.peek(), turnCheck);
+  }
+
+  @Override
+  public boolean startCrossing(Vehicle vehicle) {
+    int direction = directionOf(vehicle.getOrigin());
+    int laneSlot = laneSlotOf(direction, vehicle.getLane());
+    // Only the head itself removes the head, so this holds until the vehicle leaves.
+    if (waitingLanes[laneSlot].peek() != vehicle) return false;
+
+    long current;
+    long next;
+    do {
+      current = state.get();
+      if (!admits(current, direction, laneSlot)) return false;
+      next = current | (1L << laneSlot);
+    } while (!state.compareAndSet(current, next));
+    long now = System.nanoTime();
+    long queuedAt = vehicle.getQueuedAtNanos();
+    if (queuedAt != NO_TIMESTAMP) {
+      metrics.crossingStarted(laneSlot, now - queuedAt);
+      vehicle.setQueuedAtNanos(NO_TIMESTAMP);
     }
+    vehicle.setCrossingStartedAtNanos(now);
+    log.info(
+        "vehicle_crossing_started vehicleId={} type={} origin={} lane={} intersectionId={} emergencyActive={} crossingVehiclesCount={}",
+        vehicle.getId(),
+        vehicle.getType(),
+        vehicle.getOrigin(),
+        vehicle.getLane(),
+        id,
+        emergencyCount(next) > 0,
+        Long.bitCount(next & LANES_MASK));
+    return true;
   }
 
   @Override
   public void leaveIntersection(Vehicle vehicle) {
-    lock.lock();
-    try {
-      crossingVehicles.remove(vehicle);
-      waitingLanes.get(vehicle.getOrigin()).get(vehicle.getLane()).remove(vehicle);
+    int direction = directionOf(vehicle.getOrigin());
+    int laneSlot = laneSlotOf(direction, vehicle.getLane());
+    TicketedLane lane = waitingLanes[laneSlot];
 
-      log.info(
-          "vehicle_crossing_completed vehicleId={} type={} origin={} lane={} intersectionId={} crossingVehiclesRemaining={}",
-          vehicle.getId(),
-          vehicle.getType(),
-          vehicle.getOrigin(),
-          vehicle.getLane(),
-          id,
-          crossingVehicles.size());
-
-      if (vehicle.getType() == VehicleType.EMERGENCY) {
-        boolean anyOtherEmergency =
-            crossingVehicles.stream().anyMatch(v -> v.getType() == VehicleType.EMERGENCY)
-                || waitingLanes.values().stream()
-                    .flatMap(lanes -> lanes.values().stream())
-                    .flatMap(Queue::stream)
-                    .anyMatch(v -> v.getType() == VehicleType.EMERGENCY);
-
-        if (!anyOtherEmergency) {
-          this.emergencyActive = false;
-          log.info("emergency_mode_deactivated intersectionId={} emergencyCleared=true", id);
-        }
-      }
-
-      if (isDirectionCompletelyClear(vehicle.getOrigin())) {
-        laneQueue.remove(vehicle.getOrigin());
-        log.debug(
-            "direction_cleared intersectionId={} direction={} laneQueueSize={}",
-            id,
-            vehicle.getOrigin(),
-            laneQueue.size());
-      }
-    } finally {
-      lock.unlock();
+    // Only the head of a lane can be crossing, and nobody else can set its bit until it has
+    // been removed from the queue, so the bit is cleared first.
+    if (lane.peek() == vehicle)
+      state.accumulateAndGet(~(1L << laneSlot), (word, mask) -> word & mask);
+    boolean wasQueued = lane.remove(vehicle, vehicle.getQueueTicket());
+    if (wasQueued) vehicle.setQueueTicket(NO_QUEUE_TICKET);
+    recordLeft(vehicle, laneSlot);
+    boolean emergency = vehicle.getType() == VehicleType.EMERGENCY;
+
+    long current = state.get();
+    long next = current;
+    if (wasQueued) {
+      do {
+        current = state.get();
+        int waiting = waitingCount(current, direction) - 1;
+        next = withWaiting(current, direction, waiting);
+        if (emergency) next = withEmergencyCount(next, emergencyCount(current) - 1);
+        if (waiting == 0) next = removeFromRotation(next, direction);
+      } while (!state.compareAndSet(current, next));
     }
+
+    log.info(
+        "vehicle_crossing_completed vehicleId={} type={} origin={} lane={} intersectionId={} crossingVehiclesRemaining={}",
+        vehicle.getId(),
+        vehicle.getType(),
+        vehicle.getOrigin(),
+        vehicle.getLane(),
+        id,
+        Long.bitCount(next & LANES_MASK));
+
+    if (wasQueued && emergency && emergencyCount(next) == 0)
+      log.info("emergency_mode_deactivated intersectionId={} emergencyCleared=true", id);
+
+    if (wasQueued && waitingCount(next, direction) == 0)
+      log.debug(
+          "direction_cleared intersectionId={} direction={} laneQueueSize={}",
+          id,
+          vehicle.getOrigin(),
+          rotationSize(next));
+
+    turnGrants.cancel(vehicle);
+    signalTurns();
   }
 
-  private boolean isDirectionCompletelyClear(Locations origin) {
-    boolean crossingEmpty = crossingVehicles.stream().noneMatch(v -> v.getOrigin() == origin);
-    boolean waitingEmpty = waitingLanes.get(origin).values().stream().allMatch(Queue::isEmpty);
-    return crossingEmpty && waitingEmpty;
+  private void recordLeft(Vehicle vehicle, int laneSlot) {
+    if (vehicle.getQueuedAtNanos() != NO_TIMESTAMP) {
+      metrics.vehicleDequeued(laneSlot);
+      vehicle.setQueuedAtNanos(NO_TIMESTAMP);
+    }
+    long startedAt = vehicle.getCrossingStartedAtNanos();
+    if (startedAt == NO_TIMESTAMP) {
+      metrics.vehicleLeft();
+      return;
+    }
+    metrics.vehicleLeft(System.nanoTime() - startedAt);
+    vehicle.setCrossingStartedAtNanos(NO_TIMESTAMP);
   }
 
   @Override
   public int getPositionInQueue(Vehicle vehicle) {
-    return new ArrayList<>(waitingLanes.get(vehicle.getOrigin()).get(vehicle.getLane()))
-        .indexOf(vehicle);
+    int laneSlot = laneSlotOf(directionOf(vehicle.getOrigin()), vehicle.getLane());
+    return waitingLanes[laneSlot].positionOf(vehicle.getQueueTicket());
   }
 
   @Override
   public boolean isEmergencyActive() {
-    return this.emergencyActive;
+    return emergencyCount(state.get()) > 0;
+  }
+
+  private static int directionOf(Locations origin) {
+    int direction = DIRECTIONS.indexOf(origin);
+    if (direction < 0) throw new IllegalArgumentException("not a motorway direction: " + origin);
+    return direction;
+  }
+
+  private static int laneSlotOf(int direction, Locations lane) {
+    for (int ind = 0; ind < LANE_COUNT; ind++)
+      if (LANES[ind] == lane) return direction * LANE_COUNT + ind;
+    throw new IllegalArgumentException("not a motorway lane: " + lane);
+  }
+
+  private static long directionLanes(int direction) {
+    return ((1L << LANE_COUNT) - 1) << (direction * LANE_COUNT);
+  }
+
+  static int waitingCount(long word, int direction) {
+    return (int) ((word >>> (WAITING_SHIFT + direction * COUNT_BITS)) & COUNT_MASK);
+  }
+
+  static long withWaiting(long word, int direction, int count) {
+    int shift = WAITING_SHIFT + direction * COUNT_BITS;
+    return (word & ~(COUNT_MASK << shift)) | (checkedCount(count, direction) << shift);
+  }
+
+  static int emergencyCount(long word) {
+    return (int) ((word >>> EMERGENCY_SHIFT) & COUNT_MASK);
+  }
+
+  static long withEmergencyCount(long word, int count) {
+    return (word & ~(COUNT_MASK << EMERGENCY_SHIFT))
+        | (checkedCount(count, EMERGENCY_FIELD) << EMERGENCY_SHIFT);
+  }
+
+  /**
+   * {@code count} if it fits its {@code COUNT_BITS}-bit field, else throws. {@code field} is the
+   * direction of a waiting count or {@code EMERGENCY_FIELD}; it is only read to build the message.
+   */
+  private static long checkedCount(int count, int field) {
+    if (count < 0 || count > COUNT_MASK)
+      throw new IllegalStateException(
+          (field == EMERGENCY_FIELD
+                  ? "emergency vehicles"
+                  : "vehicles waiting from " + DIRECTIONS.get(field))
+              + " out of range 0.."
+              + COUNT_MASK
+              + ": "
+              + count);
+    return count;
+  }
+
+  private static int rotationSlot(long word, int slot) {
+    return (int) ((word >>> (ROTATION_SHIFT + slot * ROTATION_SLOT_BITS)) & ROTATION_SLOT_MASK);
+  }
+
+  private static long withRotationSlot(long word, int slot, int value) {
+    int shift = ROTATION_SHIFT + slot * ROTATION_SLOT_BITS;
+    return (word & ~(ROTATION_SLOT_MASK << shift)) | ((long) value << shift);
+  }
+
+  private static int activeDirection(long word) {
+    return rotationSlot(word, 0) - 1;
+  }
+
+  private static int rotationSize(long word) {
+    int size = 0;
+    while (size < DIRECTIONS.size() && rotationSlot(word, size) != 0) size++;
+    return size;
+  }
+
+  private static boolean isInRotation(long word, int direction) {
+    for (int slot = 0; slot < DIRECTIONS.size(); slot++)
+      if (rotationSlot(word, slot) == direction + 1) return true;
+    return false;
+  }
+
+  private static long appendToRotation(long word, int direction) {
+    return withRotationSlot(word, rotationSize(word), direction + 1);
+  }
+
+  private static long removeFromRotation(long word, int direction) {
+    int size = rotationSize(word);
+    int write = 0;
+    for (int read = 0; read < size; read++) {
+      int value = rotationSlot(word, read);
+      if (value != direction + 1) word = withRotationSlot(word, write++, value);
+    }
+    for (; write < size; write++) word = withRotationSlot(word, write, 0);
+    return word;
+  }
+
+  private static long moveToFront(long word, int direction) {
+    word = removeFromRotation(word, direction);
+    for (int slot = rotationSize(word); slot > 0; slot--)
+      word = withRotationSlot(word, slot, rotationSlot(word, slot - 1));
+    return withRotationSlot(word, 0, direction + 1);
   }
 }
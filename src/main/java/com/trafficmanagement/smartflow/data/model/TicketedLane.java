@@ -0,0 +1,76 @@
+package com.trafficmanagement.smartflow.data.model;
+
+import static com.trafficmanagement.smartflow.utils.SimulationConstants.TICKETED_LANE_INITIAL_CAPACITY;
+import static com.trafficmanagement.smartflow.utils.VehicleConstants.NO_QUEUE_TICKET;
+
+/**
+ * FIFO queue where every arrival takes the next ticket and the lane remembers the ticket of its
+ * head, so the head check and a vehicle's position are a volatile read and a subtraction instead
+ * of a walk over the queue. Vehicles are kept in a ring indexed by ticket, which makes removing
+ * one an array write.
+ *
+ * <p>Arrivals and departures lock the lane; {@link #peek()}, {@link #positionOf(int)} and {@link
+ * #isEmpty()} do not. A vehicle that leaves from the middle of the lane keeps counting towards the
+ * positions behind it until the head passes its ticket.
+ */
+final class TicketedLane {
+  private Vehicle[] ring = new Vehicle[TICKETED_LANE_INITIAL_CAPACITY];
+  private int nextTicket;
+  private volatile int served;
+  private volatile Vehicle head;
+  private volatile int size;
+
+  synchronized int add(Vehicle vehicle) {
+    if (nextTicket - served == ring.length) grow();
+    int ticket = nextTicket++;
+    ring[ticket & (ring.length - 1)] = vehicle;
+    if (ticket == served) head = vehicle;
+    size++;
+    return ticket;
+  }
+
+  /** Removes {@code vehicle} if it still holds {@code ticket} in this lane. */
+  synchronized boolean remove(Vehicle vehicle, int ticket) {
+    if (ticket == NO_QUEUE_TICKET || ticket - served < 0 || ticket - nextTicket >= 0) return false;
+    int mask = ring.length - 1;
+    if (ring[ticket & mask] != vehicle) return false;
+    ring[ticket & mask] = null;
+    size--;
+
+    if (ticket == served) {
+      int next = served + 1;
+      while (next != nextTicket && ring[next & mask] == null) next++;
+      served = next;
+      head = next == nextTicket ? null : ring[next & mask];
+    }
+    return true;
+  }
+
+  Vehicle peek() {
+    return head;
+  }
+
+  /** Vehicles ahead of the holder of {@code ticket}, or -1 if that ticket has been served. */
+  int positionOf(int ticket) {
+    if (ticket == NO_QUEUE_TICKET) return -1;
+    int position = ticket - served;
+    return position < 0 ? -1 : position;
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  int size() {
+    return size;
+  }
+
+  private void grow() {
+    Vehicle[] grown = new Vehicle[ring.length * 2];
+    int oldMask = ring.length - 1;
+    int newMask = grown.length - 1;
+    for (int ticket = served; ticket != nextTicket; ticket++)
+      grown[ticket & newMask] = ring[ticket & oldMask];
+    ring = grown;
+  }
+}
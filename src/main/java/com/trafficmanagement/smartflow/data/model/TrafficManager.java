@@ -1,5 +1,7 @@
 package com.trafficmanagement.smartflow.data.model;
 
+import com.trafficmanagement.smartflow.metrics.IntersectionMetrics;
+import java.util.concurrent.CompletableFuture;
 
 public interface TrafficManager {
   void addToQueue(Vehicle vehicle);
@@ -8,11 +10,24 @@ public interface TrafficManager {
 
   boolean isMyTurn(Vehicle vehicle);
 
-  void startCrossing(Vehicle vehicle);
+  /**
+   * Completes once {@link #isMyTurn(Vehicle)} holds for the queued {@code vehicle}: immediately if
+   * it already does, otherwise when a queue or crossing change hands it the turn. Cancelled if the
+   * vehicle leaves first.
+   */
+  CompletableFuture<Void> awaitTurn(Vehicle vehicle);
+
+  /**
+   * Marks {@code vehicle} as crossing if it still has the turn. Returns {@code false}, changing
+   * nothing, if the turn was lost since {@link #isMyTurn(Vehicle)} said otherwise.
+   */
+  boolean startCrossing(Vehicle vehicle);
 
   int getPositionInQueue(Vehicle vehicle);
 
   boolean isEmergencyActive();
 
   int getId();
+
+  IntersectionMetrics getMetrics();
 }
@@ -0,0 +1,39 @@
+package com.trafficmanagement.smartflow.data.model;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Pending {@link TrafficManager#awaitTurn(Vehicle)} grants of one traffic manager. A waiter is
+ * registered before its turn is checked, and every admission change re-checks only the lane heads
+ * that may now proceed, so a grant can't be missed and nobody polls.
+ */
+final class TurnGrants {
+  private final Map<Vehicle, CompletableFuture<Void>> waiting = new ConcurrentHashMap<>();
+
+  CompletableFuture<Void> await(Vehicle vehicle, Predicate<Vehicle> isMyTurn) {
+    CompletableFuture<Void> grant =
+        waiting.computeIfAbsent(vehicle, ignored -> new CompletableFuture<>());
+    grantIf(vehicle, isMyTurn);
+    return grant;
+  }
+
+  /** Completes {@code candidate}'s grant if it is waiting and {@code isMyTurn} now holds. */
+  void grantIf(Vehicle candidate, Predicate<Vehicle> isMyTurn) {
+    if (candidate == null) return;
+    CompletableFuture<Void> grant = waiting.get(candidate);
+    if (grant != null && isMyTurn.test(candidate) && waiting.remove(candidate, grant))
+      grant.complete(null);
+  }
+
+  void cancel(Vehicle vehicle) {
+    CompletableFuture<Void> grant = waiting.remove(vehicle);
+    if (grant != null) grant.cancel(false);
+  }
+
+  boolean isEmpty() {
+    return waiting.isEmpty();
+  }
+}
@@ -1,60 +1,68 @@
 package com.trafficmanagement.smartflow.data.model;
 
-import static com.trafficmanagement.smartflow.utils.MotorwayConstants.FIRST_INTERSECTION;
-import static com.trafficmanagement.smartflow.utils.MotorwayConstants.TOTAL_INTERSECTIONS;
+import static com.trafficmanagement.smartflow.data.model.VehicleStateStore.*;
+import static com.trafficmanagement.smartflow.logging.LogMarkers.HOT_PATH;
 import static com.trafficmanagement.smartflow.utils.VehicleConstants.*;
 
-import com.trafficmanagement.smartflow.controller.IntersectionViewController;
-import com.trafficmanagement.smartflow.controller.MotorwayViewController;
 import com.trafficmanagement.smartflow.controller.TrafficLightController;
 import com.trafficmanagement.smartflow.data.enums.Locations;
+import com.trafficmanagement.smartflow.data.enums.SimulationType;
 import com.trafficmanagement.smartflow.data.enums.VehicleMovement;
 import com.trafficmanagement.smartflow.data.enums.VehicleType;
-import com.trafficmanagement.smartflow.utils.MotorwayConstants;
-import java.util.ArrayList;
-import java.util.List;
+import com.trafficmanagement.smartflow.simulation.MotorwayLayout;
+import com.trafficmanagement.smartflow.simulation.SimulationEngine;
+import com.trafficmanagement.smartflow.utils.GeometryUtils;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
-import javafx.application.Platform;
-import javafx.geometry.Point2D;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
-@Getter
-@Setter
+/**
+ * A vehicle advanced by {@link SimulationEngine#tick()}. Each call to {@link #tick()} performs what
+ * used to be one iteration of the vehicle's own thread loop.
+ *
+ * <p>The vehicle is a handle onto a slot of a {@link VehicleStateStore}: position, speed, path
+ * progress and flags live in the store's primitive columns. Only its identity and the references
+ * the engine needs stay on the object. When the engine drops a finished vehicle it calls {@link
+ * #detach()}, which freezes the last position on the handle so views can still draw it.
+ */
 @Slf4j
-public class Vehicle implements Runnable {
+public class Vehicle {
   private static final AtomicInteger idCounter = new AtomicInteger(COUNTER_START);
+  private static final Locations[] LOCATIONS = Locations.values();
   private static final double SAFE_DISTANCE = 50.0;
-  private final int id;
-  private final VehicleType type;
-  private final Locations origin;
-  private final VehicleMovement movement;
-  private final TrafficManager trafficManager;
-  private final double normalSpeed = NORMAL_SPEED;
-  private final double emergencyClearSpeed = EMERGENCY_SPEED;
-  private volatile boolean running = true;
-  private Locations lane;
-  private MotorwayViewController motorwayViewController;
-  private IntersectionViewController intersectionViewController;
-  private long arrivalTime;
-  private double x;
-  private double y;
-  private volatile boolean finished = false;
-  private List<Integer> trafficLightPath;
-  private int nextTrafficLightIndex = INITIAL_TRAFFIC_LIGHT_INDEX;
-  private int lastKnownIntersectionId = NO_INTERSECTION;
-
-  private TrafficLightController trafficLightController;
-  private IntersectionStateManager intersectionStateManager;
+  private static final int DETACHED = -1;
+  @Getter private final int id;
+  @Getter private final VehicleType type;
+  @Getter private final Locations origin;
+  @Getter private final VehicleMovement movement;
+  @Getter private final TrafficManager trafficManager;
+  private final VehicleStateStore stateStore;
+  private volatile int slot;
+  @Getter private volatile boolean running = true;
+  @Getter private volatile boolean finished = false;
+  @Getter @Setter private SimulationEngine engine;
+  @Getter @Setter private VehiclePath path;
+  private CompletableFuture<Void> turnGrant;
+  private CompletableFuture<Void> greenSignal;
+  private double detachedX;
+  private double detachedY;
+  private Locations detachedLane;
 
   public Vehicle(
-      VehicleType type, Locations origin, VehicleMovement movement, Intersection intersection) {
+      VehicleStateStore stateStore,
+      VehicleType type,
+      Locations origin,
+      VehicleMovement movement,
+      Intersection intersection) {
     this.id = idCounter.incrementAndGet();
     this.type = type;
     this.origin = origin;
     this.movement = movement;
     this.trafficManager = intersection;
+    this.stateStore = stateStore;
+    this.slot = stateStore.allocate(type, origin, movement, INITIAL_PATH_SEGMENT);
     log.info(
         "vehicle_created vehicleId={} type={} origin={} movement={} intersectionId={}",
         id,
@@ -65,6 +73,7 @@ public class Vehicle implements Runnable {
   }
 
   public Vehicle(
+      VehicleStateStore stateStore,
       VehicleType type,
       Locations origin,
       VehicleMovement movement,
@@ -74,6 +83,8 @@ public class Vehicle implements Runnable {
     this.origin = origin;
     this.movement = movement;
     this.trafficManager = targetIntersection;
+    this.stateStore = stateStore;
+    this.slot = stateStore.allocate(type, origin, movement, INITIAL_PATH_SEGMENT);
     log.info(
         "vehicle_created vehicleId={} type={} origin={} movement={} targetIntersectionId={}",
         id,
@@ -83,229 +94,232 @@ public class Vehicle implements Runnable {
         targetIntersection != null ? targetIntersection.getId() : -1);
   }
 
-  @Override
-  public void run() {
-    if (isFinished()) return;
+  public void tick() {
+    if (finished) return;
 
-    log.info(
-        "vehicle_thread_started vehicleId={} type={} origin={} movement={}",
-        id,
-        type,
-        origin,
-        movement);
+    int slot = this.slot;
+    if (!stateStore.hasFlag(slot, STARTED)) {
+      stateStore.setFlag(slot, STARTED, true);
+      if (!begin()) return;
+    }
 
-    try {
-      if (intersectionViewController != null) {
-        runIntersection();
-      } else if (motorwayViewController != null) {
-        runMotorway();
-      } else {
-        this.finished = true;
-        log.warn("vehicle_no_controller vehicleId={} finished=true", id);
-      }
-    } finally {
-      log.info("vehicle_thread_completed vehicleId={} finished={}", id, finished);
+    if (!running) {
+      complete();
+      return;
+    }
+
+    double previousX = stateStore.getX(slot);
+    double previousY = stateStore.getY(slot);
+    if (engine.getSimulationType() == SimulationType.INTERSECTION) {
+      tickIntersection(slot);
+    } else {
+      tickMotorway(slot);
     }
+    boolean parked = stateStore.getX(slot) == previousX && stateStore.getY(slot) == previousY;
+    stateStore.setFlag(slot, PARKED, parked);
+    if (parked) stateStore.setSpeed(slot, 0);
   }
 
-  private void runIntersection() {
-    try {
-      List<Point2D> path = getPathFromController();
-      if (path.isEmpty()) {
-        this.finished = true;
-        return;
-      }
+  private boolean begin() {
+    if (engine == null || path == null || path.isEmpty()) {
+      this.finished = true;
+      log.warn("vehicle_without_path vehicleId={} finished=true", id);
+      return false;
+    }
 
-      trafficManager.addToQueue(this);
-      int currentPathSegment = INITIAL_PATH_SEGMENT;
-      boolean crossingStarted = false;
-      boolean hasLeftIntersection = false;
-
-      while (running && currentPathSegment < path.size()) {
-        Point2D target = path.get(currentPathSegment);
-
-        if (!crossingStarted) {
-          if (trafficManager.isMyTurn(this)) {
-            crossingStarted = true;
-            trafficManager.startCrossing(this);
-            target = path.get(currentPathSegment);
-            log.info(
-                "vehicle_crossing_started vehicleId={} type={} intersectionId={}",
-                id,
-                type,
-                trafficManager.getId());
-          } else {
-            target = getDynamicStopPoint(path.get(INITIAL_PATH_SEGMENT));
-          }
-        }
+    log.info(
+        "vehicle_started vehicleId={} type={} origin={} movement={}", id, type, origin, movement);
 
-        moveTo(target, this.type == VehicleType.EMERGENCY || trafficManager.isEmergencyActive());
+    if (engine.getSimulationType() == SimulationType.INTERSECTION) {
+      trafficManager.addToQueue(this);
+    }
+    return true;
+  }
 
-        if (distanceTo(target) < TARGET_REACHED_THRESHOLD) {
-          if (crossingStarted) {
-            currentPathSegment++;
-          }
+  private void tickIntersection(int slot) {
+    int currentPathSegment = stateStore.getPathSegment(slot);
+    boolean crossingStarted = stateStore.hasFlag(slot, CROSSING_STARTED);
+    double targetX = path.getX(currentPathSegment);
+    double targetY = path.getY(currentPathSegment);
+
+    if (!crossingStarted) {
+      if (turnGrant == null) turnGrant = trafficManager.awaitTurn(this);
+      if (turnGrant.isDone()
+          && trafficManager.isMyTurn(this)
+          && trafficManager.startCrossing(this)) {
+        turnGrant = null;
+        crossingStarted = true;
+        stateStore.setFlag(slot, CROSSING_STARTED, true);
+        log.info(
+            "vehicle_crossing_started vehicleId={} type={} intersectionId={}",
+            id,
+            type,
+            trafficManager.getId());
+      } else {
+        if (turnGrant.isDone()) turnGrant = null;
+        double offset = trafficManager.getPositionInQueue(this) * VEHICLE_SPACING;
+        targetX = path.getX(INITIAL_PATH_SEGMENT);
+        targetY = path.getY(INITIAL_PATH_SEGMENT);
+        switch (origin) {
+          case NORTH -> targetY -= offset;
+          case SOUTH -> targetY += offset;
+          case EAST -> targetX += offset;
+          case WEST -> targetX -= offset;
+          default -> {}
         }
+      }
+    }
 
-        if (crossingStarted && !hasLeftIntersection && currentPathSegment == path.size() - 1) {
-          trafficManager.leaveIntersection(this);
-          hasLeftIntersection = true;
-          log.info(
-              "vehicle_crossing_completed vehicleId={} type={} intersectionId={}",
-              id,
-              type,
-              trafficManager.getId());
-        }
+    boolean emergency = this.type == VehicleType.EMERGENCY || trafficManager.isEmergencyActive();
+    moveTo(slot, currentPathSegment, targetX, targetY, emergency);
 
-        Thread.sleep(MOVEMENT_SLEEP_DURATION_MS);
+    if (isWithin(slot, targetX, targetY, TARGET_REACHED_THRESHOLD)) {
+      if (crossingStarted) {
+        stateStore.setPosition(slot, targetX, targetY);
+        currentPathSegment++;
+        stateStore.setPathSegment(slot, currentPathSegment);
       }
-    } catch (InterruptedException e) {
-      log.info("vehicle_thread_interrupted vehicleId={} type={}", id, type);
-      Thread.currentThread().interrupt();
-    } finally {
-      this.finished = true;
-      log.debug("vehicle_simple_intersection_finished vehicleId={}", id);
     }
+
+    if (crossingStarted
+        && !stateStore.hasFlag(slot, LEFT_INTERSECTION)
+        && currentPathSegment == path.size() - 1) {
+      trafficManager.leaveIntersection(this);
+      stateStore.setFlag(slot, LEFT_INTERSECTION, true);
+      log.info(
+          "vehicle_crossing_completed vehicleId={} type={} intersectionId={}",
+          id,
+          type,
+          trafficManager.getId());
+    }
+
+    if (currentPathSegment >= path.size()) complete();
   }
 
-  private void runMotorway() {
-    try {
-      List<Point2D> path = getPathFromController();
-      if (path.isEmpty()) {
-        this.finished = true;
+  private void tickMotorway(int slot) {
+    MotorwayLayout layout = engine.getMotorwayGeometry().getLayout();
+    if (engine.findLeaderWithin(this, SAFE_DISTANCE) != null) {
+      updateIntersectionState(slot, layout);
+      return;
+    }
+
+    boolean emergency = this.type == VehicleType.EMERGENCY;
+    int currentPathSegment = stateStore.getPathSegment(slot);
+    int nextTrafficLightIndex = stateStore.getNextLightIndex(slot);
+    if (isApproachingTrafficLight(nextTrafficLightIndex)) {
+      int lightId = path.getLightId(nextTrafficLightIndex);
+      double stopX = layout.getStopLineX(lightId, origin);
+      double stopY = layout.getLaneY(origin, getLane());
+      double x = stateStore.getX(slot);
+      boolean stopLineIsInFront =
+          (origin == Locations.WEST && x < stopX) || (origin == Locations.EAST && x > stopX);
+
+      if (stopLineIsInFront && !isWithinOrOn(slot, stopX, stopY, STOP_LINE_PROXIMITY)) {
+        moveTo(slot, currentPathSegment, stopX, stopY, emergency);
+        updateIntersectionState(slot, layout);
         return;
       }
 
-      calculateTrafficLightPath();
-      int currentPathSegment = INITIAL_PATH_SEGMENT;
+      if (stopLineIsInFront && !canGoThroughLight(lightId)) {
+        updateIntersectionState(slot, layout);
+        return;
+      }
+      greenSignal = null;
+      engine.getTrafficLightController().vehiclePassed(lightId);
+      stateStore.setNextLightIndex(slot, nextTrafficLightIndex + 1);
+    }
 
-      while (running && currentPathSegment < path.size()) {
+    double targetX = path.getX(currentPathSegment);
+    double targetY = path.getY(currentPathSegment);
+    moveTo(slot, currentPathSegment, targetX, targetY, emergency);
 
-        Vehicle leader = motorwayViewController.findLeadingVehicle(this);
-        if (leader != null
-            && distanceTo(new Point2D(leader.getX(), leader.getY())) < SAFE_DISTANCE) {
-          updateIntersectionState();
-          Thread.sleep(MOVEMENT_SLEEP_DURATION_MS);
-          continue;
-        }
+    if (isWithin(slot, targetX, targetY, STOP_LINE_PROXIMITY)) {
+      stateStore.setPosition(slot, targetX, targetY);
+      currentPathSegment++;
+      stateStore.setPathSegment(slot, currentPathSegment);
+    }
 
-        if (isApproachingTrafficLight()) {
-          int lightId = trafficLightPath.get(nextTrafficLightIndex);
-          Point2D stopLine =
-              motorwayViewController.getStopLineForLight(
-                  lightId,
-                  origin,
-                  lane,
-                  motorwayViewController.getSimulationPaneWidth(),
-                  motorwayViewController.getSimulationPane().getHeight());
-          boolean stopLineIsInFront =
-              (origin == Locations.WEST && getX() < stopLine.getX())
-                  || (origin == Locations.EAST && getX() > stopLine.getX());
-
-          if (stopLineIsInFront && distanceTo(stopLine) > STOP_LINE_PROXIMITY) {
-            moveTo(stopLine, this.type == VehicleType.EMERGENCY);
-            updateIntersectionState();
-            Thread.sleep(MOVEMENT_SLEEP_DURATION_MS);
-            continue;
-          }
-
-          if (stopLineIsInFront) {
-            boolean canGo = false;
-            if (this.type == VehicleType.EMERGENCY) {
-              canGo = true;
-              log.debug(
-                  "emergency_vehicle_override vehicleId={} lightId={} canGo=true", id, lightId);
-              if ((movement == VehicleMovement.TURN_LEFT || movement == VehicleMovement.U_TURN)
-                  && isAtFinalTurn(lightId)) {
-                if (intersectionStateManager.isOpposingTrafficCrossing(
-                    getTargetIntersection().getId(), this)) {
-                  canGo = false;
-                  log.warn(
-                      "emergency_blocked_by_opposing_traffic vehicleId={} lightId={} intersectionId={}",
-                      id,
-                      lightId,
-                      getTargetIntersection().getId());
-                }
-              }
-            } else {
-              boolean isLightGreen = trafficLightController.isGreen(lightId);
-              canGo = isLightGreen;
-              if (!isLightGreen) {
-                if (motorwayViewController.findEmergencyFollower(this) != null) {
-                  canGo = true;
-                }
-              }
-              if (canGo
-                  && (movement == VehicleMovement.TURN_LEFT || movement == VehicleMovement.U_TURN)
-                  && isAtFinalTurn(lightId)) {
-                if (intersectionStateManager.isOpposingTrafficCrossing(
-                    getTargetIntersection().getId(), this)) {
-                  canGo = false;
-                }
-              }
-            }
-
-            if (!canGo) {
-              updateIntersectionState();
-              Thread.sleep(MOVEMENT_SLEEP_DURATION_MS);
-              continue;
-            }
-          }
-          nextTrafficLightIndex++;
-        }
+    updateIntersectionState(slot, layout);
 
-        Point2D currentTarget = path.get(currentPathSegment);
-        moveTo(currentTarget, this.type == VehicleType.EMERGENCY);
+    if (currentPathSegment >= path.size()) {
+      if (this.movement == VehicleMovement.U_TURN) {
+        engine.spawnStraightVehicleFromUTurn(this);
+      }
+      complete();
+    }
+  }
 
-        if (distanceTo(currentTarget) < STOP_LINE_PROXIMITY) {
-          currentPathSegment++;
+  private boolean canGoThroughLight(int lightId) {
+    IntersectionStateManager intersectionStateManager = engine.getIntersectionStateManager();
+    boolean canGo;
+    if (this.type == VehicleType.EMERGENCY) {
+      canGo = true;
+      log.debug(
+          HOT_PATH, "emergency_vehicle_override vehicleId={} lightId={} canGo=true", id, lightId);
+      if ((movement == VehicleMovement.TURN_LEFT || movement == VehicleMovement.U_TURN)
+          && isAtFinalTurn(lightId)) {
+        if (intersectionStateManager.isOpposingTrafficCrossing(
+            getTargetIntersection().getId(), this)) {
+          canGo = false;
+          log.warn(
+              HOT_PATH,
+              "emergency_blocked_by_opposing_traffic vehicleId={} lightId={} intersectionId={}",
+              id,
+              lightId,
+              getTargetIntersection().getId());
         }
-
-        updateIntersectionState();
-        Thread.sleep(MOVEMENT_SLEEP_DURATION_MS);
       }
-
-      if (running && this.movement == VehicleMovement.U_TURN) {
-        final Vehicle self = this;
-        Platform.runLater(() -> motorwayViewController.spawnStraightVehicleFromUTurn(self));
+    } else {
+      TrafficLightController lights = engine.getTrafficLightController();
+      // The future only says the light turned green at some point; a leader may have held this
+      // vehicle back through that whole green. Wait for the next green then, which also counts
+      // the vehicle again for the actuated controller's demand in this red phase.
+      if (greenSignal != null && greenSignal.isDone() && !lights.isGreen(lightId))
+        greenSignal = null;
+      if (greenSignal == null) greenSignal = lights.awaitGreen(lightId);
+      boolean isLightGreen = greenSignal.isDone() && lights.isGreen(lightId);
+      if (isLightGreen) greenSignal = null;
+      canGo = isLightGreen;
+      if (!isLightGreen) {
+        if (engine.findEmergencyFollower(this) != null) {
+          canGo = true;
+        }
       }
-
-    } catch (InterruptedException e) {
-      log.info("vehicle_thread_interrupted vehicleId={} type={}", id, type);
-      Thread.currentThread().interrupt();
-    } finally {
-      if (intersectionStateManager != null) {
-        if (lastKnownIntersectionId != NO_INTERSECTION) {
-          intersectionStateManager.vehicleExitsStraightZone(lastKnownIntersectionId, this);
+      if (canGo
+          && (movement == VehicleMovement.TURN_LEFT || movement == VehicleMovement.U_TURN)
+          && isAtFinalTurn(lightId)) {
+        if (intersectionStateManager.isOpposingTrafficCrossing(
+            getTargetIntersection().getId(), this)) {
+          canGo = false;
         }
       }
+    }
+    return canGo;
+  }
+
+  private void complete() {
+    if (engine.getSimulationType() == SimulationType.MOTORWAY) {
+      IntersectionStateManager intersectionStateManager = engine.getIntersectionStateManager();
+      int lastKnownIntersectionId = stateStore.getLastIntersectionId(slot);
+      if (intersectionStateManager != null && lastKnownIntersectionId != NO_INTERSECTION) {
+        intersectionStateManager.vehicleExitsStraightZone(lastKnownIntersectionId, this);
+      }
       if (trafficManager != null) trafficManager.leaveIntersection(this);
-      this.finished = true;
-      log.debug("vehicle_Motorway_finished vehicleId={}", id);
     }
+    this.finished = true;
+    log.info("vehicle_completed vehicleId={} type={} running={}", id, type, running);
   }
 
   private boolean isAtFinalTurn(int lightId) {
     if (getTargetIntersection() == null) return false;
     int targetIntersectionId = getTargetIntersection().getId();
-
-    if ((lightId == MotorwayConstants.TRAFFIC_LIGHT_1
-            && targetIntersectionId == MotorwayConstants.INTERSECTION_1)
-        || ((lightId == MotorwayConstants.TRAFFIC_LIGHT_2
-                || lightId == MotorwayConstants.TRAFFIC_LIGHT_3)
-            && targetIntersectionId == MotorwayConstants.INTERSECTION_2)
-        || ((lightId == MotorwayConstants.TRAFFIC_LIGHT_4
-                || lightId == MotorwayConstants.TRAFFIC_LIGHT_5)
-            && targetIntersectionId == MotorwayConstants.INTERSECTION_3)
-        || (lightId == MotorwayConstants.TRAFFIC_LIGHT_6
-            && targetIntersectionId == MotorwayConstants.INTERSECTION_4)) {
-      return true;
-    }
-    return false;
+    return engine.getRoadNetwork().getSignalIntersection(lightId) == targetIntersectionId;
   }
 
-  private void updateIntersectionState() {
-    int currentIntersectionId = getMyCurrentIntersectionId();
+  private void updateIntersectionState(int slot, MotorwayLayout layout) {
+    IntersectionStateManager intersectionStateManager = engine.getIntersectionStateManager();
+    int currentIntersectionId = layout.getIntersectionIdAt(stateStore.getX(slot));
+    int lastKnownIntersectionId = stateStore.getLastIntersectionId(slot);
 
     if (lastKnownIntersectionId != NO_INTERSECTION
         && lastKnownIntersectionId != currentIntersectionId) {
@@ -316,132 +330,178 @@ public class Vehicle implements Runnable {
       intersectionStateManager.vehicleEntersStraightZone(currentIntersectionId, this);
     }
 
-    lastKnownIntersectionId = currentIntersectionId;
+    stateStore.setLastIntersectionId(slot, currentIntersectionId);
   }
 
-  private int getMyCurrentIntersectionId() {
-    for (int ind = FIRST_INTERSECTION; ind <= TOTAL_INTERSECTIONS; ind++) {
-      double centerX =
-          motorwayViewController.getIntersectionCenterX(
-              ind, motorwayViewController.getSimulationPaneWidth());
-      double width = MotorwayConstants.INTERSECTION_WIDTH;
-      if (this.x > centerX - width / MotorwayConstants.INTERSECTION_WIDTH_DIVISOR
-          && this.x < centerX + width / MotorwayConstants.INTERSECTION_WIDTH_DIVISOR) {
-        return ind;
-      }
-    }
-    return NO_INTERSECTION;
-  }
-
-  private boolean isApproachingTrafficLight() {
-    return trafficLightPath != null && nextTrafficLightIndex < trafficLightPath.size();
-  }
-
-  private void calculateTrafficLightPath() {
-    trafficLightPath = new ArrayList<>();
-    int finalIntersectionId =
-        (getTargetIntersection() != null) ? getTargetIntersection().getId() : COUNTER_START;
-
-    if (origin == Locations.WEST) {
-      if (movement == VehicleMovement.STRAIGHT
-          || movement == VehicleMovement.STRAIGH_AFTER_U_TURN) {
-        if (getX()
-            < motorwayViewController.getIntersectionCenterX(
-                MotorwayConstants.INTERSECTION_2, motorwayViewController.getSimulationPaneWidth()))
-          trafficLightPath.add(MotorwayConstants.TRAFFIC_LIGHT_3);
-        if (getX()
-            < motorwayViewController.getIntersectionCenterX(
-                MotorwayConstants.INTERSECTION_3, motorwayViewController.getSimulationPaneWidth()))
-          trafficLightPath.add(MotorwayConstants.TRAFFIC_LIGHT_5);
-        if (getX()
-            < motorwayViewController.getIntersectionCenterX(
-                MotorwayConstants.INTERSECTION_4, motorwayViewController.getSimulationPaneWidth()))
-          trafficLightPath.add(MotorwayConstants.TRAFFIC_LIGHT_6);
-      } else {
-        if (finalIntersectionId >= MotorwayConstants.INTERSECTION_2)
-          trafficLightPath.add(MotorwayConstants.TRAFFIC_LIGHT_3);
-        if (finalIntersectionId >= MotorwayConstants.INTERSECTION_3)
-          trafficLightPath.add(MotorwayConstants.TRAFFIC_LIGHT_5);
-        if (finalIntersectionId >= MotorwayConstants.INTERSECTION_4)
-          trafficLightPath.add(MotorwayConstants.TRAFFIC_LIGHT_6);
-      }
+  private boolean isApproachingTrafficLight(int nextTrafficLightIndex) {
+    return nextTrafficLightIndex < path.getLightCount();
+  }
+
+  /**
+   * Moves one step towards a target lying on path segment {@code segment}, using the segment's
+   * precomputed unit direction. Snaps onto the target once it is closer than one step.
+   */
+  private void moveTo(int slot, int segment, double targetX, double targetY, boolean emergency) {
+    double currentSpeed = emergency ? EMERGENCY_SPEED : NORMAL_SPEED;
+    double x = stateStore.getX(slot);
+    double y = stateStore.getY(slot);
+    double dx = targetX - x;
+    double dy = targetY - y;
+    double distanceSquared = dx * dx + dy * dy;
+
+    if (distanceSquared < currentSpeed * currentSpeed) {
+      stateStore.setPosition(slot, targetX, targetY);
     } else {
-      if (movement == VehicleMovement.STRAIGHT
-          || movement == VehicleMovement.STRAIGH_AFTER_U_TURN) {
-        if (getX()
-            > motorwayViewController.getIntersectionCenterX(
-                MotorwayConstants.INTERSECTION_3, motorwayViewController.getSimulationPaneWidth()))
-          trafficLightPath.add(MotorwayConstants.TRAFFIC_LIGHT_4);
-        if (getX()
-            > motorwayViewController.getIntersectionCenterX(
-                MotorwayConstants.INTERSECTION_2, motorwayViewController.getSimulationPaneWidth()))
-          trafficLightPath.add(MotorwayConstants.TRAFFIC_LIGHT_2);
-        if (getX()
-            > motorwayViewController.getIntersectionCenterX(
-                MotorwayConstants.INTERSECTION_1, motorwayViewController.getSimulationPaneWidth()))
-          trafficLightPath.add(MotorwayConstants.TRAFFIC_LIGHT_1);
-      } else {
-        if (finalIntersectionId <= MotorwayConstants.INTERSECTION_3)
-          trafficLightPath.add(MotorwayConstants.TRAFFIC_LIGHT_4);
-        if (finalIntersectionId <= MotorwayConstants.INTERSECTION_2)
-          trafficLightPath.add(MotorwayConstants.TRAFFIC_LIGHT_2);
-        if (finalIntersectionId <= MotorwayConstants.INTERSECTION_1)
-          trafficLightPath.add(MotorwayConstants.TRAFFIC_LIGHT_1);
+      double unitX = path.getUnitX(segment);
+      double unitY = path.getUnitY(segment);
+      if (unitX == 0 && unitY == 0) {
+        double distance = Math.sqrt(distanceSquared);
+        unitX = dx / distance;
+        unitY = dy / distance;
+      } else if (GeometryUtils.dot(dx, dy, unitX, unitY) < 0) {
+        unitX = -unitX;
+        unitY = -unitY;
       }
+      stateStore.setPosition(slot, x + currentSpeed * unitX, y + currentSpeed * unitY);
     }
+    stateStore.setSpeed(slot, currentSpeed);
   }
 
-  private List<Point2D> getPathFromController() {
-    if (motorwayViewController != null) {
-      return motorwayViewController.calculateVehiclePath(this);
-    } else if (intersectionViewController != null) {
-      return intersectionViewController.getPath(origin, movement);
-    }
-    return new ArrayList<>();
+  private boolean isWithin(int slot, double x, double y, double radius) {
+    return GeometryUtils.isWithin(stateStore.getX(slot), stateStore.getY(slot), x, y, radius);
   }
 
-  private void moveTo(Point2D target, boolean emergency) {
-    double currentSpeed = emergency ? this.emergencyClearSpeed : this.normalSpeed;
+  private boolean isWithinOrOn(int slot, double x, double y, double radius) {
+    return GeometryUtils.distanceSquared(stateStore.getX(slot), stateStore.getY(slot), x, y)
+        <= radius * radius;
+  }
 
-    if (distanceTo(target) < currentSpeed) {
-      this.x = target.getX();
-      this.y = target.getY();
-    } else {
-      double angle = Math.atan2(target.getY() - y, target.getX() - x);
-      x += currentSpeed * Math.cos(angle);
-      y += currentSpeed * Math.sin(angle);
-    }
+  public double distanceSquaredTo(double x, double y) {
+    return GeometryUtils.distanceSquared(getX(), getY(), x, y);
+  }
+
+  public double getX() {
+    int slot = this.slot;
+    return slot == DETACHED ? detachedX : stateStore.getX(slot);
   }
 
-  private Point2D getDynamicStopPoint(Point2D baseStopLine) {
-    if (trafficManager == null) return baseStopLine;
-    int positionInQueue = trafficManager.getPositionInQueue(this);
-    double offset = positionInQueue * VEHICLE_SPACING;
+  public double getY() {
+    int slot = this.slot;
+    return slot == DETACHED ? detachedY : stateStore.getY(slot);
+  }
 
-    return switch (origin) {
-      case NORTH -> new Point2D(baseStopLine.getX(), baseStopLine.getY() - offset);
-      case SOUTH -> new Point2D(baseStopLine.getX(), baseStopLine.getY() + offset);
-      case EAST -> new Point2D(baseStopLine.getX() + offset, baseStopLine.getY());
-      case WEST -> new Point2D(baseStopLine.getX() - offset, baseStopLine.getY());
-      default -> baseStopLine;
-    };
+  public void setPosition(double x, double y) {
+    stateStore.setPosition(slot, x, y);
   }
 
-  public double distanceTo(Point2D target) {
-    return Math.sqrt(Math.pow(target.getX() - x, 2) + Math.pow(target.getY() - y, 2));
+  public double getSpeed() {
+    int slot = this.slot;
+    return slot == DETACHED ? 0 : stateStore.getSpeed(slot);
   }
 
-  public void setController(IntersectionViewController controller) {
-    this.intersectionViewController = controller;
+  public Locations getLane() {
+    int slot = this.slot;
+    if (slot == DETACHED) return detachedLane;
+    int lane = stateStore.getLaneOrdinal(slot);
+    return lane < 0 ? null : LOCATIONS[lane];
   }
 
-  public void setController(MotorwayViewController controller) {
-    this.motorwayViewController = controller;
+  public void setLane(Locations lane) {
+    stateStore.setLane(slot, lane);
   }
 
-  public void setPosition(double x, double y) {
-    this.x = x;
-    this.y = y;
+  int getQueueTicket() {
+    int slot = this.slot;
+    return slot == DETACHED ? NO_QUEUE_TICKET : stateStore.getQueueTicket(slot);
+  }
+
+  void setQueueTicket(int ticket) {
+    if (slot != DETACHED) stateStore.setQueueTicket(slot, ticket);
+  }
+
+  int getArrivalTicket() {
+    int slot = this.slot;
+    return slot == DETACHED ? NO_QUEUE_TICKET : stateStore.getArrivalTicket(slot);
+  }
+
+  void setArrivalTicket(int ticket) {
+    if (slot != DETACHED) stateStore.setArrivalTicket(slot, ticket);
+  }
+
+  long getQueuedAtNanos() {
+    int slot = this.slot;
+    return slot == DETACHED ? NO_TIMESTAMP : stateStore.getQueuedAtNanos(slot);
+  }
+
+  void setQueuedAtNanos(long nanos) {
+    if (slot != DETACHED) stateStore.setQueuedAtNanos(slot, nanos);
+  }
+
+  long getCrossingStartedAtNanos() {
+    int slot = this.slot;
+    return slot == DETACHED ? NO_TIMESTAMP : stateStore.getCrossingStartedAtNanos(slot);
+  }
+
+  void setCrossingStartedAtNanos(long nanos) {
+    if (slot != DETACHED) stateStore.setCrossingStartedAtNanos(slot, nanos);
+  }
+
+  /** The {@link VehicleStateStore} flags, 0 once detached. */
+  public int getStateFlags() {
+    int slot = this.slot;
+    return slot == DETACHED ? 0 : stateStore.getFlags(slot);
+  }
+
+  public boolean isParked() {
+    int slot = this.slot;
+    return slot != DETACHED && stateStore.hasFlag(slot, PARKED);
+  }
+
+  public int getCurrentPathSegment() {
+    int slot = this.slot;
+    return slot == DETACHED ? path.size() : stateStore.getPathSegment(slot);
+  }
+
+  public int getNextLightIndex() {
+    int slot = this.slot;
+    return slot == DETACHED ? path.getLightCount() : stateStore.getNextLightIndex(slot);
+  }
+
+  /**
+   * Continues the state of a vehicle another engine simulated up to now, see {@link
+   * SimulationEngine#adoptMotorwayVehicle}.
+   */
+  public void restoreState(
+      double x, double y, double speed, int pathSegment, int nextLightIndex, int flags) {
+    int slot = this.slot;
+    stateStore.setPosition(slot, x, y);
+    stateStore.setSpeed(slot, speed);
+    stateStore.setPathSegment(slot, pathSegment);
+    stateStore.setNextLightIndex(slot, nextLightIndex);
+    stateStore.setFlags(slot, flags);
+  }
+
+  /**
+   * Takes the vehicle out of the tick loop without completing its route, because another engine
+   * carries on with it. Only the engine calls this.
+   */
+  public void handOff() {
+    this.finished = true;
+    log.debug(HOT_PATH, "vehicle_handed_off vehicleId={} x={}", id, getX());
+  }
+
+  /**
+   * Copies the last position and lane onto the handle and gives the slot back to the store. Only
+   * the engine calls this, once the vehicle is finished and removed from the tick loop.
+   */
+  public void detach() {
+    int slot = this.slot;
+    if (slot == DETACHED) return;
+    detachedX = stateStore.getX(slot);
+    detachedY = stateStore.getY(slot);
+    detachedLane = getLane();
+    this.slot = DETACHED;
+    stateStore.release(slot);
   }
 
   public void stop() {
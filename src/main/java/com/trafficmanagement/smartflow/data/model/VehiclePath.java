@@ -0,0 +1,98 @@
+package com.trafficmanagement.smartflow.data.model;
+
+import com.trafficmanagement.smartflow.utils.GeometryUtils;
+import java.util.List;
+import javafx.geometry.Point2D;
+
+/**
+ * Immutable polyline a vehicle follows. Vertices are stored as primitive arrays together with the
+ * unit direction and length of every segment, computed once when the path is built, so moving
+ * along it needs neither trigonometry nor a square root.
+ *
+ * <p>Segment {@code i} goes from vertex {@code i - 1} to vertex {@code i}; segment 0 has no
+ * direction. Motorway paths also carry the ids of the traffic lights met along the way, in order.
+ */
+public final class VehiclePath {
+  private final double[] xs;
+  private final double[] ys;
+  private final double[] unitXs;
+  private final double[] unitYs;
+  private final double[] lengths;
+  private final int[] lightIds;
+
+  private VehiclePath(double[] xs, double[] ys, int[] lightIds) {
+    int size = xs.length;
+    this.xs = xs;
+    this.ys = ys;
+    this.lightIds = lightIds;
+    this.unitXs = new double[size];
+    this.unitYs = new double[size];
+    this.lengths = new double[size];
+    for (int ind = 1; ind < size; ind++) {
+      double dx = xs[ind] - xs[ind - 1];
+      double dy = ys[ind] - ys[ind - 1];
+      double length = GeometryUtils.length(dx, dy);
+      lengths[ind] = length;
+      if (length > 0) {
+        unitXs[ind] = dx / length;
+        unitYs[ind] = dy / length;
+      }
+    }
+  }
+
+  public static VehiclePath of(List<Point2D> points) {
+    return of(points, new int[0]);
+  }
+
+  public static VehiclePath of(List<Point2D> points, int[] lightIds) {
+    double[] xs = new double[points.size()];
+    double[] ys = new double[points.size()];
+    for (int ind = 0; ind < xs.length; ind++) {
+      xs[ind] = points.get(ind).getX();
+      ys[ind] = points.get(ind).getY();
+    }
+    return new VehiclePath(xs, ys, lightIds.clone());
+  }
+
+  public static VehiclePath of(double[] xs, double[] ys) {
+    if (xs.length != ys.length)
+      throw new IllegalArgumentException("path coordinate arrays differ in length");
+    return new VehiclePath(xs.clone(), ys.clone(), new int[0]);
+  }
+
+  public int size() {
+    return xs.length;
+  }
+
+  public boolean isEmpty() {
+    return xs.length == 0;
+  }
+
+  public double getX(int vertex) {
+    return xs[vertex];
+  }
+
+  public double getY(int vertex) {
+    return ys[vertex];
+  }
+
+  public double getUnitX(int segment) {
+    return unitXs[segment];
+  }
+
+  public double getUnitY(int segment) {
+    return unitYs[segment];
+  }
+
+  public double getLength(int segment) {
+    return lengths[segment];
+  }
+
+  public int getLightCount() {
+    return lightIds.length;
+  }
+
+  public int getLightId(int index) {
+    return lightIds[index];
+  }
+}
@@ -0,0 +1,230 @@
+package com.trafficmanagement.smartflow.data.model;
+
+import static com.trafficmanagement.smartflow.utils.SimulationConstants.*;
+import static com.trafficmanagement.smartflow.utils.VehicleConstants.INITIAL_TRAFFIC_LIGHT_INDEX;
+import static com.trafficmanagement.smartflow.utils.VehicleConstants.NO_INTERSECTION;
+import static com.trafficmanagement.smartflow.utils.VehicleConstants.NO_QUEUE_TICKET;
+import static com.trafficmanagement.smartflow.utils.VehicleConstants.NO_TIMESTAMP;
+
+import com.trafficmanagement.smartflow.data.enums.Locations;
+import com.trafficmanagement.smartflow.data.enums.VehicleMovement;
+import com.trafficmanagement.smartflow.data.enums.VehicleType;
+import java.util.Arrays;
+
+/**
+ * Mutable vehicle state kept in primitive columns and addressed by slot, so a {@link Vehicle} is
+ * only a handle holding its slot and the few references the engine needs.
+ *
+ * <p>Columns are split into fixed-size chunks that are never copied once created: growing the
+ * store only adds a chunk, so a slot handed to a vehicle stays valid while other threads spawn new
+ * vehicles. Slots of finished vehicles are recycled through a free list.
+ */
+public class VehicleStateStore {
+  public static final int STARTED = 1;
+  public static final int PARKED = 1 << 1;
+  public static final int CROSSING_STARTED = 1 << 2;
+  public static final int LEFT_INTERSECTION = 1 << 3;
+
+  private static final int CHUNK_SIZE = 1 << VEHICLE_STATE_CHUNK_BITS;
+  private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+  private static final byte NO_LANE = -1;
+
+  private final Chunk[] chunks = new Chunk[VEHICLE_STATE_MAX_CHUNKS];
+  private int[] freeSlots = new int[CHUNK_SIZE];
+  private int freeCount = 0;
+  private int nextSlot = 0;
+  private int allocated = 0;
+
+  public synchronized int allocate(
+      VehicleType type, Locations origin, VehicleMovement movement, int initialPathSegment) {
+    int slot;
+    if (freeCount > 0) {
+      slot = freeSlots[--freeCount];
+    } else {
+      slot = nextSlot++;
+      int chunkIndex = slot >>> VEHICLE_STATE_CHUNK_BITS;
+      if (chunkIndex >= chunks.length)
+        throw new IllegalStateException("vehicle state store full capacity=" + capacity());
+      if (chunks[chunkIndex] == null) chunks[chunkIndex] = new Chunk();
+    }
+    allocated++;
+
+    Chunk chunk = chunk(slot);
+    int ind = slot & CHUNK_MASK;
+    chunk.x[ind] = 0;
+    chunk.y[ind] = 0;
+    chunk.speed[ind] = 0;
+    chunk.pathSegment[ind] = initialPathSegment;
+    chunk.nextLightIndex[ind] = INITIAL_TRAFFIC_LIGHT_INDEX;
+    chunk.lastIntersectionId[ind] = NO_INTERSECTION;
+    chunk.queueTicket[ind] = NO_QUEUE_TICKET;
+    chunk.arrivalTicket[ind] = NO_QUEUE_TICKET;
+    chunk.queuedAtNanos[ind] = NO_TIMESTAMP;
+    chunk.crossingStartedAtNanos[ind] = NO_TIMESTAMP;
+    chunk.type[ind] = (byte) type.ordinal();
+    chunk.origin[ind] = (byte) origin.ordinal();
+    chunk.movement[ind] = (byte) movement.ordinal();
+    chunk.lane[ind] = NO_LANE;
+    chunk.flags[ind] = 0;
+    return slot;
+  }
+
+  public synchronized void release(int slot) {
+    if (freeCount == freeSlots.length) freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+    freeSlots[freeCount++] = slot;
+    allocated--;
+  }
+
+  public synchronized int size() {
+    return allocated;
+  }
+
+  public int capacity() {
+    return chunks.length * CHUNK_SIZE;
+  }
+
+  public double getX(int slot) {
+    return chunk(slot).x[slot & CHUNK_MASK];
+  }
+
+  public double getY(int slot) {
+    return chunk(slot).y[slot & CHUNK_MASK];
+  }
+
+  public void setPosition(int slot, double x, double y) {
+    Chunk chunk = chunk(slot);
+    chunk.x[slot & CHUNK_MASK] = x;
+    chunk.y[slot & CHUNK_MASK] = y;
+  }
+
+  public double getSpeed(int slot) {
+    return chunk(slot).speed[slot & CHUNK_MASK];
+  }
+
+  public void setSpeed(int slot, double speed) {
+    chunk(slot).speed[slot & CHUNK_MASK] = speed;
+  }
+
+  public int getPathSegment(int slot) {
+    return chunk(slot).pathSegment[slot & CHUNK_MASK];
+  }
+
+  public void setPathSegment(int slot, int pathSegment) {
+    chunk(slot).pathSegment[slot & CHUNK_MASK] = pathSegment;
+  }
+
+  public int getNextLightIndex(int slot) {
+    return chunk(slot).nextLightIndex[slot & CHUNK_MASK];
+  }
+
+  public void setNextLightIndex(int slot, int nextLightIndex) {
+    chunk(slot).nextLightIndex[slot & CHUNK_MASK] = nextLightIndex;
+  }
+
+  public int getLastIntersectionId(int slot) {
+    return chunk(slot).lastIntersectionId[slot & CHUNK_MASK];
+  }
+
+  public void setLastIntersectionId(int slot, int intersectionId) {
+    chunk(slot).lastIntersectionId[slot & CHUNK_MASK] = intersectionId;
+  }
+
+  /** Ticket in the lane queue of the vehicle's traffic manager, see {@link TicketedLane}. */
+  public int getQueueTicket(int slot) {
+    return chunk(slot).queueTicket[slot & CHUNK_MASK];
+  }
+
+  public void setQueueTicket(int slot, int ticket) {
+    chunk(slot).queueTicket[slot & CHUNK_MASK] = ticket;
+  }
+
+  /** Ticket in the intersection-wide arrival order, only used by the 4-way intersection. */
+  public int getArrivalTicket(int slot) {
+    return chunk(slot).arrivalTicket[slot & CHUNK_MASK];
+  }
+
+  public void setArrivalTicket(int slot, int ticket) {
+    chunk(slot).arrivalTicket[slot & CHUNK_MASK] = ticket;
+  }
+
+  /** {@link System#nanoTime()} when the vehicle joined its lane queue, for queue metrics. */
+  public long getQueuedAtNanos(int slot) {
+    return chunk(slot).queuedAtNanos[slot & CHUNK_MASK];
+  }
+
+  public void setQueuedAtNanos(int slot, long nanos) {
+    chunk(slot).queuedAtNanos[slot & CHUNK_MASK] = nanos;
+  }
+
+  public long getCrossingStartedAtNanos(int slot) {
+    return chunk(slot).crossingStartedAtNanos[slot & CHUNK_MASK];
+  }
+
+  public void setCrossingStartedAtNanos(int slot, long nanos) {
+    chunk(slot).crossingStartedAtNanos[slot & CHUNK_MASK] = nanos;
+  }
+
+  public int getTypeOrdinal(int slot) {
+    return chunk(slot).type[slot & CHUNK_MASK];
+  }
+
+  public int getOriginOrdinal(int slot) {
+    return chunk(slot).origin[slot & CHUNK_MASK];
+  }
+
+  public int getMovementOrdinal(int slot) {
+    return chunk(slot).movement[slot & CHUNK_MASK];
+  }
+
+  /** Lane ordinal, or -1 for vehicles without a lane (single intersection scenario). */
+  public int getLaneOrdinal(int slot) {
+    return chunk(slot).lane[slot & CHUNK_MASK];
+  }
+
+  public void setLane(int slot, Locations lane) {
+    chunk(slot).lane[slot & CHUNK_MASK] = lane == null ? NO_LANE : (byte) lane.ordinal();
+  }
+
+  /** The flags of {@code slot}, {@code 0..0xFF}: the column keeps one byte per vehicle. */
+  public int getFlags(int slot) {
+    return Byte.toUnsignedInt(chunk(slot).flags[slot & CHUNK_MASK]);
+  }
+
+  public void setFlags(int slot, int flags) {
+    if ((flags & ~0xFF) != 0)
+      throw new IllegalArgumentException("vehicle flags beyond one byte: " + flags);
+    chunk(slot).flags[slot & CHUNK_MASK] = (byte) flags;
+  }
+
+  public boolean hasFlag(int slot, int flag) {
+    return (chunk(slot).flags[slot & CHUNK_MASK] & flag) != 0;
+  }
+
+  public void setFlag(int slot, int flag, boolean value) {
+    Chunk chunk = chunk(slot);
+    int ind = slot & CHUNK_MASK;
+    chunk.flags[ind] = (byte) (value ? chunk.flags[ind] | flag : chunk.flags[ind] & ~flag);
+  }
+
+  private Chunk chunk(int slot) {
+    return chunks[slot >>> VEHICLE_STATE_CHUNK_BITS];
+  }
+
+  private static final class Chunk {
+    private final double[] x = new double[CHUNK_SIZE];
+    private final double[] y = new double[CHUNK_SIZE];
+    private final double[] speed = new double[CHUNK_SIZE];
+    private final int[] pathSegment = new int[CHUNK_SIZE];
+    private final int[] nextLightIndex = new int[CHUNK_SIZE];
+    private final int[] lastIntersectionId = new int[CHUNK_SIZE];
+    private final int[] queueTicket = new int[CHUNK_SIZE];
+    private final int[] arrivalTicket = new int[CHUNK_SIZE];
+    private final long[] queuedAtNanos = new long[CHUNK_SIZE];
+    private final long[] crossingStartedAtNanos = new long[CHUNK_SIZE];
+    private final byte[] type = new byte[CHUNK_SIZE];
+    private final byte[] origin = new byte[CHUNK_SIZE];
+    private final byte[] movement = new byte[CHUNK_SIZE];
+    private final byte[] lane = new byte[CHUNK_SIZE];
+    private final byte[] flags = new byte[CHUNK_SIZE];
+  }
+}
@@ -0,0 +1,94 @@
+package com.trafficmanagement.smartflow.logging;
+
+import static com.trafficmanagement.smartflow.utils.SimulationConstants.HOT_PATH_DEFAULT_PERMITS_PER_SECOND;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Marker;
+
+/**
+ * Caps every {@link LogMarkers#HOT_PATH} event type at a number of events per second and drops
+ * the rest before their message is formatted. The event type is the first word of the message
+ * pattern, e.g. {@code vehicle_entered_straight_zone}. Events without the marker pass untouched.
+ *
+ * <pre>{@code
+ * <turboFilter class="com.trafficmanagement.smartflow.logging.HotPathRateLimitFilter">
+ *   <permitsPerSecond>20</permitsPerSecond>
+ *   <limit>opposing_traffic_detected=5</limit>
+ * </turboFilter>
+ * }</pre>
+ *
+ * The check is a map lookup keyed by the pattern string and one CAS on a packed (second, count)
+ * word, so it allocates nothing once an event type has been seen.
+ */
+public class HotPathRateLimitFilter extends TurboFilter {
+  private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+  private static final long COUNT_MASK = 0xFFFF_FFFFL;
+
+  private final Map<String, Integer> limits = new ConcurrentHashMap<>();
+  private final Map<String, Window> windows = new ConcurrentHashMap<>();
+  private final long startNanos = System.nanoTime();
+  private int permitsPerSecond = HOT_PATH_DEFAULT_PERMITS_PER_SECOND;
+
+  public void setPermitsPerSecond(int permitsPerSecond) {
+    this.permitsPerSecond = permitsPerSecond;
+  }
+
+  /** One {@code eventType=permitsPerSecond} override. */
+  public void addLimit(String limit) {
+    int separator = limit.indexOf('=');
+    if (separator <= 0) {
+      addError("hot path limit must look like event_type=permits, got " + limit);
+      return;
+    }
+    limits.put(
+        limit.substring(0, separator).trim(),
+        Integer.parseInt(limit.substring(separator + 1).trim()));
+  }
+
+  @Override
+  public FilterReply decide(
+      Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+    if (!isStarted() || marker == null || format == null || !marker.contains(LogMarkers.HOT_PATH))
+      return FilterReply.NEUTRAL;
+    if (!level.isGreaterOrEqual(logger.getEffectiveLevel())) return FilterReply.NEUTRAL;
+
+    Window window = windows.get(format);
+    if (window == null) window = windows.computeIfAbsent(format, this::newWindow);
+    return window.tryAcquire((System.nanoTime() - startNanos) / NANOS_PER_SECOND)
+        ? FilterReply.NEUTRAL
+        : FilterReply.DENY;
+  }
+
+  private Window newWindow(String format) {
+    int separator = format.indexOf(' ');
+    String eventType = separator < 0 ? format : format.substring(0, separator);
+    return new Window(limits.getOrDefault(eventType, permitsPerSecond));
+  }
+
+  private static final class Window {
+    private final int permits;
+    private final AtomicLong state = new AtomicLong();
+
+    private Window(int permits) {
+      this.permits = permits;
+    }
+
+    private boolean tryAcquire(long second) {
+      while (true) {
+        long current = state.get();
+        long count = current & COUNT_MASK;
+        boolean sameSecond = current >>> 32 == second;
+        if (sameSecond && count >= permits) return false;
+        long next = sameSecond ? current + 1 : (second << 32) | 1;
+        if (state.compareAndSet(current, next)) return true;
+      }
+    }
+  }
+}
@@ -0,0 +1,15 @@
+package com.trafficmanagement.smartflow.logging;
+
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+public final class LogMarkers {
+
+  /**
+   * Events that can fire on every tick of every vehicle. {@code logback.xml} sends them to their
+   * own non-blocking appender and {@link HotPathRateLimitFilter} caps how often each one logs.
+   */
+  public static final Marker HOT_PATH = MarkerFactory.getMarker("HOT_PATH");
+
+  private LogMarkers() {}
+}
@@ -0,0 +1,6 @@
+package com.trafficmanagement.smartflow.metrics;
+
+/** Point-in-time view of a {@link LatencyHistogram}, in the unit the values were recorded in. */
+public record HistogramSnapshot(long count, long p50, long p99, long max) {
+  public static final HistogramSnapshot EMPTY = new HistogramSnapshot(0, 0, 0, 0);
+}
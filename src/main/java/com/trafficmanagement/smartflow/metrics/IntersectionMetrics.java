@@ -0,0 +1,150 @@
+package com.trafficmanagement.smartflow.metrics;
+
+import static com.trafficmanagement.smartflow.utils.SimulationConstants.NANOS_PER_MICRO;
+import static com.trafficmanagement.smartflow.utils.SimulationConstants.NANOS_PER_SECOND;
+
+import com.trafficmanagement.smartflow.metrics.MetricsSnapshot.IntersectionSnapshot;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.Getter;
+
+/**
+ * Counters and latency histograms of one traffic manager. The recording methods are called from
+ * vehicle threads on every queue, crossing and exit, so they only touch adders, atomic arrays and
+ * {@link LatencyHistogram}s and never allocate.
+ */
+public class IntersectionMetrics implements IntersectionMetricsMXBean {
+  @Getter private final String name;
+  private final List<String> laneNames;
+  private final AtomicIntegerArray queueLengths;
+  private final LongAdder vehiclesThrough = new LongAdder();
+  private final LongAdder emergencyPreemptions = new LongAdder();
+  private final LatencyHistogram timeInQueue = new LatencyHistogram();
+  private final LatencyHistogram crossingTime = new LatencyHistogram();
+  private volatile double vehiclesPerSecond;
+  private long lastVehiclesThrough;
+  private long lastSnapshotNanos = System.nanoTime();
+
+  public IntersectionMetrics(String name, List<String> laneNames) {
+    this.name = name;
+    this.laneNames = List.copyOf(laneNames);
+    this.queueLengths = new AtomicIntegerArray(laneNames.size());
+  }
+
+  public void vehicleQueued(int lane) {
+    queueLengths.incrementAndGet(lane);
+  }
+
+  /** A queued vehicle that left without crossing. */
+  public void vehicleDequeued(int lane) {
+    queueLengths.decrementAndGet(lane);
+  }
+
+  public void crossingStarted(int lane, long waitedNanos) {
+    queueLengths.decrementAndGet(lane);
+    timeInQueue.record(waitedNanos);
+  }
+
+  public void vehicleLeft(long crossingNanos) {
+    vehiclesThrough.increment();
+    crossingTime.record(crossingNanos);
+  }
+
+  /** A vehicle that left without a recorded crossing start, e.g. a motorway vehicle. */
+  public void vehicleLeft() {
+    vehiclesThrough.increment();
+  }
+
+  public void emergencyPreempted() {
+    emergencyPreemptions.increment();
+  }
+
+  /** Takes a snapshot and resets the throughput window, see {@link SimulationMetrics#snapshot()}. */
+  synchronized IntersectionSnapshot snapshot(long nowNanos) {
+    long through = vehiclesThrough.sum();
+    long elapsed = nowNanos - lastSnapshotNanos;
+    if (elapsed > 0) {
+      vehiclesPerSecond = (through - lastVehiclesThrough) * (double) NANOS_PER_SECOND / elapsed;
+      lastVehiclesThrough = through;
+      lastSnapshotNanos = nowNanos;
+    }
+    List<Integer> lengths = new ArrayList<>(queueLengths.length());
+    for (int ind = 0; ind < queueLengths.length(); ind++) lengths.add(queueLengths.get(ind));
+    return new IntersectionSnapshot(
+        name,
+        through,
+        vehiclesPerSecond,
+        laneNames,
+        List.copyOf(lengths),
+        toMicros(timeInQueue.snapshot()),
+        toMicros(crossingTime.snapshot()),
+        emergencyPreemptions.sum());
+  }
+
+  static HistogramSnapshot toMicros(HistogramSnapshot nanos) {
+    return new HistogramSnapshot(
+        nanos.count(),
+        nanos.p50() / NANOS_PER_MICRO,
+        nanos.p99() / NANOS_PER_MICRO,
+        nanos.max() / NANOS_PER_MICRO);
+  }
+
+  @Override
+  public long getVehiclesThrough() {
+    return vehiclesThrough.sum();
+  }
+
+  @Override
+  public double getVehiclesPerSecond() {
+    return vehiclesPerSecond;
+  }
+
+  @Override
+  public String[] getLaneNames() {
+    return laneNames.toArray(String[]::new);
+  }
+
+  @Override
+  public int[] getQueueLengths() {
+    int[] lengths = new int[queueLengths.length()];
+    for (int ind = 0; ind < lengths.length; ind++) lengths[ind] = queueLengths.get(ind);
+    return lengths;
+  }
+
+  @Override
+  public long getTimeInQueueP50Micros() {
+    return timeInQueue.snapshot().p50() / NANOS_PER_MICRO;
+  }
+
+  @Override
+  public long getTimeInQueueP99Micros() {
+    return timeInQueue.snapshot().p99() / NANOS_PER_MICRO;
+  }
+
+  @Override
+  public long getTimeInQueueMaxMicros() {
+    return timeInQueue.snapshot().max() / NANOS_PER_MICRO;
+  }
+
+  @Override
+  public long getCrossingTimeP50Micros() {
+    return crossingTime.snapshot().p50() / NANOS_PER_MICRO;
+  }
+
+  @Override
+  public long getCrossingTimeP99Micros() {
+    return crossingTime.snapshot().p99() / NANOS_PER_MICRO;
+  }
+
+  @Override
+  public long getCrossingTimeMaxMicros() {
+    return crossingTime.snapshot().max() / NANOS_PER_MICRO;
+  }
+
+  @Override
+  public long getEmergencyPreemptions() {
+    return emergencyPreemptions.sum();
+  }
+}
@@ -0,0 +1,26 @@
+package com.trafficmanagement.smartflow.metrics;
+
+/** JMX view of {@link IntersectionMetrics}. Durations are in microseconds. */
+public interface IntersectionMetricsMXBean {
+  long getVehiclesThrough();
+
+  double getVehiclesPerSecond();
+
+  String[] getLaneNames();
+
+  int[] getQueueLengths();
+
+  long getTimeInQueueP50Micros();
+
+  long getTimeInQueueP99Micros();
+
+  long getTimeInQueueMaxMicros();
+
+  long getCrossingTimeP50Micros();
+
+  long getCrossingTimeP99Micros();
+
+  long getCrossingTimeMaxMicros();
+
+  long getEmergencyPreemptions();
+}
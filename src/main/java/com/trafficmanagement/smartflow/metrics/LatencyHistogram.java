@@ -0,0 +1,70 @@
+package com.trafficmanagement.smartflow.metrics;
+
+import static com.trafficmanagement.smartflow.utils.SimulationConstants.HISTOGRAM_SUB_BUCKET_BITS;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free log-linear histogram of non-negative durations. Every power of two is split into
+ * {@code 2^HISTOGRAM_SUB_BUCKET_BITS} buckets, so a reported percentile is at most one bucket
+ * (12.5% with 3 bits) above the true value. Recording is one array increment and allocates
+ * nothing; the maximum is kept exactly.
+ */
+public final class LatencyHistogram {
+  private static final int SUB_BUCKET_BITS = HISTOGRAM_SUB_BUCKET_BITS;
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) << SUB_BUCKET_BITS;
+  private static final double MEDIAN = 0.50;
+  private static final double P99 = 0.99;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+  private final AtomicLong max = new AtomicLong();
+
+  public void record(long value) {
+    if (value < 0) value = 0;
+    counts.incrementAndGet(bucketOf(value));
+    if (value > max.get()) max.accumulateAndGet(value, Math::max);
+  }
+
+  public HistogramSnapshot snapshot() {
+    long[] copy = new long[BUCKET_COUNT];
+    long total = 0;
+    for (int ind = 0; ind < BUCKET_COUNT; ind++) {
+      copy[ind] = counts.get(ind);
+      total += copy[ind];
+    }
+    if (total == 0) return HistogramSnapshot.EMPTY;
+    long observedMax = max.get();
+    return new HistogramSnapshot(
+        total,
+        Math.min(valueAt(copy, total, MEDIAN), observedMax),
+        Math.min(valueAt(copy, total, P99), observedMax),
+        observedMax);
+  }
+
+  private static long valueAt(long[] buckets, long total, double quantile) {
+    long rank = Math.max(1, (long) Math.ceil(quantile * total));
+    long seen = 0;
+    for (int ind = 0; ind < buckets.length; ind++) {
+      seen += buckets[ind];
+      if (seen >= rank) return upperBoundOf(ind);
+    }
+    return upperBoundOf(buckets.length - 1);
+  }
+
+  static int bucketOf(long value) {
+    if (value < SUB_BUCKET_COUNT) return (int) value;
+    int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+    int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+    return ((exponent - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS) + subBucket;
+  }
+
+  static long upperBoundOf(int bucket) {
+    if (bucket < SUB_BUCKET_COUNT) return bucket;
+    int exponent = (bucket >> SUB_BUCKET_BITS) + SUB_BUCKET_BITS - 1;
+    long subBucket = bucket & (SUB_BUCKET_COUNT - 1);
+    long width = 1L << (exponent - SUB_BUCKET_BITS);
+    return (1L << exponent) + subBucket * width + width - 1;
+  }
+}
@@ -0,0 +1,24 @@
+package com.trafficmanagement.smartflow.metrics;
+
+import java.util.List;
+
+/**
+ * Everything {@link SimulationMetrics} tracks at one instant. Durations are in microseconds;
+ * {@code vehiclesPerSecond} is the throughput since the previous snapshot.
+ */
+public record MetricsSnapshot(
+    String simulation,
+    long tickCount,
+    HistogramSnapshot tickDurationMicros,
+    List<IntersectionSnapshot> intersections) {
+
+  public record IntersectionSnapshot(
+      String name,
+      long vehiclesThrough,
+      double vehiclesPerSecond,
+      List<String> laneNames,
+      List<Integer> queueLengths,
+      HistogramSnapshot timeInQueueMicros,
+      HistogramSnapshot crossingTimeMicros,
+      long emergencyPreemptions) {}
+}
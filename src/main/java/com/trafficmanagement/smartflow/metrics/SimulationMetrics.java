@@ -0,0 +1,158 @@
+package com.trafficmanagement.smartflow.metrics;
+
+import static com.trafficmanagement.smartflow.utils.SimulationConstants.*;
+
+import com.trafficmanagement.smartflow.metrics.MetricsSnapshot.IntersectionSnapshot;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Metrics of one simulation engine: tick duration plus one {@link IntersectionMetrics} per
+ * traffic manager. Everything is exposed three ways: {@link #snapshot()} on demand, {@link
+ * #startPeriodicSnapshots} for a listener, and MXBeans on the platform MBean server under {@value
+ * com.trafficmanagement.smartflow.utils.SimulationConstants#METRICS_JMX_DOMAIN} once {@link
+ * #registerMBeans()} is called.
+ */
+@Slf4j
+public class SimulationMetrics implements SimulationMetricsMXBean {
+  private static final AtomicInteger engineCounter = new AtomicInteger();
+
+  @Getter private final String name;
+  private final LatencyHistogram tickDuration = new LatencyHistogram();
+  private final List<IntersectionMetrics> intersections = new CopyOnWriteArrayList<>();
+  private final List<ObjectName> registeredNames = new ArrayList<>();
+  private ScheduledExecutorService snapshotScheduler;
+  private volatile long tickCount;
+  @Getter private volatile MetricsSnapshot lastSnapshot;
+
+  public SimulationMetrics(String simulation) {
+    this.name = simulation.toLowerCase() + "-" + engineCounter.incrementAndGet();
+  }
+
+  public void addIntersection(IntersectionMetrics metrics) {
+    intersections.add(metrics);
+  }
+
+  /** Called by the tick thread only. */
+  public void recordTick(long durationNanos) {
+    tickDuration.record(durationNanos);
+    tickCount++;
+  }
+
+  public MetricsSnapshot snapshot() {
+    long now = System.nanoTime();
+    List<IntersectionSnapshot> intersectionSnapshots = new ArrayList<>(intersections.size());
+    for (IntersectionMetrics metrics : intersections)
+      intersectionSnapshots.add(metrics.snapshot(now));
+    MetricsSnapshot snapshot =
+        new MetricsSnapshot(
+            name,
+            tickCount,
+            IntersectionMetrics.toMicros(tickDuration.snapshot()),
+            List.copyOf(intersectionSnapshots));
+    lastSnapshot = snapshot;
+    return snapshot;
+  }
+
+  public synchronized void startPeriodicSnapshots(
+      long periodMillis, Consumer<MetricsSnapshot> listener) {
+    if (snapshotScheduler != null) return;
+    snapshotScheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, METRICS_THREAD_NAME);
+              thread.setDaemon(true);
+              return thread;
+            });
+    snapshotScheduler.scheduleAtFixedRate(
+        () -> {
+          try {
+            listener.accept(snapshot());
+          } catch (RuntimeException e) {
+            log.error("metrics_snapshot_failed simulation={}", name, e);
+          }
+        },
+        periodMillis,
+        periodMillis,
+        TimeUnit.MILLISECONDS);
+  }
+
+  public synchronized void registerMBeans() {
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      register(server, this, METRICS_JMX_DOMAIN + ":type=Simulation,name=" + name);
+      for (IntersectionMetrics metrics : intersections)
+        register(
+            server,
+            metrics,
+            METRICS_JMX_DOMAIN
+                + ":type=Intersection,simulation="
+                + name
+                + ",name="
+                + metrics.getName());
+    } catch (JMException e) {
+      log.warn("metrics_jmx_registration_failed simulation={} reason={}", name, e.getMessage());
+    }
+  }
+
+  private void register(MBeanServer server, Object bean, String objectNameText)
+      throws JMException {
+    ObjectName objectName = new ObjectName(objectNameText);
+    server.registerMBean(bean, objectName);
+    registeredNames.add(objectName);
+    log.debug("metrics_mbean_registered objectName={}", objectName);
+  }
+
+  public synchronized void close() {
+    if (snapshotScheduler != null) {
+      snapshotScheduler.shutdownNow();
+      snapshotScheduler = null;
+    }
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    for (ObjectName objectName : registeredNames) {
+      try {
+        server.unregisterMBean(objectName);
+      } catch (JMException e) {
+        log.debug("metrics_mbean_unregister_failed objectName={}", objectName);
+      }
+    }
+    registeredNames.clear();
+  }
+
+  @Override
+  public long getTickCount() {
+    return tickCount;
+  }
+
+  @Override
+  public long getTickDurationP50Micros() {
+    return tickDuration.snapshot().p50() / NANOS_PER_MICRO;
+  }
+
+  @Override
+  public long getTickDurationP99Micros() {
+    return tickDuration.snapshot().p99() / NANOS_PER_MICRO;
+  }
+
+  @Override
+  public long getTickDurationMaxMicros() {
+    return tickDuration.snapshot().max() / NANOS_PER_MICRO;
+  }
+
+  @Override
+  public int getIntersectionCount() {
+    return intersections.size();
+  }
+}
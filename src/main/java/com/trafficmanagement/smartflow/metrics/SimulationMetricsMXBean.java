@@ -0,0 +1,14 @@
+package com.trafficmanagement.smartflow.metrics;
+
+/** JMX view of {@link SimulationMetrics}. Durations are in microseconds. */
+public interface SimulationMetricsMXBean {
+  long getTickCount();
+
+  long getTickDurationP50Micros();
+
+  long getTickDurationP99Micros();
+
+  long getTickDurationMaxMicros();
+
+  int getIntersectionCount();
+}
@@ -0,0 +1,363 @@
+package com.trafficmanagement.smartflow.network;
+
+import static com.trafficmanagement.smartflow.network.RoutingTable.NO_ROAD;
+import static com.trafficmanagement.smartflow.utils.NetworkConstants.*;
+import static com.trafficmanagement.smartflow.utils.VehicleConstants.NO_INTERSECTION;
+
+import com.trafficmanagement.smartflow.data.enums.Locations;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The motorway as a directed graph read from a scenario file: intersections and the two motorway
+ * ends are the nodes, roads are the edges, and a road may carry the signal that stops its traffic
+ * at the intersection it leads to. Intersections sit along the motorway at {@code fraction * width
+ * + offset}; road lengths for routing are taken at {@code SCENARIO_REFERENCE_WIDTH}.
+ *
+ * <p>Routes are precomputed for every pair of nodes (see {@link RoutingTable}), so every lookup
+ * made while vehicles move is an array read. Instances never change.
+ */
+@Slf4j
+public final class RoadNetwork {
+  private static final int WEST_NODE = 0;
+  private static final int EAST_NODE = 1;
+  private static final String WEST_NAME = Locations.WEST.name();
+  private static final String EAST_NAME = Locations.EAST.name();
+
+  private static volatile RoadNetwork defaultNetwork;
+
+  private final String source;
+  private final double[] nodeFraction;
+  private final double[] nodeOffset;
+  private final int[] nodeIntersection;
+  private final int[] intersectionNode;
+  private final int[] intersectionsWestToEast;
+  private final int[] roadTo;
+  private final int[] roadSignal;
+  private final int[] signalIds;
+  private final int[] signalRoad;
+  private final int[] signalPhase;
+  private final int[] signalIntersection;
+  private final Locations[] signalOrigin;
+  private final int[][] turnTargets = new int[2][];
+  private final RoutingTable routing;
+
+  private RoadNetwork(
+      String source,
+      List<double[]> positions,
+      List<Integer> intersectionIds,
+      List<int[]> roads,
+      int maxIntersectionId,
+      int maxSignalId) {
+    this.source = source;
+    int nodeCount = positions.size();
+    nodeFraction = new double[nodeCount];
+    nodeOffset = new double[nodeCount];
+    nodeIntersection = new int[nodeCount];
+    intersectionNode = new int[maxIntersectionId + 1];
+    Arrays.fill(intersectionNode, -1);
+    for (int node = 0; node < nodeCount; node++) {
+      nodeFraction[node] = positions.get(node)[0];
+      nodeOffset[node] = positions.get(node)[1];
+      int intersectionId = intersectionIds.get(node);
+      nodeIntersection[node] = intersectionId;
+      if (intersectionId != NO_INTERSECTION) intersectionNode[intersectionId] = node;
+    }
+    intersectionsWestToEast =
+        intersectionIds.stream()
+            .filter(id -> id != NO_INTERSECTION)
+            .sorted(Comparator.comparingDouble((Integer id) -> referenceX(intersectionNode[id])))
+            .mapToInt(Integer::intValue)
+            .toArray();
+
+    int roadCount = roads.size();
+    int[] roadFrom = new int[roadCount];
+    roadTo = new int[roadCount];
+    roadSignal = new int[roadCount];
+    double[] roadLength = new double[roadCount];
+    signalRoad = new int[maxSignalId + 1];
+    signalPhase = new int[maxSignalId + 1];
+    signalIntersection = new int[maxSignalId + 1];
+    signalOrigin = new Locations[maxSignalId + 1];
+    Arrays.fill(signalRoad, NO_ROAD);
+    List<Integer> signals = new ArrayList<>();
+    for (int road = 0; road < roadCount; road++) {
+      int[] fields = roads.get(road);
+      roadFrom[road] = fields[0];
+      roadTo[road] = fields[1];
+      roadSignal[road] = fields[2];
+      roadLength[road] = Math.abs(referenceX(fields[1]) - referenceX(fields[0]));
+      int signalId = fields[2];
+      if (signalId == 0) continue;
+      signals.add(signalId);
+      signalRoad[signalId] = road;
+      signalPhase[signalId] = fields[3];
+      signalIntersection[signalId] = nodeIntersection[fields[1]];
+      signalOrigin[signalId] =
+          referenceX(fields[1]) > referenceX(fields[0]) ? Locations.WEST : Locations.EAST;
+    }
+    signalIds = signals.stream().sorted().mapToInt(Integer::intValue).toArray();
+    routing = new RoutingTable(nodeCount, roadFrom, roadTo, roadLength);
+
+    for (Locations origin : Locations.getMotorwayDirections()) {
+      turnTargets[directionIndex(origin)] =
+          Arrays.stream(intersectionsWestToEast)
+              .filter(id -> getSignalInto(origin, id) != 0)
+              .sorted()
+              .toArray();
+    }
+  }
+
+  /**
+   * The network named by {@code -Dsmartflow.scenario}, a scenario file path, or the built-in
+   * four-intersection motorway when the property is not set.
+   */
+  public static RoadNetwork fromSystemProperty() {
+    String configured = System.getProperty(SCENARIO_PROPERTY);
+    try {
+      return configured == null ? defaultNetwork() : load(Path.of(configured.trim()));
+    } catch (IOException exception) {
+      throw new UncheckedIOException(exception);
+    }
+  }
+
+  private static RoadNetwork defaultNetwork() throws IOException {
+    RoadNetwork network = defaultNetwork;
+    if (network != null) return network;
+    try (InputStream input = RoadNetwork.class.getResourceAsStream(DEFAULT_SCENARIO_RESOURCE)) {
+      if (input == null) throw new IOException("missing scenario " + DEFAULT_SCENARIO_RESOURCE);
+      BufferedReader reader =
+          new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+      network = parse(reader.lines().toList(), DEFAULT_SCENARIO_RESOURCE);
+    }
+    defaultNetwork = network;
+    return network;
+  }
+
+  public static RoadNetwork load(Path file) throws IOException {
+    return parse(Files.readAllLines(file), file.toString());
+  }
+
+  /**
+   * Reads {@code intersection <id> <fraction> <offset>} and {@code road <from> <to> [signal <id>
+   * <phase>]} lines; {@code WEST} and {@code EAST} name the motorway ends.
+   */
+  public static RoadNetwork parse(List<String> lines, String source) throws IOException {
+    List<double[]> positions = new ArrayList<>();
+    List<Integer> intersectionIds = new ArrayList<>();
+    positions.add(new double[] {0, 0});
+    intersectionIds.add(NO_INTERSECTION);
+    positions.add(new double[] {1, 0});
+    intersectionIds.add(NO_INTERSECTION);
+    List<int[]> roads = new ArrayList<>();
+    List<String> roadLines = new ArrayList<>();
+    int maxIntersectionId = 0;
+    int maxSignalId = 0;
+
+    for (String rawLine : lines) {
+      String line = rawLine.strip();
+      if (line.isEmpty() || line.startsWith(COMMENT_PREFIX)) continue;
+      String[] fields = line.split("\\s+");
+      if (fields[0].equals(INTERSECTION_KEYWORD)) {
+        if (fields.length != 4) throw new IOException("malformed intersection: " + line);
+        int id = parseInt(fields[1], line);
+        if (id <= 0 || intersectionIds.contains(id))
+          throw new IOException("invalid or duplicate intersection id: " + line);
+        positions.add(new double[] {parseDouble(fields[2], line), parseDouble(fields[3], line)});
+        intersectionIds.add(id);
+        maxIntersectionId = Math.max(maxIntersectionId, id);
+      } else if (fields[0].equals(ROAD_KEYWORD)) {
+        roadLines.add(line);
+      } else {
+        throw new IOException("unknown scenario line: " + line);
+      }
+    }
+
+    List<Integer> seenSignals = new ArrayList<>();
+    for (String line : roadLines) {
+      String[] fields = line.split("\\s+");
+      boolean signalled = fields.length == 6 && fields[3].equals(SIGNAL_KEYWORD);
+      if (fields.length != 3 && !signalled) throw new IOException("malformed road: " + line);
+      int from = nodeOf(fields[1], intersectionIds, line);
+      int to = nodeOf(fields[2], intersectionIds, line);
+      if (Arrays.equals(positions.get(from), positions.get(to)))
+        throw new IOException("road must join two places on the motorway: " + line);
+      int signalId = 0;
+      int phase = FIRST_SIGNAL_PHASE;
+      if (signalled) {
+        signalId = parseInt(fields[4], line);
+        phase = parseInt(fields[5], line);
+        if (signalId < 1 || signalId > MAX_SIGNAL_ID || seenSignals.contains(signalId))
+          throw new IOException("signal id must be unique and in 1.." + MAX_SIGNAL_ID + ": " + line);
+        if (phase != FIRST_SIGNAL_PHASE && phase != SECOND_SIGNAL_PHASE)
+          throw new IOException("signal phase must be 0 or 1: " + line);
+        if (intersectionIds.get(to) == NO_INTERSECTION)
+          throw new IOException("a signal must stop traffic at an intersection: " + line);
+        seenSignals.add(signalId);
+        maxSignalId = Math.max(maxSignalId, signalId);
+      }
+      roads.add(new int[] {from, to, signalId, phase});
+    }
+
+    RoadNetwork network =
+        new RoadNetwork(source, positions, intersectionIds, roads, maxIntersectionId, maxSignalId);
+    log.info(
+        "road_network_loaded source={} intersections={} roads={} signals={}",
+        source,
+        network.getIntersectionCount(),
+        roads.size(),
+        network.getSignalCount());
+    return network;
+  }
+
+  private static int nodeOf(String name, List<Integer> intersectionIds, String line)
+      throws IOException {
+    if (name.equals(WEST_NAME)) return WEST_NODE;
+    if (name.equals(EAST_NAME)) return EAST_NODE;
+    int node = intersectionIds.indexOf(parseInt(name, line));
+    if (node < 0) throw new IOException("unknown intersection " + name + ": " + line);
+    return node;
+  }
+
+  private static int parseInt(String field, String line) throws IOException {
+    try {
+      return Integer.parseInt(field);
+    } catch (NumberFormatException exception) {
+      throw new IOException("expected a whole number, got " + field + ": " + line);
+    }
+  }
+
+  private static double parseDouble(String field, String line) throws IOException {
+    try {
+      return Double.parseDouble(field);
+    } catch (NumberFormatException exception) {
+      throw new IOException("expected a number, got " + field + ": " + line);
+    }
+  }
+
+  private double referenceX(int node) {
+    return nodeFraction[node] * SCENARIO_REFERENCE_WIDTH + nodeOffset[node];
+  }
+
+  private static int directionIndex(Locations origin) {
+    return origin == Locations.WEST ? 0 : 1;
+  }
+
+  private static int entryNode(Locations origin) {
+    return origin == Locations.WEST ? WEST_NODE : EAST_NODE;
+  }
+
+  private static int exitNode(Locations origin) {
+    return origin == Locations.WEST ? EAST_NODE : WEST_NODE;
+  }
+
+  public String getSource() {
+    return source;
+  }
+
+  public int getIntersectionCount() {
+    return intersectionsWestToEast.length;
+  }
+
+  /** The {@code index}-th intersection counted from the west end. */
+  public int getIntersectionId(int index) {
+    return intersectionsWestToEast[index];
+  }
+
+  public int getMaxIntersectionId() {
+    return intersectionNode.length - 1;
+  }
+
+  public boolean hasIntersection(int intersectionId) {
+    return intersectionId > 0
+        && intersectionId < intersectionNode.length
+        && intersectionNode[intersectionId] >= 0;
+  }
+
+  public double getIntersectionX(int intersectionId, double width) {
+    if (!hasIntersection(intersectionId)) return 0;
+    int node = intersectionNode[intersectionId];
+    return nodeFraction[node] * width + nodeOffset[node];
+  }
+
+  public int getSignalCount() {
+    return signalIds.length;
+  }
+
+  /** The {@code index}-th signal in id order. */
+  public int getSignalId(int index) {
+    return signalIds[index];
+  }
+
+  public int getMaxSignalId() {
+    return signalRoad.length - 1;
+  }
+
+  public boolean hasSignal(int lightId) {
+    return lightId > 0 && lightId < signalRoad.length && signalRoad[lightId] != NO_ROAD;
+  }
+
+  /** The intersection at which {@code lightId} stops traffic, or {@code NO_INTERSECTION}. */
+  public int getSignalIntersection(int lightId) {
+    return hasSignal(lightId) ? signalIntersection[lightId] : NO_INTERSECTION;
+  }
+
+  /** The motorway end the traffic stopped by {@code lightId} comes from. */
+  public Locations getSignalOrigin(int lightId) {
+    return hasSignal(lightId) ? signalOrigin[lightId] : null;
+  }
+
+  public int getSignalPhase(int lightId) {
+    return hasSignal(lightId) ? signalPhase[lightId] : FIRST_SIGNAL_PHASE;
+  }
+
+  /**
+   * The signal a vehicle from {@code origin} meets on arriving at {@code intersectionId}, or 0 if
+   * that approach has none.
+   */
+  public int getSignalInto(Locations origin, int intersectionId) {
+    if (!hasIntersection(intersectionId)) return 0;
+    int road = routing.lastRoad(entryNode(origin), intersectionNode[intersectionId]);
+    return road == NO_ROAD ? 0 : roadSignal[road];
+  }
+
+  /** Intersections a vehicle from {@code origin} can turn at: those it reaches through a signal. */
+  public int[] getTurnTargets(Locations origin) {
+    return turnTargets[directionIndex(origin)].clone();
+  }
+
+  /**
+   * The signals along the shortest route from {@code origin} to {@code targetIntersectionId}, or to
+   * the opposite motorway end for {@code NO_INTERSECTION}, in the order they are met.
+   */
+  public int[] getSignalsOnRoute(Locations origin, int targetIntersectionId) {
+    int to =
+        targetIntersectionId == NO_INTERSECTION
+            ? exitNode(origin)
+            : hasIntersection(targetIntersectionId)
+                ? intersectionNode[targetIntersectionId]
+                : -1;
+    if (to < 0) return new int[0];
+    int[] signals = new int[signalIds.length];
+    int count = 0;
+    int node = entryNode(origin);
+    while (node != to) {
+      int road = routing.firstRoad(node, to);
+      if (road == NO_ROAD) break;
+      if (roadSignal[road] != 0) signals[count++] = roadSignal[road];
+      node = roadTo[road];
+    }
+    return Arrays.copyOf(signals, count);
+  }
+}
@@ -0,0 +1,75 @@
+package com.trafficmanagement.smartflow.network;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * Shortest routes between every pair of nodes, from one Dijkstra search per destination over the
+ * reversed roads. Every search covers the whole graph, so a goal-directed A* would not save any
+ * work here. For each (from, to) pair the table keeps the first road of the route and the last one,
+ * so the next hop and the road a route arrives on are both a single array read.
+ */
+final class RoutingTable {
+  static final int NO_ROAD = -1;
+
+  private record Candidate(double distance, int node) {}
+
+  private final int nodeCount;
+  private final int[] firstRoad;
+  private final int[] lastRoad;
+
+  RoutingTable(int nodeCount, int[] roadFrom, int[] roadTo, double[] roadLength) {
+    this.nodeCount = nodeCount;
+    this.firstRoad = new int[nodeCount * nodeCount];
+    this.lastRoad = new int[nodeCount * nodeCount];
+    Arrays.fill(firstRoad, NO_ROAD);
+    Arrays.fill(lastRoad, NO_ROAD);
+
+    int[] incomingStart = new int[nodeCount + 1];
+    for (int to : roadTo) incomingStart[to + 1]++;
+    for (int node = 0; node < nodeCount; node++) incomingStart[node + 1] += incomingStart[node];
+    int[] incoming = new int[roadTo.length];
+    int[] filled = Arrays.copyOf(incomingStart, nodeCount);
+    for (int road = 0; road < roadTo.length; road++) incoming[filled[roadTo[road]]++] = road;
+
+    double[] distance = new double[nodeCount];
+    for (int destination = 0; destination < nodeCount; destination++) {
+      Arrays.fill(distance, Double.POSITIVE_INFINITY);
+      distance[destination] = 0;
+      int base = destination * nodeCount;
+      PriorityQueue<Candidate> queue =
+          new PriorityQueue<>((left, right) -> Double.compare(left.distance(), right.distance()));
+      queue.add(new Candidate(0, destination));
+      while (!queue.isEmpty()) {
+        Candidate settled = queue.poll();
+        int node = settled.node();
+        if (settled.distance() > distance[node]) continue;
+        if (node != destination) {
+          int road = firstRoad[base + node];
+          int next = roadTo[road];
+          lastRoad[base + node] = next == destination ? road : lastRoad[base + next];
+        }
+        for (int ind = incomingStart[node]; ind < incomingStart[node + 1]; ind++) {
+          int road = incoming[ind];
+          int from = roadFrom[road];
+          double through = distance[node] + roadLength[road];
+          if (through < distance[from]) {
+            distance[from] = through;
+            firstRoad[base + from] = road;
+            queue.add(new Candidate(through, from));
+          }
+        }
+      }
+    }
+  }
+
+  /** The first road from {@code from} towards {@code to}, or {@code NO_ROAD}. */
+  int firstRoad(int from, int to) {
+    return firstRoad[to * nodeCount + from];
+  }
+
+  /** The road the route from {@code from} arrives at {@code to} on, or {@code NO_ROAD}. */
+  int lastRoad(int from, int to) {
+    return lastRoad[to * nodeCount + from];
+  }
+}
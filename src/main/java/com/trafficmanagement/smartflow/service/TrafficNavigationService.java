@@ -2,15 +2,19 @@ package com.trafficmanagement.smartflow.service;
 
 import com.trafficmanagement.smartflow.controller.MotorwayViewController;
 import com.trafficmanagement.smartflow.controller.TrafficLightController;
+import com.trafficmanagement.smartflow.data.enums.Locations;
 import com.trafficmanagement.smartflow.data.enums.VehicleType;
 import com.trafficmanagement.smartflow.data.model.Vehicle;
+import com.trafficmanagement.smartflow.network.RoadNetwork;
+import com.trafficmanagement.smartflow.simulation.LaneIndex;
+import com.trafficmanagement.smartflow.utils.GeometryUtils;
 import com.trafficmanagement.smartflow.utils.MotorwayConstants;
-import javafx.geometry.Point2D;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.Collection;
 import java.util.Optional;
 
+import static com.trafficmanagement.smartflow.logging.LogMarkers.HOT_PATH;
 import static com.trafficmanagement.smartflow.utils.VehicleConstants.*;
 
 @Slf4j
@@ -37,31 +41,36 @@ public class TrafficNavigationService {
     }
 
     private boolean isLightForTargetIntersection(int lightId, int targetIntersectionId) {
-        return (lightId == MotorwayConstants.TRAFFIC_LIGHT_1 && targetIntersectionId == MotorwayConstants.INTERSECTION_1)
-            || ((lightId == MotorwayConstants.TRAFFIC_LIGHT_2 || lightId == MotorwayConstants.TRAFFIC_LIGHT_3) && targetIntersectionId == MotorwayConstants.INTERSECTION_2)
-            || ((lightId == MotorwayConstants.TRAFFIC_LIGHT_4 || lightId == MotorwayConstants.TRAFFIC_LIGHT_5) && targetIntersectionId == MotorwayConstants.INTERSECTION_3)
-            || (lightId == MotorwayConstants.TRAFFIC_LIGHT_6 && targetIntersectionId == MotorwayConstants.INTERSECTION_4);
+        RoadNetwork network = trafficLightController.getNetwork();
+        return network.hasSignal(lightId) && network.getSignalIntersection(lightId) == targetIntersectionId;
     }
 
     private boolean canEmergencyVehicleProceed(Vehicle emergencyVehicle, int lightId) {
-        log.info("emergency_vehicle_light_check vehicleId={} lightId={}", emergencyVehicle.getId(), lightId);
+        log.info(HOT_PATH, "emergency_vehicle_light_check vehicleId={} lightId={}", emergencyVehicle.getId(), lightId);
         return true;
     }
 
     public Optional<Vehicle> findLeadingVehicle(Vehicle follower, Collection<Vehicle> allVehicles) {
-        Point2D followerPos = new Point2D(follower.getX(), follower.getY());
-        
         return allVehicles.stream()
             .filter(vehicle -> !vehicle.equals(follower))
             .filter(vehicle -> !vehicle.isFinished())
             .filter(vehicle -> isInFrontOf(vehicle, follower))
-            .filter(vehicle -> {
-                Point2D leaderPos = new Point2D(vehicle.getX(), vehicle.getY());
-                return calculateDistance(followerPos, leaderPos) < SAFE_DISTANCE * PROXIMITY_THRESHOLD;
-            })
+            .filter(vehicle -> isWithin(follower, vehicle, SAFE_DISTANCE * PROXIMITY_THRESHOLD))
             .findFirst();
     }
 
+    /**
+     * Same as {@link #findLeadingVehicle(Vehicle, Collection)} but only looks at the follower's own
+     * lane, using the engine's {@link LaneIndex} instead of scanning every vehicle.
+     */
+    public Optional<Vehicle> findLeadingVehicle(Vehicle follower, LaneIndex laneIndex) {
+        Vehicle leader = laneIndex.findLeadingVehicle(follower);
+        if (leader == null || !isWithin(follower, leader, SAFE_DISTANCE * PROXIMITY_THRESHOLD)) {
+            return Optional.empty();
+        }
+        return Optional.of(leader);
+    }
+
     private boolean isInFrontOf(Vehicle leader, Vehicle follower) {
         switch (follower.getOrigin()) {
             case WEST:
@@ -78,54 +87,37 @@ public class TrafficNavigationService {
     }
 
     public boolean isAtSafeDistance(Vehicle vehicle, Vehicle other) {
-        Point2D vehiclePos = new Point2D(vehicle.getX(), vehicle.getY());
-        Point2D otherPos = new Point2D(other.getX(), other.getY());
-        
-        double distance = calculateDistance(vehiclePos, otherPos);
         double safeDistance = (vehicle.getType() == VehicleType.EMERGENCY) 
             ? SAFE_DISTANCE * EMERGENCY_CLEARANCE_MULTIPLIER
             : SAFE_DISTANCE;
         
-        return distance >= safeDistance;
+        return !isWithin(vehicle, other, safeDistance);
     }
 
-    private double calculateDistance(Point2D point1, Point2D point2) {
-        return Math.sqrt(
-            Math.pow(point2.getX() - point1.getX(), 2) + 
-            Math.pow(point2.getY() - point1.getY(), 2)
-        );
+    private boolean isWithin(Vehicle vehicle, Vehicle other, double radius) {
+        return GeometryUtils.isWithin(vehicle.getX(), vehicle.getY(), other.getX(), other.getY(), radius);
     }
 
     public int getCurrentIntersectionId(Vehicle vehicle, MotorwayViewController controller) {
         double width = controller.getSimulationPane().getWidth();
         
-        for (int ind = MotorwayConstants.FIRST_INTERSECTION; ind <= MotorwayConstants.TOTAL_INTERSECTIONS; ind++) {
-            double centerX = controller.getIntersectionCenterX(ind, width);
+        RoadNetwork network = trafficLightController.getNetwork();
+        for (int ind = 0; ind < network.getIntersectionCount(); ind++) {
+            int intersectionId = network.getIntersectionId(ind);
+            double centerX = controller.getIntersectionCenterX(intersectionId, width);
             
             if (vehicle.getX() > centerX - width / MotorwayConstants.INTERSECTION_WIDTH_DIVISOR && 
                 vehicle.getX() < centerX + width / MotorwayConstants.INTERSECTION_WIDTH_DIVISOR) {
-                return ind;
+                return intersectionId;
             }
         }
         return NO_INTERSECTION;
     }
 
     public int getLightIdForIntersection(int intersectionId, boolean isUpperLane) {
-        if (isUpperLane) {
-            return switch (intersectionId) {
-                case MotorwayConstants.INTERSECTION_2 -> MotorwayConstants.TRAFFIC_LIGHT_3;
-                case MotorwayConstants.INTERSECTION_3 -> MotorwayConstants.TRAFFIC_LIGHT_5;
-                case MotorwayConstants.INTERSECTION_4 -> MotorwayConstants.TRAFFIC_LIGHT_6;
-                default -> NO_INTERSECTION;
-            };
-        } else {
-            return switch (intersectionId) {
-                case MotorwayConstants.INTERSECTION_1 -> MotorwayConstants.TRAFFIC_LIGHT_1;
-                case MotorwayConstants.INTERSECTION_2 -> MotorwayConstants.TRAFFIC_LIGHT_2;
-                case MotorwayConstants.INTERSECTION_3 -> MotorwayConstants.TRAFFIC_LIGHT_4;
-                default -> NO_INTERSECTION;
-            };
-        }
+        Locations origin = isUpperLane ? Locations.WEST : Locations.EAST;
+        int lightId = trafficLightController.getNetwork().getSignalInto(origin, intersectionId);
+        return lightId == 0 ? NO_INTERSECTION : lightId;
     }
 
     public boolean hasEmergencyFollower(Vehicle vehicle, Collection<Vehicle> allVehicles) {
@@ -136,13 +128,15 @@ public class TrafficNavigationService {
             .anyMatch(emergencyVehicle -> isFollowingBehind(emergencyVehicle, vehicle));
     }
 
+    public boolean hasEmergencyFollower(Vehicle vehicle, LaneIndex laneIndex) {
+        return laneIndex.findEmergencyFollower(vehicle, SAFE_DISTANCE) != null;
+    }
+
     private boolean isFollowingBehind(Vehicle follower, Vehicle leader) {
-        Point2D followerPos = new Point2D(follower.getX(), follower.getY());
-        Point2D leaderPos = new Point2D(leader.getX(), leader.getY());
-        
-        double distance = calculateDistance(followerPos, leaderPos);
+        double distanceSquared = GeometryUtils.distanceSquared(
+            follower.getX(), follower.getY(), leader.getX(), leader.getY());
         
-        if (distance > SAFE_DISTANCE) {
+        if (distanceSquared > SAFE_DISTANCE * SAFE_DISTANCE) {
             return false;
         }
         
@@ -2,9 +2,11 @@ package com.trafficmanagement.smartflow.service;
 
 import com.trafficmanagement.smartflow.data.enums.VehicleType;
 import com.trafficmanagement.smartflow.data.model.Vehicle;
+import com.trafficmanagement.smartflow.utils.GeometryUtils;
 import javafx.geometry.Point2D;
 import lombok.extern.slf4j.Slf4j;
 
+import static com.trafficmanagement.smartflow.logging.LogMarkers.HOT_PATH;
 import static com.trafficmanagement.smartflow.utils.VehicleConstants.*;
 
 @Slf4j
@@ -18,19 +20,21 @@ public class VehicleMovementService {
         double currentX = vehicle.getX();
         double currentY = vehicle.getY();
         
-        if (hasReachedTarget(currentX, currentY, target)) {
+        double targetX = target.getX();
+        double targetY = target.getY();
+        if (hasReachedTarget(currentX, currentY, targetX, targetY)) {
             return;
         }
 
-        Point2D direction = calculateMovementDirection(currentX, currentY, target);
+        double distance = GeometryUtils.distance(currentX, currentY, targetX, targetY);
         double speed = determineSpeed(vehicle.getType(), isEmergency);
         
-        double newX = currentX + direction.getX() * speed;
-        double newY = currentY + direction.getY() * speed;
+        double newX = currentX + (targetX - currentX) / distance * speed;
+        double newY = currentY + (targetY - currentY) / distance * speed;
         
         vehicle.setPosition(newX, newY);
         
-        log.debug("vehicle_moved vehicleId={} from=({},{}) to=({},{}) speed={}", 
+        log.debug(HOT_PATH, "vehicle_moved vehicleId={} from=({},{}) to=({},{}) speed={}", 
             vehicle.getId(), currentX, currentY, newX, newY, speed);
     }
 
@@ -38,30 +42,23 @@ public class VehicleMovementService {
         double currentX = vehicle.getX();
         double currentY = vehicle.getY();
         
-        if (hasReachedTarget(currentX, currentY, target)) {
+        double targetX = target.getX();
+        double targetY = target.getY();
+        if (hasReachedTarget(currentX, currentY, targetX, targetY)) {
             return new Point2D(currentX, currentY);
         }
 
-        Point2D direction = calculateMovementDirection(currentX, currentY, target);
+        double distance = GeometryUtils.distance(currentX, currentY, targetX, targetY);
         double speed = determineSpeed(vehicle.getType(), false);
         
         return new Point2D(
-            currentX + direction.getX() * speed,
-            currentY + direction.getY() * speed
+            currentX + (targetX - currentX) / distance * speed,
+            currentY + (targetY - currentY) / distance * speed
         );
     }
 
-    private boolean hasReachedTarget(double currentX, double currentY, Point2D target) {
-        double distance = Math.sqrt(
-            Math.pow(target.getX() - currentX, 2) + 
-            Math.pow(target.getY() - currentY, 2)
-        );
-        return distance < TARGET_REACHED_THRESHOLD;
-    }
-
-    private Point2D calculateMovementDirection(double currentX, double currentY, Point2D target) {
-        double angle = Math.atan2(target.getY() - currentY, target.getX() - currentX);
-        return new Point2D(Math.cos(angle), Math.sin(angle));
+    private boolean hasReachedTarget(double currentX, double currentY, double targetX, double targetY) {
+        return GeometryUtils.isWithin(currentX, currentY, targetX, targetY, TARGET_REACHED_THRESHOLD);
     }
 
     private double determineSpeed(VehicleType type, boolean isEmergency) {
@@ -72,14 +69,11 @@ public class VehicleMovementService {
     }
 
     public double calculateDistanceToTarget(Vehicle vehicle, Point2D target) {
-        return Math.sqrt(
-            Math.pow(target.getX() - vehicle.getX(), 2) + 
-            Math.pow(target.getY() - vehicle.getY(), 2)
-        );
+        return GeometryUtils.distance(vehicle.getX(), vehicle.getY(), target.getX(), target.getY());
     }
 
     public boolean isVehicleAtPosition(Vehicle vehicle, Point2D position, double tolerance) {
-        return calculateDistanceToTarget(vehicle, position) <= tolerance;
+        return vehicle.distanceSquaredTo(position.getX(), position.getY()) <= tolerance * tolerance;
     }
 
     public Point2D getCurrentPosition(Vehicle vehicle) {
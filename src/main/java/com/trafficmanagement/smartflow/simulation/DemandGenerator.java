@@ -0,0 +1,260 @@
+package com.trafficmanagement.smartflow.simulation;
+
+import static com.trafficmanagement.smartflow.utils.DemandConstants.*;
+import static com.trafficmanagement.smartflow.utils.SimulationConstants.TICK_DURATION_MS;
+
+import com.trafficmanagement.smartflow.data.enums.Locations;
+import com.trafficmanagement.smartflow.data.enums.VehicleType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Draws the arrivals of a {@link TrafficDemand} one engine tick at a time: a Poisson count for the
+ * tick's rate, then one cell of the origin-destination matrix per arrival from an alias table, so
+ * each arrival costs the same however large the matrix is. Arrivals wait in one queue per entry,
+ * an (origin, lane) pair, until the engine finds room to insert them; the queue is what a detector
+ * upstream of the drawn area would see backing up.
+ *
+ * <p>A queued arrival is its matrix cell and tick, two primitives; its {@link SpawnEvent} is built
+ * only when it is inserted. An entry holds at most {@code DEMAND_MAX_QUEUED_PER_ENTRY} arrivals and
+ * counts the rest as dropped, so demand far above what the lanes take runs in bounded memory.
+ *
+ * <p>Only the engine thread calls it once it has been added to an engine.
+ */
+@Slf4j
+public class DemandGenerator {
+  private static final int EMERGENCY_BIT = 1;
+
+  @Getter private final TrafficDemand demand;
+  @Getter private final long seed;
+  @Getter private final long firstTick;
+  @Getter private final long endTick;
+  private final Random random;
+  private final double[] aliasProbability;
+  private final int[] alias;
+  // Per matrix cell: the event template for each vehicle type and the entry it queues at.
+  private final SpawnEvent[] normalEvents;
+  private final SpawnEvent[] emergencyEvents;
+  private final int[] cellEntry;
+  private final List<EntryQueue> entryQueues = new ArrayList<>();
+  @Getter private long arrivals;
+  @Getter private long inserted;
+  @Getter private long dropped;
+
+  DemandGenerator(TrafficDemand demand, long seed, long firstTick, long ticks) {
+    this.demand = demand;
+    this.seed = seed;
+    this.firstTick = firstTick;
+    this.endTick = firstTick + ticks;
+    this.random = new Random(seed);
+
+    List<TrafficDemand.OriginDestination> cells = demand.getOriginDestinations();
+    int count = cells.size();
+    normalEvents = new SpawnEvent[count];
+    emergencyEvents = new SpawnEvent[count];
+    cellEntry = new int[count];
+    List<Integer> entryKeys = new ArrayList<>();
+    double[] weights = new double[count];
+    for (int ind = 0; ind < count; ind++) {
+      TrafficDemand.OriginDestination cell = cells.get(ind);
+      normalEvents[ind] = eventFor(cell, VehicleType.NORMAL);
+      emergencyEvents[ind] = eventFor(cell, VehicleType.EMERGENCY);
+      int key = entryKey(cell.origin(), cell.lane());
+      int entry = entryKeys.indexOf(key);
+      if (entry < 0) {
+        entry = entryKeys.size();
+        entryKeys.add(key);
+        entryQueues.add(new EntryQueue());
+      }
+      cellEntry[ind] = entry;
+      weights[ind] = cell.weight();
+    }
+    aliasProbability = new double[count];
+    alias = new int[count];
+    buildAliasTable(weights);
+  }
+
+  private static SpawnEvent eventFor(TrafficDemand.OriginDestination cell, VehicleType type) {
+    return new SpawnEvent(
+        0, type, cell.origin(), cell.lane(), cell.movement(), cell.intersectionId());
+  }
+
+  private static int entryKey(Locations origin, Locations lane) {
+    int locations = Locations.values().length;
+    return origin.ordinal() * (locations + 1) + (lane == null ? locations : lane.ordinal());
+  }
+
+  /** Vose's alias method: every column holds at most two cells whose shares add up to one. */
+  private void buildAliasTable(double[] weights) {
+    int count = weights.length;
+    double total = 0;
+    for (double weight : weights) total += weight;
+    double[] scaled = new double[count];
+    int[] small = new int[count];
+    int[] large = new int[count];
+    int smallSize = 0;
+    int largeSize = 0;
+    for (int ind = 0; ind < count; ind++) {
+      scaled[ind] = weights[ind] * count / total;
+      if (scaled[ind] < 1) small[smallSize++] = ind;
+      else large[largeSize++] = ind;
+    }
+    while (smallSize > 0 && largeSize > 0) {
+      int less = small[--smallSize];
+      int more = large[--largeSize];
+      aliasProbability[less] = scaled[less];
+      alias[less] = more;
+      scaled[more] += scaled[less] - 1;
+      if (scaled[more] < 1) small[smallSize++] = more;
+      else large[largeSize++] = more;
+    }
+    while (largeSize > 0) aliasProbability[large[--largeSize]] = 1;
+    while (smallSize > 0) aliasProbability[small[--smallSize]] = 1;
+  }
+
+  /**
+   * Draws the arrivals of {@code tick} into the entry queues. Returns how many there were, dropped
+   * ones included.
+   */
+  public int generateArrivals(long tick) {
+    if (tick < firstTick || tick >= endTick) return 0;
+    double mean =
+        demand.vehiclesPerMinuteAt((tick - firstTick) * TICK_DURATION_MS)
+            * TICK_DURATION_MS
+            / MILLIS_PER_MINUTE;
+    int count = poisson(mean);
+    double emergencyShare = demand.getEmergencyShare();
+    for (int ind = 0; ind < count; ind++) {
+      int column = random.nextInt(alias.length);
+      int cell = random.nextDouble() < aliasProbability[column] ? column : alias[column];
+      int arrival = cell << 1 | (random.nextDouble() < emergencyShare ? EMERGENCY_BIT : 0);
+      if (!entryQueues.get(cellEntry[cell]).offer(arrival, tick)) dropArrival(cell);
+    }
+    arrivals += count;
+    return count;
+  }
+
+  private void dropArrival(int cell) {
+    if (dropped++ == 0)
+      log.warn(
+          "demand_backlog_full source={} origin={} lane={} maxQueued={}",
+          demand.getSource(),
+          normalEvents[cell].origin(),
+          normalEvents[cell].lane(),
+          DEMAND_MAX_QUEUED_PER_ENTRY);
+  }
+
+  private int poisson(double mean) {
+    int count = 0;
+    for (; mean > POISSON_MAX_DIRECT_MEAN; mean -= POISSON_MAX_DIRECT_MEAN)
+      count += poissonDirect(POISSON_MAX_DIRECT_MEAN);
+    return count + poissonDirect(mean);
+  }
+
+  /** Knuth's product of uniforms; fine for the handful of arrivals a tick brings. */
+  private int poissonDirect(double mean) {
+    double limit = Math.exp(-mean);
+    double product = random.nextDouble();
+    int count = 0;
+    while (product > limit) {
+      count++;
+      product *= random.nextDouble();
+    }
+    return count;
+  }
+
+  public int getEntryCount() {
+    return entryQueues.size();
+  }
+
+  /**
+   * Where the vehicle waiting longest at {@code entry} goes, or {@code null}. The event is a shared
+   * template whose tick is not the arrival's; {@link #insert} builds the one to spawn.
+   */
+  public SpawnEvent peek(int entry) {
+    EntryQueue queue = entryQueues.get(entry);
+    return queue.isEmpty() ? null : templateOf(queue.headArrival());
+  }
+
+  /** Takes the vehicle waiting longest at {@code entry} out of its queue to be spawned. */
+  public SpawnEvent insert(int entry) {
+    EntryQueue queue = entryQueues.get(entry);
+    if (queue.isEmpty()) return null;
+    SpawnEvent event = templateOf(queue.headArrival()).atTick(queue.headTick());
+    queue.remove();
+    inserted++;
+    return event;
+  }
+
+  private SpawnEvent templateOf(int arrival) {
+    SpawnEvent[] events = (arrival & EMERGENCY_BIT) != 0 ? emergencyEvents : normalEvents;
+    return events[arrival >>> 1];
+  }
+
+  public long getBacklog() {
+    return arrivals - inserted - dropped;
+  }
+
+  /** True once {@code tick} is past the demand and every arrival has been inserted or dropped. */
+  public boolean isFinished(long tick) {
+    return tick >= endTick - 1 && getBacklog() == 0;
+  }
+
+  /**
+   * The arrivals waiting at one entry, oldest first: a ring of parallel primitive arrays that
+   * doubles up to {@code DEMAND_MAX_QUEUED_PER_ENTRY}. An arrival is its cell shifted left by one,
+   * with {@code EMERGENCY_BIT} set for an emergency vehicle.
+   */
+  private static final class EntryQueue {
+    private int[] arrivals = new int[DEMAND_INITIAL_QUEUED_PER_ENTRY];
+    private long[] ticks = new long[DEMAND_INITIAL_QUEUED_PER_ENTRY];
+    private int head;
+    private int size;
+
+    /** Queues nothing and returns false if the entry is full. */
+    boolean offer(int arrival, long tick) {
+      if (size == arrivals.length) {
+        if (size >= DEMAND_MAX_QUEUED_PER_ENTRY) return false;
+        grow();
+      }
+      int tail = (head + size) & (arrivals.length - 1);
+      arrivals[tail] = arrival;
+      ticks[tail] = tick;
+      size++;
+      return true;
+    }
+
+    boolean isEmpty() {
+      return size == 0;
+    }
+
+    int headArrival() {
+      return arrivals[head];
+    }
+
+    long headTick() {
+      return ticks[head];
+    }
+
+    void remove() {
+      head = (head + 1) & (arrivals.length - 1);
+      size--;
+    }
+
+    private void grow() {
+      int[] grownArrivals = new int[arrivals.length * 2];
+      long[] grownTicks = new long[ticks.length * 2];
+      for (int ind = 0; ind < size; ind++) {
+        int from = (head + ind) & (arrivals.length - 1);
+        grownArrivals[ind] = arrivals[from];
+        grownTicks[ind] = ticks[from];
+      }
+      arrivals = grownArrivals;
+      ticks = grownTicks;
+      head = 0;
+    }
+  }
+}
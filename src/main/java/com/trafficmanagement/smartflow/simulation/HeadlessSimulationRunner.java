@@ -0,0 +1,88 @@
+package com.trafficmanagement.smartflow.simulation;
+
+import static com.trafficmanagement.smartflow.utils.DemandConstants.*;
+import static com.trafficmanagement.smartflow.utils.SimulationConstants.*;
+
+import com.trafficmanagement.smartflow.data.enums.SimulationType;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs a motorway simulation without starting the JavaFX toolkit.
+ *
+ * <p>Arguments: {@code [vehicles] [ticks] [width] [height] [seed]}. The spawn mix comes from
+ * {@link SpawnSchedule#random}, so the same seed always spawns the same vehicles at the same ticks;
+ * use {@link SimulationReplay} when the whole run has to be reproducible.
+ *
+ * <p>With {@code -Dsmartflow.demand=<file>} or {@code -Dsmartflow.demandRate=<vehicles per
+ * minute>} the vehicles come from a {@link TrafficDemand} running for all {@code ticks} instead,
+ * and {@code vehicles} is ignored.
+ */
+@Slf4j
+public class HeadlessSimulationRunner {
+
+  private HeadlessSimulationRunner() {}
+
+  public static void main(String[] args) {
+    int vehicles = args.length > 0 ? Integer.parseInt(args[0]) : HEADLESS_DEFAULT_VEHICLES;
+    long ticks = args.length > 1 ? Long.parseLong(args[1]) : HEADLESS_DEFAULT_TICKS;
+    double width = args.length > 2 ? Double.parseDouble(args[2]) : HEADLESS_DEFAULT_WIDTH;
+    double height = args.length > 3 ? Double.parseDouble(args[3]) : HEADLESS_DEFAULT_HEIGHT;
+    long seed =
+        args.length > 4
+            ? Long.parseLong(args[4])
+            : Long.getLong(SEED_PROPERTY, HEADLESS_DEFAULT_SEED);
+
+    SimulationEngine engine = new SimulationEngine(SimulationType.MOTORWAY);
+    engine.resize(width, height);
+    DemandGenerator demand = null;
+    if (System.getProperty(DEMAND_PROPERTY) != null
+        || System.getProperty(DEMAND_RATE_PROPERTY) != null) {
+      demand =
+          engine.addDemand(
+              TrafficDemand.fromSystemProperty(SimulationType.MOTORWAY, engine.getRoadNetwork()),
+              seed,
+              0,
+              ticks);
+    } else {
+      engine.scheduleSpawns(
+          SpawnSchedule.random(
+              SimulationType.MOTORWAY,
+              seed,
+              width,
+              height,
+              vehicles,
+              0,
+              Math.max(1, ticks / 2),
+              engine.getRoadNetwork()));
+    }
+
+    long startNanos = System.nanoTime();
+    engine.runTicks(ticks);
+    long elapsedMillis = (System.nanoTime() - startNanos) / NANOS_PER_MILLI;
+
+    log.info(
+        "headless_run_completed seed={} vehiclesSpawned={} vehiclesRemaining={} ticks={} simulatedMillis={} elapsedMillis={} ticksPerSecond={}",
+        seed,
+        engine.getSpawnHistory().events().size(),
+        engine.getVehicleCount(),
+        engine.getTickCount(),
+        engine.getSimulatedTimeMillis(),
+        elapsedMillis,
+        elapsedMillis == 0 ? ticks : ticks * 1000 / elapsedMillis);
+    if (demand != null) {
+      double simulatedMinutes = (double) engine.getSimulatedTimeMillis() / MILLIS_PER_MINUTE;
+      log.info(
+          "headless_demand_completed source={} arrivals={} inserted={} backlog={} dropped={} vehiclesFinished={} arrivalsPerMinute={} insertedPerMinute={}",
+          demand.getDemand().getSource(),
+          demand.getArrivals(),
+          demand.getInserted(),
+          demand.getBacklog(),
+          demand.getDropped(),
+          engine.getFinishedVehicleCount(),
+          Math.round(demand.getArrivals() / simulatedMinutes),
+          Math.round(demand.getInserted() / simulatedMinutes));
+    }
+    log.info("headless_run_metrics {}", engine.getMetrics().snapshot());
+    engine.shutdown();
+  }
+}
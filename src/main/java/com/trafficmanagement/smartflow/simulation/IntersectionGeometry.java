@@ -0,0 +1,175 @@
+package com.trafficmanagement.smartflow.simulation;
+
+import static com.trafficmanagement.smartflow.utils.IntersectionConstants.*;
+
+import com.trafficmanagement.smartflow.data.enums.Locations;
+import com.trafficmanagement.smartflow.data.enums.VehicleMovement;
+import com.trafficmanagement.smartflow.data.model.VehiclePath;
+import java.util.List;
+import javafx.geometry.Point2D;
+
+/**
+ * Lane paths of the 4-way intersection, computed from the simulated area size only. Each (origin,
+ * movement) path is built once per size and shared by every vehicle taking it.
+ */
+public class IntersectionGeometry {
+  private static final int MOVEMENTS = VehicleMovement.values().length;
+  private static final int ROUTE_KEYS = Locations.values().length * MOVEMENTS;
+
+  private record Area(double width, double height, RouteTable routes) {}
+
+  private volatile Area area = new Area(0, 0, new RouteTable(ROUTE_KEYS));
+
+  public void resize(double width, double height) {
+    Area current = area;
+    if (current.width() == width && current.height() == height) return;
+    area = new Area(width, height, new RouteTable(ROUTE_KEYS));
+  }
+
+  public VehiclePath routeFor(Locations origin, VehicleMovement movement) {
+    Area current = area;
+    int key = origin.ordinal() * MOVEMENTS + movement.ordinal();
+    VehiclePath route = current.routes().get(key);
+    if (route != null) return route;
+    List<Point2D> points = buildPath(current.width(), current.height(), origin, movement);
+    return current.routes().publish(key, VehiclePath.of(points));
+  }
+
+  private static List<Point2D> buildPath(
+      double width, double height, Locations origin, VehicleMovement movement) {
+    if (width == 0 || height == 0) return List.of();
+
+    double streetW = Math.min(width, height) / STREET_WIDTH_DIVISOR;
+    final double STOP_GAP = STOP_LINE_GAP;
+    double N_IN_X = width / 2 - streetW / 4;
+    double N_OUT_X = width / 2 + streetW / 4;
+    double S_IN_X = width / 2 + streetW / 4;
+    double S_OUT_X = width / 2 - streetW / 4;
+    double E_IN_Y = height / 2 - streetW / 4;
+    double E_OUT_Y = height / 2 + streetW / 4;
+    double W_IN_Y = height / 2 + streetW / 4;
+    double W_OUT_Y = height / 2 - streetW / 4;
+
+    Point2D stopN = new Point2D(N_IN_X, height / 2 - streetW / 2 - STOP_GAP);
+    Point2D stopS = new Point2D(S_IN_X, height / 2 + streetW / 2 + STOP_GAP);
+    Point2D stopE = new Point2D(width / 2 + streetW / 2 + STOP_GAP, E_IN_Y);
+    Point2D stopW = new Point2D(width / 2 - streetW / 2 - STOP_GAP, W_IN_Y);
+
+    Point2D exitN = new Point2D(N_OUT_X, -ENTRY_EXIT_OFFSET);
+    Point2D exitS = new Point2D(S_OUT_X, height + ENTRY_EXIT_OFFSET);
+    Point2D exitE = new Point2D(width + ENTRY_EXIT_OFFSET, E_OUT_Y);
+    Point2D exitW = new Point2D(-ENTRY_EXIT_OFFSET, W_OUT_Y);
+    if (movement.equals(VehicleMovement.U_TURN)) {
+      switch (origin) {
+        case NORTH:
+          return List.of(
+              new Point2D(N_IN_X, -ENTRY_EXIT_OFFSET),
+              stopN,
+              new Point2D(N_OUT_X, stopN.getY() + STOP_GAP),
+              exitN);
+        case SOUTH:
+          return List.of(
+              new Point2D(S_IN_X, height + ENTRY_EXIT_OFFSET),
+              stopS,
+              new Point2D(S_OUT_X, stopS.getY() - STOP_GAP),
+              exitS);
+        case EAST:
+          return List.of(
+              new Point2D(width + ENTRY_EXIT_OFFSET, E_IN_Y),
+              stopE,
+              new Point2D(stopE.getX() - STOP_GAP, E_OUT_Y),
+              exitE);
+        case WEST:
+          return List.of(
+              new Point2D(-ENTRY_EXIT_OFFSET, W_IN_Y),
+              stopW,
+              new Point2D(stopW.getX() + STOP_GAP, W_OUT_Y),
+              exitW);
+        default:
+          break;
+      }
+    }
+
+    switch (origin) {
+      case NORTH:
+        Point2D startN = new Point2D(N_IN_X, -ENTRY_EXIT_OFFSET);
+        Point2D enterN = new Point2D(N_IN_X, stopN.getY() + STOP_GAP);
+        switch (movement) {
+          case STRAIGHT:
+            return List.of(startN, stopN, new Point2D(N_IN_X, stopS.getY()), exitS);
+          case TURN_RIGHT:
+            return List.of(startN, stopN, enterN, new Point2D(stopW.getX(), W_OUT_Y), exitW);
+          case TURN_LEFT:
+            return List.of(
+                startN,
+                stopN,
+                new Point2D(N_IN_X, E_OUT_Y),
+                new Point2D(stopE.getX(), E_OUT_Y),
+                exitE);
+          default:
+            break;
+        }
+        break;
+      case SOUTH:
+        Point2D startS = new Point2D(S_IN_X, height + ENTRY_EXIT_OFFSET);
+        Point2D enterS = new Point2D(S_IN_X, stopS.getY() - STOP_GAP);
+        switch (movement) {
+          case STRAIGHT:
+            return List.of(startS, stopS, new Point2D(S_IN_X, stopN.getY()), exitN);
+          case TURN_RIGHT:
+            return List.of(startS, stopS, enterS, new Point2D(stopE.getX(), E_OUT_Y), exitE);
+          case TURN_LEFT:
+            return List.of(
+                startS,
+                stopS,
+                new Point2D(S_IN_X, W_OUT_Y),
+                new Point2D(stopW.getX(), W_OUT_Y),
+                exitW);
+          default:
+            break;
+        }
+        break;
+      case EAST:
+        Point2D startE = new Point2D(width + ENTRY_EXIT_OFFSET, E_IN_Y);
+        Point2D enterE = new Point2D(stopE.getX() - STOP_GAP, E_IN_Y);
+        switch (movement) {
+          case STRAIGHT:
+            return List.of(startE, stopE, new Point2D(stopW.getX(), E_IN_Y), exitW);
+          case TURN_RIGHT:
+            return List.of(
+                startE,
+                stopE,
+                new Point2D(N_OUT_X, E_IN_Y),
+                new Point2D(N_OUT_X, stopN.getY()),
+                exitN);
+          case TURN_LEFT:
+            return List.of(startE, stopE, enterE, new Point2D(S_OUT_X, stopS.getY()), exitS);
+          default:
+            break;
+        }
+        break;
+      case WEST:
+        Point2D startW = new Point2D(-ENTRY_EXIT_OFFSET, W_IN_Y);
+        Point2D enterW = new Point2D(stopW.getX() + STOP_GAP, W_IN_Y);
+        switch (movement) {
+          case STRAIGHT:
+            return List.of(startW, stopW, new Point2D(stopE.getX(), W_IN_Y), exitE);
+          case TURN_RIGHT:
+            return List.of(
+                startW,
+                stopW,
+                new Point2D(S_OUT_X, W_IN_Y),
+                new Point2D(S_OUT_X, stopS.getY()),
+                exitS);
+          case TURN_LEFT:
+            return List.of(startW, stopW, enterW, new Point2D(N_OUT_X, stopN.getY()), exitN);
+          default:
+            break;
+        }
+        break;
+      default:
+        break;
+    }
+    return List.of(new Point2D(0, 0));
+  }
+}
@@ -0,0 +1,262 @@
+package com.trafficmanagement.smartflow.simulation;
+
+import com.trafficmanagement.smartflow.data.enums.Locations;
+import com.trafficmanagement.smartflow.data.enums.VehicleType;
+import com.trafficmanagement.smartflow.data.model.Vehicle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Vehicles partitioned by (origin, lane) and sorted by how far they have travelled along their
+ * direction of travel: x for vehicles coming from the west or east, y for north or south. The
+ * engine refreshes it once per tick before the vehicle phase, so every query during that phase
+ * sees the same start-of-tick positions and can binary search instead of scanning every vehicle.
+ * Vehicles at the same position are ordered by id, the older vehicle counting as ahead, which is
+ * what the old sequential scan saw after the older vehicle had already moved in that tick.
+ *
+ * <p>Not thread-safe for writes: {@link #add(Vehicle)}, {@link #refresh()} and {@link #clear()}
+ * are only called from the engine thread. Queries are safe from the vehicle workers while no
+ * refresh is running.
+ */
+public class LaneIndex {
+  private static final int LOCATION_COUNT = Locations.values().length;
+  private static final int NO_LANE = LOCATION_COUNT;
+
+  private final Lane[] lanes = new Lane[LOCATION_COUNT * (LOCATION_COUNT + 1)];
+
+  public void add(Vehicle vehicle) {
+    int key = keyOf(vehicle.getOrigin(), vehicle.getLane());
+    Lane lane = lanes[key];
+    if (lane == null) {
+      lane = new Lane(vehicle.getOrigin());
+      lanes[key] = lane;
+    }
+    lane.add(vehicle);
+  }
+
+  public void refresh() {
+    for (Lane lane : lanes) if (lane != null) lane.refresh();
+  }
+
+  public void clear() {
+    Arrays.fill(lanes, null);
+  }
+
+  public Vehicle findLeadingVehicle(Vehicle follower) {
+    Lane lane = laneOf(follower);
+    if (lane == null) return null;
+    int ind = lane.indexAfter(lane.progress, lane.ids, lane.size, follower);
+    return ind < lane.size ? lane.vehicles[ind] : null;
+  }
+
+  /**
+   * The leader of {@code follower} if, at their start-of-tick positions, it is closer than {@code
+   * maxDistance}, or {@code null}. Unlike reading the leader's live position this does not depend
+   * on whether the leader has already been ticked, so the answer is the same in any tick order.
+   */
+  public Vehicle findLeaderWithin(Vehicle follower, double maxDistance) {
+    Lane lane = laneOf(follower);
+    if (lane == null) return null;
+    int ind = lane.indexAfter(lane.progress, lane.ids, lane.size, follower);
+    if (ind >= lane.size) return null;
+    double along = lane.progress[ind] - lane.progressOf(follower);
+    double across = lane.lateral[ind] - lane.lateralOf(follower);
+    return along * along + across * across < maxDistance * maxDistance ? lane.vehicles[ind] : null;
+  }
+
+  /**
+   * Nearest emergency vehicle strictly behind {@code leader} in the same lane whose straight-line
+   * distance to it is below {@code maxDistance}, or {@code null}.
+   */
+  public Vehicle findEmergencyFollower(Vehicle leader, double maxDistance) {
+    Lane lane = laneOf(leader);
+    if (lane == null || lane.emergencySize == 0) return null;
+    double leaderProgress = lane.progressOf(leader);
+    double leaderLateral = lane.lateralOf(leader);
+    double maxDistanceSquared = maxDistance * maxDistance;
+
+    int ind =
+        lane.indexAfter(lane.emergencyProgress, lane.emergencyIds, lane.emergencySize, leader) - 1;
+    if (ind >= 0 && lane.emergencyIds[ind] == leader.getId()) ind--;
+    for (; ind >= 0; ind--) {
+      double along = leaderProgress - lane.emergencyProgress[ind];
+      if (along >= maxDistance) break;
+      double across = leaderLateral - lane.emergencyLateral[ind];
+      if (along * along + across * across < maxDistanceSquared) return lane.emergencyVehicles[ind];
+    }
+    return null;
+  }
+
+  /** Vehicles of one lane whose coordinate along the lane axis lies in {@code [from, to]}. */
+  public List<Vehicle> findInRange(Locations origin, Locations laneId, double from, double to) {
+    Lane lane = lanes[keyOf(origin, laneId)];
+    if (lane == null) return List.of();
+    double lower = Math.min(lane.travelSign * from, lane.travelSign * to);
+    double upper = Math.max(lane.travelSign * from, lane.travelSign * to);
+    int start = lane.lowerBound(lane.progress, lane.size, lower);
+    int end = lane.upperBound(lane.progress, lane.size, upper);
+    List<Vehicle> result = new ArrayList<>(Math.max(0, end - start));
+    for (int ind = start; ind < end; ind++) result.add(lane.vehicles[ind]);
+    return result;
+  }
+
+  /** How many vehicles {@link #findInRange} would return, without building the list. */
+  public int countInRange(Locations origin, Locations laneId, double from, double to) {
+    Lane lane = lanes[keyOf(origin, laneId)];
+    if (lane == null) return 0;
+    double lower = Math.min(lane.travelSign * from, lane.travelSign * to);
+    double upper = Math.max(lane.travelSign * from, lane.travelSign * to);
+    return lane.upperBound(lane.progress, lane.size, upper)
+        - lane.lowerBound(lane.progress, lane.size, lower);
+  }
+
+  public int size(Locations origin, Locations laneId) {
+    Lane lane = lanes[keyOf(origin, laneId)];
+    return lane == null ? 0 : lane.size;
+  }
+
+  private Lane laneOf(Vehicle vehicle) {
+    return lanes[keyOf(vehicle.getOrigin(), vehicle.getLane())];
+  }
+
+  private static int keyOf(Locations origin, Locations lane) {
+    return origin.ordinal() * (LOCATION_COUNT + 1) + (lane == null ? NO_LANE : lane.ordinal());
+  }
+
+  private static final class Lane {
+    private final int travelSign;
+    private final boolean horizontal;
+    private Vehicle[] vehicles = new Vehicle[16];
+    private double[] progress = new double[16];
+    private double[] lateral = new double[16];
+    private int[] ids = new int[16];
+    private int size = 0;
+    private Vehicle[] emergencyVehicles = new Vehicle[4];
+    private double[] emergencyProgress = new double[4];
+    private int[] emergencyIds = new int[4];
+    private double[] emergencyLateral = new double[4];
+    private int emergencySize = 0;
+
+    private Lane(Locations origin) {
+      this.travelSign = origin == Locations.EAST || origin == Locations.SOUTH ? -1 : 1;
+      this.horizontal = origin == Locations.WEST || origin == Locations.EAST;
+    }
+
+    private double progressOf(Vehicle vehicle) {
+      return travelSign * (horizontal ? vehicle.getX() : vehicle.getY());
+    }
+
+    private double lateralOf(Vehicle vehicle) {
+      return horizontal ? vehicle.getY() : vehicle.getX();
+    }
+
+    private void add(Vehicle vehicle) {
+      if (size == vehicles.length) {
+        vehicles = Arrays.copyOf(vehicles, size * 2);
+        progress = Arrays.copyOf(progress, size * 2);
+        lateral = Arrays.copyOf(lateral, size * 2);
+        ids = Arrays.copyOf(ids, size * 2);
+      }
+      vehicles[size++] = vehicle;
+    }
+
+    /**
+     * Drops finished vehicles, re-reads positions and restores the order with an insertion sort.
+     * Vehicles rarely overtake each other between two ticks, so the array is almost sorted and
+     * this stays close to linear.
+     */
+    private void refresh() {
+      int kept = 0;
+      for (int ind = 0; ind < size; ind++) {
+        Vehicle vehicle = vehicles[ind];
+        if (vehicle.isFinished()) continue;
+        vehicles[kept] = vehicle;
+        progress[kept] = progressOf(vehicle);
+        lateral[kept] = lateralOf(vehicle);
+        ids[kept] = vehicle.getId();
+        kept++;
+      }
+      Arrays.fill(vehicles, kept, size, null);
+      size = kept;
+
+      for (int ind = 1; ind < size; ind++) {
+        Vehicle vehicle = vehicles[ind];
+        double value = progress[ind];
+        double across = lateral[ind];
+        int id = ids[ind];
+        int pos = ind - 1;
+        while (pos >= 0 && isAhead(progress[pos], ids[pos], value, id)) {
+          vehicles[pos + 1] = vehicles[pos];
+          progress[pos + 1] = progress[pos];
+          lateral[pos + 1] = lateral[pos];
+          ids[pos + 1] = ids[pos];
+          pos--;
+        }
+        vehicles[pos + 1] = vehicle;
+        progress[pos + 1] = value;
+        lateral[pos + 1] = across;
+        ids[pos + 1] = id;
+      }
+
+      Arrays.fill(emergencyVehicles, 0, emergencySize, null);
+      emergencySize = 0;
+      for (int ind = 0; ind < size; ind++) {
+        if (vehicles[ind].getType() != VehicleType.EMERGENCY) continue;
+        if (emergencySize == emergencyVehicles.length) {
+          emergencyVehicles = Arrays.copyOf(emergencyVehicles, emergencySize * 2);
+          emergencyProgress = Arrays.copyOf(emergencyProgress, emergencySize * 2);
+          emergencyIds = Arrays.copyOf(emergencyIds, emergencySize * 2);
+          emergencyLateral = Arrays.copyOf(emergencyLateral, emergencySize * 2);
+        }
+        emergencyVehicles[emergencySize] = vehicles[ind];
+        emergencyProgress[emergencySize] = progress[ind];
+        emergencyIds[emergencySize] = ids[ind];
+        emergencyLateral[emergencySize] = lateral[ind];
+        emergencySize++;
+      }
+    }
+
+    private static boolean isAhead(double progress, int id, double otherProgress, int otherId) {
+      return progress > otherProgress || (progress == otherProgress && id < otherId);
+    }
+
+    /** First index whose entry is ahead of {@code vehicle}. */
+    private int indexAfter(double[] values, int[] valueIds, int length, Vehicle vehicle) {
+      double key = progressOf(vehicle);
+      int id = vehicle.getId();
+      int low = 0;
+      int high = length;
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        if (isAhead(values[mid], valueIds[mid], key, id)) high = mid;
+        else low = mid + 1;
+      }
+      return low;
+    }
+
+    /** First index whose value is {@code >= key}. */
+    private int lowerBound(double[] values, int length, double key) {
+      int low = 0;
+      int high = length;
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        if (values[mid] < key) low = mid + 1;
+        else high = mid;
+      }
+      return low;
+    }
+
+    /** First index whose value is {@code > key}. */
+    private int upperBound(double[] values, int length, double key) {
+      int low = 0;
+      int high = length;
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        if (values[mid] <= key) low = mid + 1;
+        else high = mid;
+      }
+      return low;
+    }
+  }
+}
@@ -0,0 +1,239 @@
+package com.trafficmanagement.smartflow.simulation;
+
+import static com.trafficmanagement.smartflow.utils.MotorwayConstants.*;
+import static com.trafficmanagement.smartflow.utils.VehicleConstants.NO_INTERSECTION;
+
+import com.trafficmanagement.smartflow.data.enums.Locations;
+import com.trafficmanagement.smartflow.data.enums.VehicleMovement;
+import com.trafficmanagement.smartflow.data.model.MotorwayIntersection;
+import com.trafficmanagement.smartflow.data.model.VehiclePath;
+import com.trafficmanagement.smartflow.network.RoadNetwork;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javafx.geometry.Point2D;
+
+/**
+ * Motorway layout math that used to live in {@code MotorwayViewController}. It only depends on the
+ * road network and the simulated area size, so it works the same with or without a JavaFX stage.
+ */
+public class MotorwayGeometry {
+  private static final int MOTORWAY_LANES = 3;
+  private static final int MOVEMENTS = VehicleMovement.values().length;
+
+  private final RoadNetwork network;
+  private volatile MotorwayLayout layout;
+
+  public MotorwayGeometry() {
+    this(RoadNetwork.fromSystemProperty());
+  }
+
+  public MotorwayGeometry(RoadNetwork network) {
+    this.network = network;
+    this.layout = MotorwayLayout.of(network, 0, 0);
+  }
+
+  static int routeKeys(RoadNetwork network) {
+    return 2 * MOTORWAY_LANES * MOVEMENTS * (network.getMaxIntersectionId() + 1);
+  }
+
+  /** Publishes a new layout; readers see either the old size or the new one, never a mix. */
+  public void resize(double width, double height) {
+    MotorwayLayout current = layout;
+    if (current.getWidth() == width && current.getHeight() == height) return;
+    layout = MotorwayLayout.of(network, width, height);
+  }
+
+  public RoadNetwork getNetwork() {
+    return network;
+  }
+
+  public MotorwayLayout getLayout() {
+    return layout;
+  }
+
+  public double getWidth() {
+    return layout.getWidth();
+  }
+
+  public double getHeight() {
+    return layout.getHeight();
+  }
+
+  public double getMotorwayY() {
+    return layout.getMotorwayY();
+  }
+
+  public double getIntersectionCenterX(int intersectionId) {
+    return layout.getIntersectionCenterX(intersectionId);
+  }
+
+  public double getIntersectionCenterX(int intersectionId, double totalMotorwayWidth) {
+    return network.getIntersectionX(intersectionId, totalMotorwayWidth);
+  }
+
+  public int getIntersectionIdAt(double x) {
+    return layout.getIntersectionIdAt(x);
+  }
+
+  /** The signal traffic from {@code origin} meets at {@code intersectionId}, or 0 if none. */
+  public int getLightIdForIntersection(int intersectionId, Locations origin) {
+    return network.getSignalInto(origin, intersectionId);
+  }
+
+  public Point2D getStopLineForLight(int lightId, Locations origin, Locations lane) {
+    MotorwayLayout current = layout;
+    return new Point2D(current.getStopLineX(lightId, origin), current.getLaneY(origin, lane));
+  }
+
+  public double getStopLineX(int lightId, Locations origin) {
+    return layout.getStopLineX(lightId, origin);
+  }
+
+  public double getLaneY(Locations origin, Locations lane) {
+    return layout.getLaneY(origin, lane);
+  }
+
+  /**
+   * The path of a vehicle entering the motorway at {@code origin}, together with the lights it
+   * meets. Routes only depend on the layout, so each one is built once per size and shared by every
+   * vehicle taking it. Empty while the area has no size, or for a turn without a target.
+   */
+  public VehiclePath routeFor(
+      Locations origin,
+      Locations lane,
+      VehicleMovement movement,
+      MotorwayIntersection targetIntersection) {
+    int targetIntersectionId =
+        targetIntersection != null && network.hasIntersection(targetIntersection.getId())
+            ? targetIntersection.getId()
+            : NO_INTERSECTION;
+    MotorwayLayout current = layout;
+    int key = routeKey(origin, lane, movement, targetIntersectionId);
+    VehiclePath route = current.getRoutes().get(key);
+    if (route != null) return route;
+
+    List<Point2D> points = buildPath(current, origin, lane, movement, targetIntersectionId);
+    int[] lightIds =
+        points.isEmpty()
+            ? new int[0]
+            : trafficLightsFor(
+                current, origin, movement, targetIntersectionId, points.getFirst().getX());
+    return current.getRoutes().publish(key, VehiclePath.of(points, lightIds));
+  }
+
+  /** The path of a vehicle that finished a U-turn at {@code (x, y)} and now drives straight on. */
+  public VehiclePath routeAfterUTurn(Locations origin, Locations lane, double x, double y) {
+    MotorwayLayout current = layout;
+    double width = current.getWidth();
+    if (width == 0 || current.getHeight() == 0) return VehiclePath.of(List.of());
+
+    double endY = current.getLaneY(origin, lane);
+    double endX = origin == Locations.WEST ? width + VEHICLE_OFFSET : -VEHICLE_OFFSET;
+    int[] lightIds =
+        trafficLightsFor(current, origin, VehicleMovement.STRAIGH_AFTER_U_TURN, NO_INTERSECTION, x);
+    return VehiclePath.of(List.of(new Point2D(x, y), new Point2D(endX, endY)), lightIds);
+  }
+
+  private int routeKey(
+      Locations origin, Locations lane, VehicleMovement movement, int targetIntersectionId) {
+    int originIndex = origin == Locations.WEST ? 0 : 1;
+    int laneIndex = lane == Locations.SECOND_RAIL ? 1 : lane == Locations.THIRD_RAIL ? 2 : 0;
+    int targetIndex = targetIntersectionId == NO_INTERSECTION ? 0 : targetIntersectionId;
+    return ((originIndex * MOTORWAY_LANES + laneIndex) * MOVEMENTS + movement.ordinal())
+            * (network.getMaxIntersectionId() + 1)
+        + targetIndex;
+  }
+
+  /**
+   * Lights met on the shortest route to the target intersection or, going straight, the lights
+   * still ahead of {@code startX} on the way off the motorway.
+   */
+  private static int[] trafficLightsFor(
+      MotorwayLayout current,
+      Locations origin,
+      VehicleMovement movement,
+      int targetIntersectionId,
+      double startX) {
+    RoadNetwork network = current.getNetwork();
+    boolean straight =
+        movement == VehicleMovement.STRAIGHT || movement == VehicleMovement.STRAIGH_AFTER_U_TURN;
+    if (!straight) return network.getSignalsOnRoute(origin, targetIntersectionId);
+
+    int[] onRoute = network.getSignalsOnRoute(origin, NO_INTERSECTION);
+    int count = 0;
+    for (int lightId : onRoute) {
+      double centerX = current.getIntersectionCenterX(network.getSignalIntersection(lightId));
+      boolean ahead = origin == Locations.WEST ? startX < centerX : startX > centerX;
+      if (ahead) onRoute[count++] = lightId;
+    }
+    return Arrays.copyOf(onRoute, count);
+  }
+
+  private List<Point2D> buildPath(
+      MotorwayLayout current,
+      Locations origin,
+      Locations lane,
+      VehicleMovement movement,
+      int targetIntersectionId) {
+    double width = current.getWidth();
+    double height = current.getHeight();
+    if (width == 0 || height == 0) return List.of();
+
+    double startY = current.getLaneY(origin, lane);
+
+    if (movement.equals(VehicleMovement.STRAIGHT)) {
+      Point2D start =
+          new Point2D(
+              origin == Locations.WEST ? VEHICLE_PATH_OFFSET : width + VEHICLE_START_OFFSET,
+              startY);
+      Point2D end =
+          new Point2D(origin == Locations.WEST ? width + VEHICLE_OFFSET : -VEHICLE_OFFSET, startY);
+      return List.of(start, end);
+    }
+
+    if (targetIntersectionId == NO_INTERSECTION) return List.of();
+
+    double intersectionCenterX = current.getIntersectionCenterX(targetIntersectionId);
+    double stopX =
+        current.getStopLineX(getLightIdForIntersection(targetIntersectionId, origin), origin);
+    List<Point2D> path = new ArrayList<>();
+
+    if (origin == Locations.WEST) {
+      path.addAll(
+          Arrays.asList(
+              new Point2D(VEHICLE_PATH_OFFSET, startY),
+              new Point2D(stopX, startY),
+              new Point2D(intersectionCenterX, startY)));
+
+      switch (movement) {
+        case TURN_RIGHT -> path.add(new Point2D(intersectionCenterX, height + VEHICLE_OFFSET));
+        case TURN_LEFT -> path.add(new Point2D(intersectionCenterX, -VEHICLE_OFFSET));
+        case U_TURN -> {
+          double returnY = current.getLaneY(Locations.EAST, Locations.SECOND_RAIL);
+          path.add(new Point2D(intersectionCenterX, returnY));
+          path.add(new Point2D(intersectionCenterX - U_TURN_OFFSET, returnY));
+        }
+        default -> {}
+      }
+    } else {
+      path.addAll(
+          Arrays.asList(
+              new Point2D(width + VEHICLE_OFFSET, startY),
+              new Point2D(stopX, startY),
+              new Point2D(intersectionCenterX, startY)));
+
+      switch (movement) {
+        case TURN_RIGHT -> path.add(new Point2D(intersectionCenterX, -VEHICLE_OFFSET));
+        case TURN_LEFT -> path.add(new Point2D(intersectionCenterX, height + VEHICLE_OFFSET));
+        case U_TURN -> {
+          double returnY = current.getLaneY(Locations.WEST, Locations.SECOND_RAIL);
+          path.add(new Point2D(intersectionCenterX, returnY));
+          path.add(new Point2D(intersectionCenterX + U_TURN_OFFSET, returnY));
+        }
+        default -> {}
+      }
+    }
+    return path;
+  }
+}
@@ -0,0 +1,176 @@
+package com.trafficmanagement.smartflow.simulation;
+
+import static com.trafficmanagement.smartflow.utils.MotorwayConstants.*;
+import static com.trafficmanagement.smartflow.utils.VehicleConstants.EMERGENCY_SPEED;
+import static com.trafficmanagement.smartflow.utils.VehicleConstants.NO_INTERSECTION;
+
+import com.trafficmanagement.smartflow.data.enums.Locations;
+import com.trafficmanagement.smartflow.network.RoadNetwork;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import lombok.Getter;
+
+/**
+ * Every motorway position that depends on the simulated area size, computed once per size from the
+ * intersections and signals of a {@link RoadNetwork}. An
+ * instance never changes; {@link MotorwayGeometry} publishes a new one on resize, so a vehicle
+ * that reads the layout once per tick sees one consistent size throughout the tick.
+ *
+ * <p>Vehicle routes are cached per layout, so a resize drops them along with the old size.
+ *
+ * <p>{@link #getIntersectionIdAt} uses a per-pixel table holding the lowest-numbered intersection
+ * whose zone overlaps each pixel column, then confirms the exact zone bounds.
+ */
+public final class MotorwayLayout {
+  private static final double HALF_INTERSECTION = INTERSECTION_WIDTH / INTERSECTION_WIDTH_DIVISOR;
+  // How far from its centre an intersection's zone and stop lines reach, plus one tick of travel.
+  private static final double INTERSECTION_REACH =
+      HALF_INTERSECTION + STOP_LINE_OFFSET + EMERGENCY_SPEED;
+  private static final int WEST_INDEX = 0;
+  private static final int EAST_INDEX = 1;
+  private static final int LANE_COUNT = 3;
+
+  @Getter private final RoadNetwork network;
+  @Getter private final double width;
+  @Getter private final double height;
+  @Getter private final double motorwayY;
+  private final double[] centerX;
+  private final double[][] stopLineX;
+  private final double[][] laneY = new double[2][LANE_COUNT];
+  private final int[] zoneByColumn;
+  private final RouteTable routes;
+
+  private MotorwayLayout(RoadNetwork network, double width, double height) {
+    this.network = network;
+    this.width = width;
+    this.height = height;
+    this.motorwayY = (height - (LANE_HEIGHT * TOTAL_LANES)) / 2;
+    this.routes = new RouteTable(MotorwayGeometry.routeKeys(network));
+
+    centerX = new double[network.getMaxIntersectionId() + 1];
+    for (int index = 0; index < network.getIntersectionCount(); index++) {
+      int id = network.getIntersectionId(index);
+      centerX[id] = network.getIntersectionX(id, width);
+    }
+
+    stopLineX = new double[network.getMaxSignalId() + 1][2];
+    for (int index = 0; index < network.getSignalCount(); index++) {
+      int lightId = network.getSignalId(index);
+      double lineX = stopLineBaseX(lightId);
+      stopLineX[lightId][WEST_INDEX] = lineX - STOP_LINE_OFFSET;
+      stopLineX[lightId][EAST_INDEX] = lineX + STOP_LINE_OFFSET;
+    }
+    stopLineX[0][WEST_INDEX] = -STOP_LINE_OFFSET;
+    stopLineX[0][EAST_INDEX] = STOP_LINE_OFFSET;
+
+    double[] laneOffsets = {LANE_1_OFFSET, LANE_2_OFFSET, LANE_3_OFFSET};
+    for (int lane = 0; lane < LANE_COUNT; lane++) {
+      laneY[WEST_INDEX][lane] = motorwayY + (3 * LANE_HEIGHT) + (laneOffsets[lane] * LANE_HEIGHT);
+      laneY[EAST_INDEX][lane] = motorwayY + (3 - laneOffsets[lane]) * LANE_HEIGHT;
+    }
+
+    zoneByColumn = new int[(int) Math.max(0, Math.ceil(width)) + 1];
+    Arrays.fill(zoneByColumn, NO_INTERSECTION);
+    for (int index = 0; index < network.getIntersectionCount(); index++) {
+      int id = network.getIntersectionId(index);
+      int from = Math.max(0, (int) Math.floor(centerX[id] - HALF_INTERSECTION));
+      int to = Math.min(zoneByColumn.length - 1, (int) Math.floor(centerX[id] + HALF_INTERSECTION));
+      for (int column = from; column <= to; column++)
+        if (zoneByColumn[column] == NO_INTERSECTION || id < zoneByColumn[column])
+          zoneByColumn[column] = id;
+    }
+  }
+
+  public static MotorwayLayout of(RoadNetwork network, double width, double height) {
+    return new MotorwayLayout(network, width, height);
+  }
+
+  /** The stop line of a signal sits at the near edge of the intersection it guards. */
+  private double stopLineBaseX(int lightId) {
+    double center = centerX[network.getSignalIntersection(lightId)];
+    return network.getSignalOrigin(lightId) == Locations.WEST
+        ? center - HALF_INTERSECTION
+        : center + HALF_INTERSECTION;
+  }
+
+  RouteTable getRoutes() {
+    return routes;
+  }
+
+  public double getIntersectionCenterX(int intersectionId) {
+    if (!network.hasIntersection(intersectionId)) return 0;
+    return centerX[intersectionId];
+  }
+
+  /** The intersection whose zone strictly contains {@code x}, or {@code NO_INTERSECTION}. */
+  public int getIntersectionIdAt(double x) {
+    if (!(x >= 0) || x >= zoneByColumn.length) return scanIntersectionIdAt(x);
+    int candidate = zoneByColumn[(int) x];
+    if (candidate == NO_INTERSECTION) return NO_INTERSECTION;
+    if (isInZone(candidate, x)) return candidate;
+    return scanIntersectionIdAt(x);
+  }
+
+  private int scanIntersectionIdAt(double x) {
+    int found = NO_INTERSECTION;
+    for (int index = 0; index < network.getIntersectionCount(); index++) {
+      int id = network.getIntersectionId(index);
+      if (isInZone(id, x) && (found == NO_INTERSECTION || id < found)) found = id;
+    }
+    return found;
+  }
+
+  private boolean isInZone(int intersectionId, double x) {
+    double center = centerX[intersectionId];
+    return x > center - HALF_INTERSECTION && x < center + HALF_INTERSECTION;
+  }
+
+  public double getStopLineX(int lightId, Locations origin) {
+    if (!network.hasSignal(lightId)) lightId = 0;
+    return stopLineX[lightId][origin == Locations.WEST ? WEST_INDEX : EAST_INDEX];
+  }
+
+  /**
+   * Up to {@code spans - 1} cut points splitting the motorway into spans, each the usable point
+   * nearest to an even split of the width. Usable points are the midpoints between neighbouring
+   * intersections far enough apart that neither one's zone or stop lines reach the midpoint.
+   */
+  public double[] spanCuts(int spans) {
+    List<Double> usable = new ArrayList<>();
+    for (int ind = 1; ind < network.getIntersectionCount(); ind++) {
+      double west = centerX[network.getIntersectionId(ind - 1)];
+      double east = centerX[network.getIntersectionId(ind)];
+      double middle = (west + east) / 2;
+      if (east - west > 2 * INTERSECTION_REACH && middle > 0 && middle < width)
+        usable.add(middle);
+    }
+    List<Double> chosen = new ArrayList<>();
+    for (int part = 1; part < spans && !usable.isEmpty(); part++) {
+      double ideal = width * part / spans;
+      Double nearest = usable.getFirst();
+      for (Double candidate : usable)
+        if (Math.abs(candidate - ideal) < Math.abs(nearest - ideal)) nearest = candidate;
+      usable.remove(nearest);
+      chosen.add(nearest);
+    }
+    return chosen.stream().mapToDouble(Double::doubleValue).sorted().toArray();
+  }
+
+  /** The span of {@code cuts} holding {@code x}: the number of cuts at or west of it. */
+  public static int spanAt(double[] cuts, double x) {
+    int low = 0;
+    int high = cuts.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (cuts[mid] <= x) low = mid + 1;
+      else high = mid;
+    }
+    return low;
+  }
+
+  public double getLaneY(Locations origin, Locations lane) {
+    int laneIndex = lane == Locations.SECOND_RAIL ? 1 : lane == Locations.THIRD_RAIL ? 2 : 0;
+    return laneY[origin == Locations.EAST ? EAST_INDEX : WEST_INDEX][laneIndex];
+  }
+}
@@ -0,0 +1,124 @@
+package com.trafficmanagement.smartflow.simulation;
+
+import com.trafficmanagement.smartflow.data.model.Vehicle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The motorway cut into spans at points between intersections, each span owning the vehicles whose
+ * x lies in it and ticked as one task. A vehicle that ends a tick in another span is posted to that
+ * span's inbox, a lock-free queue the owner drains at the start of the next tick. Inboxes alternate
+ * by tick parity, so a span finishing early never picks up a hand-off of the tick still running.
+ *
+ * <p>Cuts come from {@link MotorwayLayout#spanCuts}, so no intersection reaches across one: a
+ * vehicle in an intersection zone, or at the stop line asking whether opposing traffic is crossing,
+ * always belongs to the span holding that intersection. Together with leaders being judged on
+ * start-of-tick positions (see {@link LaneIndex#findLeaderWithin}) and each span ticking its
+ * vehicles in id order, this makes the outcome of a tick the same for any number of spans.
+ *
+ * <p>Only the engine thread calls {@link #add}, {@link #relayout} and {@link #tasks}; the tasks
+ * themselves only touch their own span and the inboxes.
+ */
+@Slf4j
+final class MotorwayShards {
+  private static final Comparator<Vehicle> BY_ID = Comparator.comparingInt(Vehicle::getId);
+
+  private final int requestedCount;
+  private MotorwayLayout layout;
+  private double[] cuts = new double[0];
+  private Shard[] shards = {new Shard()};
+
+  MotorwayShards(int requestedCount) {
+    this.requestedCount = Math.max(1, requestedCount);
+  }
+
+  int getShardCount() {
+    return shards.length;
+  }
+
+  /** Hands a vehicle that joins the simulation before {@code tick} to the span it starts in. */
+  void add(Vehicle vehicle, long tick) {
+    shards[shardAt(vehicle.getX())].inboxFor(tick).add(vehicle);
+  }
+
+  /** Recomputes the cuts for a new layout and redistributes every vehicle by its position. */
+  void relayout(MotorwayLayout next, long tick) {
+    if (next == layout) return;
+    layout = next;
+    List<Vehicle> owned = new ArrayList<>();
+    for (Shard shard : shards) {
+      owned.addAll(shard.vehicles);
+      for (Queue<Vehicle> inbox : shard.inboxes) owned.addAll(inbox);
+    }
+    cuts = next.spanCuts(requestedCount);
+    shards = new Shard[cuts.length + 1];
+    for (int ind = 0; ind < shards.length; ind++) shards[ind] = new Shard();
+    for (Vehicle vehicle : owned) add(vehicle, tick);
+    log.info(
+        "motorway_shards_updated width={} requested={} shards={} cuts={}",
+        next.getWidth(),
+        requestedCount,
+        shards.length,
+        Arrays.toString(cuts));
+  }
+
+  /** One task per span for {@code tick}; run them all before calling this again. */
+  List<Callable<Void>> tasks(long tick, VehicleExecutor executor) {
+    List<Callable<Void>> tasks = new ArrayList<>(shards.length);
+    for (Shard shard : shards)
+      tasks.add(
+          () -> {
+            shard.tick(tick, executor);
+            return null;
+          });
+    return tasks;
+  }
+
+  private int shardAt(double x) {
+    return MotorwayLayout.spanAt(cuts, x);
+  }
+
+  private final class Shard {
+    private final List<Vehicle> vehicles = new ArrayList<>();
+    private final List<Queue<Vehicle>> inboxes =
+        List.of(new ConcurrentLinkedQueue<>(), new ConcurrentLinkedQueue<>());
+
+    /** The inbox drained at the start of {@code tick}. */
+    private Queue<Vehicle> inboxFor(long tick) {
+      return inboxes.get((int) (tick & 1));
+    }
+
+    private void tick(long tick, VehicleExecutor executor) {
+      Queue<Vehicle> inbox = inboxFor(tick);
+      Vehicle arrived;
+      boolean received = false;
+      while ((arrived = inbox.poll()) != null) {
+        vehicles.add(arrived);
+        received = true;
+      }
+      if (received) vehicles.sort(BY_ID);
+
+      executor.tickBatch(vehicles, 0, vehicles.size());
+
+      Shard[] current = shards;
+      int kept = 0;
+      for (int ind = 0; ind < vehicles.size(); ind++) {
+        Vehicle vehicle = vehicles.get(ind);
+        if (vehicle.isFinished()) continue;
+        Shard owner = current[shardAt(vehicle.getX())];
+        if (owner != this) {
+          owner.inboxFor(tick + 1).add(vehicle);
+          continue;
+        }
+        vehicles.set(kept++, vehicle);
+      }
+      vehicles.subList(kept, vehicles.size()).clear();
+    }
+  }
+}
@@ -0,0 +1,29 @@
+package com.trafficmanagement.smartflow.simulation;
+
+import com.trafficmanagement.smartflow.data.model.VehiclePath;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Paths of one simulated area size, indexed by a dense route key and built on first use. A table
+ * is never cleared: a resize replaces it together with the size it belongs to. Two threads asking
+ * for the same missing route may both build it; they build equal paths and the first one stored
+ * wins.
+ */
+final class RouteTable {
+  private final AtomicReferenceArray<VehiclePath> routes;
+
+  RouteTable(int size) {
+    this.routes = new AtomicReferenceArray<>(size);
+  }
+
+  /** The stored route, or {@code null} if it has not been built yet. */
+  VehiclePath get(int key) {
+    return routes.get(key);
+  }
+
+  /** Stores {@code route} unless another thread got there first, and returns the stored one. */
+  VehiclePath publish(int key, VehiclePath route) {
+    VehiclePath witness = routes.compareAndExchange(key, null, route);
+    return witness != null ? witness : route;
+  }
+}
@@ -0,0 +1,68 @@
+package com.trafficmanagement.smartflow.simulation;
+
+import static com.trafficmanagement.smartflow.utils.SimulationConstants.*;
+
+import com.trafficmanagement.smartflow.controller.TrafficLightController;
+import com.trafficmanagement.smartflow.data.enums.SimulationType;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Replays one motorway workload on the {@code SHARDED} vehicle executor with 1 to N workers and
+ * reports ticks per second, the speedup over one worker and the scaling efficiency (speedup divided
+ * by workers). Every run must end with the same state hash as the one-worker run; {@code
+ * identical=false} means the sharding changed the result. An unmeasured one-worker run warms the
+ * JIT up first.
+ *
+ * <p>Arguments: {@code [vehicles] [ticks] [seed] [max-workers]}. The number of spans is limited by
+ * the intersections of the scenario, see {@link MotorwayShards}, so large worker counts need a
+ * scenario with many intersections ({@code -Dsmartflow.scenario}).
+ */
+@Slf4j
+public class ShardScalingComparison {
+
+  private ShardScalingComparison() {}
+
+  public static void main(String[] args) {
+    int vehicles = args.length > 0 ? Integer.parseInt(args[0]) : HEADLESS_DEFAULT_VEHICLES;
+    long ticks = args.length > 1 ? Long.parseLong(args[1]) : HEADLESS_DEFAULT_TICKS;
+    long seed = args.length > 2 ? Long.parseLong(args[2]) : HEADLESS_DEFAULT_SEED;
+    int maxWorkers =
+        args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+    SpawnSchedule schedule =
+        SpawnSchedule.random(
+            SimulationType.MOTORWAY,
+            seed,
+            HEADLESS_DEFAULT_WIDTH,
+            HEADLESS_DEFAULT_HEIGHT,
+            vehicles,
+            0,
+            Math.max(1, ticks / 2));
+
+    replay(schedule, ticks, 1);
+    SimulationReplay.Result single = null;
+    for (int workers = 1; workers <= maxWorkers; workers++) {
+      SimulationReplay.Result result = replay(schedule, ticks, workers);
+      if (single == null) single = result;
+      double speedup = single.elapsedNanos() / (double) result.elapsedNanos();
+      log.info(
+          "shard_scaling workers={} availableProcessors={} ticks={} vehiclesSpawned={} elapsedMillis={} ticksPerSecond={} speedup={} efficiency={} identical={}",
+          workers,
+          Runtime.getRuntime().availableProcessors(),
+          result.ticks(),
+          result.vehiclesSpawned(),
+          result.elapsedNanos() / NANOS_PER_MILLI,
+          result.ticks() * NANOS_PER_SECOND / Math.max(1, result.elapsedNanos()),
+          String.format("%.2f", speedup),
+          String.format("%.2f", speedup / workers),
+          result.stateHash() == single.stateHash());
+    }
+  }
+
+  private static SimulationReplay.Result replay(SpawnSchedule schedule, long ticks, int workers) {
+    return SimulationReplay.run(
+        schedule,
+        ticks,
+        TrafficLightController.Mode.fromSystemProperty(),
+        new VehicleExecutor(VehicleExecutor.Mode.SHARDED, workers));
+  }
+}
@@ -0,0 +1,76 @@
+package com.trafficmanagement.smartflow.simulation;
+
+import static com.trafficmanagement.smartflow.utils.SimulationConstants.*;
+
+import com.trafficmanagement.smartflow.controller.TrafficLightController;
+import com.trafficmanagement.smartflow.data.enums.SimulationType;
+import java.io.IOException;
+import java.nio.file.Path;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Replays one motorway workload under every {@link TrafficLightController.Mode} and reports
+ * throughput (vehicles finished per simulated minute), mean delay (seconds a vehicle spent not
+ * moving, averaged over the vehicles spawned) and stops per vehicle spawned.
+ *
+ * <p>Arguments: {@code [vehicles] [ticks] [seed]}, or {@code --schedule <file> [ticks]} to compare
+ * on a saved {@link SpawnSchedule}.
+ */
+@Slf4j
+public class SignalControlComparison {
+  private static final double MILLIS_PER_SECOND = 1_000.0;
+  private static final double MILLIS_PER_MINUTE = 60_000.0;
+
+  private SignalControlComparison() {}
+
+  public static void main(String[] args) throws IOException {
+    SpawnSchedule schedule;
+    long ticks;
+    if (args.length > 1 && args[0].equals("--schedule")) {
+      schedule = SpawnSchedule.read(Path.of(args[1]));
+      ticks =
+          args.length > 2
+              ? Long.parseLong(args[2])
+              : schedule.lastTick() + HEADLESS_DEFAULT_TICKS;
+    } else {
+      int vehicles = args.length > 0 ? Integer.parseInt(args[0]) : HEADLESS_DEFAULT_VEHICLES;
+      ticks = args.length > 1 ? Long.parseLong(args[1]) : HEADLESS_DEFAULT_TICKS;
+      long seed = args.length > 2 ? Long.parseLong(args[2]) : HEADLESS_DEFAULT_SEED;
+      schedule =
+          SpawnSchedule.random(
+              SimulationType.MOTORWAY,
+              seed,
+              HEADLESS_DEFAULT_WIDTH,
+              HEADLESS_DEFAULT_HEIGHT,
+              vehicles,
+              0,
+              Math.max(1, ticks / 2));
+    }
+
+    for (TrafficLightController.Mode mode : TrafficLightController.Mode.values()) {
+      SimulationReplay.Result result = SimulationReplay.run(schedule, ticks, mode);
+      double simulatedMillis = result.ticks() * (double) TICK_DURATION_MS;
+      double throughput = result.vehiclesFinished() * MILLIS_PER_MINUTE / simulatedMillis;
+      double meanDelaySeconds =
+          result.vehiclesSpawned() == 0
+              ? 0
+              : result.stoppedVehicleTicks()
+                  * TICK_DURATION_MS
+                  / MILLIS_PER_SECOND
+                  / result.vehiclesSpawned();
+      double stopsPerVehicle =
+          result.vehiclesSpawned() == 0 ? 0 : result.stops() / (double) result.vehiclesSpawned();
+      log.info(
+          "signal_comparison mode={} seed={} ticks={} vehiclesSpawned={} vehiclesFinished={} vehiclesRemaining={} throughputPerMinute={} meanDelaySeconds={} stopsPerVehicle={}",
+          mode,
+          schedule.seed(),
+          result.ticks(),
+          result.vehiclesSpawned(),
+          result.vehiclesFinished(),
+          result.vehiclesRemaining(),
+          String.format("%.1f", throughput),
+          String.format("%.2f", meanDelaySeconds),
+          String.format("%.2f", stopsPerVehicle));
+    }
+  }
+}
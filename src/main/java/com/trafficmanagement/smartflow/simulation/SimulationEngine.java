@@ -0,0 +1,657 @@
+package com.trafficmanagement.smartflow.simulation;
+
+import static com.trafficmanagement.smartflow.utils.DemandConstants.DEMAND_ENTRY_CLEARANCE;
+import static com.trafficmanagement.smartflow.utils.MotorwayConstants.*;
+import static com.trafficmanagement.smartflow.utils.SimulationConstants.*;
+import static com.trafficmanagement.smartflow.utils.TraceConstants.TRACE_DIRECTORY_PROPERTY;
+
+import com.trafficmanagement.smartflow.controller.LightMask;
+import com.trafficmanagement.smartflow.controller.TrafficLightController;
+import com.trafficmanagement.smartflow.data.enums.Locations;
+import com.trafficmanagement.smartflow.data.enums.SimulationType;
+import com.trafficmanagement.smartflow.data.enums.VehicleMovement;
+import com.trafficmanagement.smartflow.data.enums.VehicleType;
+import com.trafficmanagement.smartflow.data.model.Intersection;
+import com.trafficmanagement.smartflow.data.model.IntersectionStateManager;
+import com.trafficmanagement.smartflow.data.model.MotorwayIntersection;
+import com.trafficmanagement.smartflow.data.model.Vehicle;
+import com.trafficmanagement.smartflow.data.model.VehiclePath;
+import com.trafficmanagement.smartflow.data.model.VehicleStateStore;
+import com.trafficmanagement.smartflow.metrics.SimulationMetrics;
+import com.trafficmanagement.smartflow.network.RoadNetwork;
+import com.trafficmanagement.smartflow.trace.TraceRecorder;
+import com.trafficmanagement.smartflow.utils.GeometryUtils;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Owns every vehicle, intersection and traffic light of one simulation and advances them together
+ * in a fixed-timestep tick loop. The engine has no JavaFX scene dependency: the view controllers
+ * only feed it spawn requests and the drawable area size, and read vehicle positions back.
+ *
+ * <p>Use {@link #start()} to tick in real time on a background thread, or {@link #tick()} / {@link
+ * #runTicks(long)} to drive it directly from a headless caller as fast as the CPU allows.
+ */
+@Slf4j
+public class SimulationEngine {
+  @Getter private final SimulationType simulationType;
+  @Getter private final List<MotorwayIntersection> motorwayIntersections = new ArrayList<>();
+  @Getter private final Intersection intersection;
+  @Getter private final TrafficLightController trafficLightController;
+  @Getter private final IntersectionStateManager intersectionStateManager;
+  @Getter private final RoadNetwork roadNetwork;
+  @Getter private final MotorwayGeometry motorwayGeometry;
+  private final MotorwayIntersection[] motorwayIntersectionsById;
+  @Getter private final IntersectionGeometry intersectionGeometry = new IntersectionGeometry();
+  private final List<Vehicle> vehicles = new ArrayList<>();
+  private final Set<Vehicle> liveVehicles = ConcurrentHashMap.newKeySet();
+  private final Queue<PendingSpawn> pendingSpawns = new ConcurrentLinkedQueue<>();
+  private final Queue<SpawnEvent> incomingSchedule = new ConcurrentLinkedQueue<>();
+  // Tick thread only: scheduled events by tick, in the order they were scheduled.
+  private final TreeMap<Long, List<SpawnEvent>> scheduledSpawns = new TreeMap<>();
+  private final Queue<DemandGenerator> incomingDemand = new ConcurrentLinkedQueue<>();
+  // Tick thread only: demands still drawing arrivals or with vehicles waiting to enter.
+  private final List<DemandGenerator> demands = new ArrayList<>();
+  private final List<SpawnEvent> spawnHistory = Collections.synchronizedList(new ArrayList<>());
+  private volatile long scheduleSeed;
+  @Getter private final LaneIndex laneIndex = new LaneIndex();
+  @Getter private final VehicleStateStore stateStore = new VehicleStateStore();
+  @Getter private final VehicleExecutor vehicleExecutor;
+  // Only with the SHARDED executor; U-turns then spawn their straight vehicle at tick end.
+  private final MotorwayShards motorwayShards;
+  private final Queue<Vehicle> finishedUTurns = new ConcurrentLinkedQueue<>();
+  @Getter private final SimulationMetrics metrics;
+  private final Object traceLock = new Object();
+  private volatile TraceRecorder traceRecorder;
+  private ScheduledExecutorService scheduler;
+  private volatile boolean stopped = false;
+  @Getter private volatile long tickCount = 0;
+  @Getter private volatile long finishedVehicleCount = 0;
+
+  public SimulationEngine(SimulationType simulationType) {
+    this(simulationType, new VehicleExecutor(VehicleExecutor.Mode.fromSystemProperty()));
+  }
+
+  public SimulationEngine(SimulationType simulationType, VehicleExecutor vehicleExecutor) {
+    this(simulationType, vehicleExecutor, TrafficLightController.Mode.fromSystemProperty());
+  }
+
+  public SimulationEngine(
+      SimulationType simulationType,
+      VehicleExecutor vehicleExecutor,
+      TrafficLightController.Mode signalControlMode) {
+    this(simulationType, vehicleExecutor, signalControlMode, RoadNetwork.fromSystemProperty());
+  }
+
+  public SimulationEngine(
+      SimulationType simulationType,
+      VehicleExecutor vehicleExecutor,
+      TrafficLightController.Mode signalControlMode,
+      RoadNetwork roadNetwork) {
+    this.simulationType = simulationType;
+    this.vehicleExecutor = vehicleExecutor;
+    this.motorwayShards =
+        vehicleExecutor.getMode() == VehicleExecutor.Mode.SHARDED
+            ? new MotorwayShards(vehicleExecutor.getWorkerCount())
+            : null;
+    this.roadNetwork = roadNetwork;
+    this.motorwayGeometry = new MotorwayGeometry(roadNetwork);
+    this.motorwayIntersectionsById =
+        new MotorwayIntersection[roadNetwork.getMaxIntersectionId() + 1];
+    if (simulationType == SimulationType.MOTORWAY) {
+      for (int ind = 0; ind < roadNetwork.getIntersectionCount(); ind++) {
+        MotorwayIntersection motorwayIntersection =
+            new MotorwayIntersection(roadNetwork.getIntersectionId(ind));
+        motorwayIntersections.add(motorwayIntersection);
+        motorwayIntersectionsById[motorwayIntersection.getId()] = motorwayIntersection;
+      }
+      this.intersection = null;
+      this.trafficLightController = new TrafficLightController(signalControlMode, roadNetwork);
+      this.intersectionStateManager = new IntersectionStateManager(roadNetwork);
+    } else {
+      this.intersection = new Intersection();
+      this.trafficLightController = null;
+      this.intersectionStateManager = null;
+    }
+    this.metrics = new SimulationMetrics(simulationType.name());
+    for (MotorwayIntersection motorwayIntersection : motorwayIntersections)
+      metrics.addIntersection(motorwayIntersection.getMetrics());
+    if (intersection != null) metrics.addIntersection(intersection.getMetrics());
+    metrics.registerMBeans();
+    String traceDirectory = System.getProperty(TRACE_DIRECTORY_PROPERTY);
+    if (traceDirectory != null) startRecordingQuietly(Path.of(traceDirectory, metrics.getName()));
+    log.info(
+        "simulation_engine_created simulationType={} tickDurationMs={}",
+        simulationType,
+        TICK_DURATION_MS);
+  }
+
+  public void resize(double width, double height) {
+    motorwayGeometry.resize(width, height);
+    intersectionGeometry.resize(width, height);
+    if (trafficLightController != null) trafficLightController.layoutChanged(motorwayGeometry);
+  }
+
+  public synchronized void start() {
+    if (scheduler != null) return;
+    scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, ENGINE_THREAD_NAME);
+              thread.setDaemon(true);
+              return thread;
+            });
+    scheduler.scheduleAtFixedRate(
+        this::tickSafely, INITIAL_TICK_DELAY_MS, TICK_DURATION_MS, TimeUnit.MILLISECONDS);
+    metrics.startPeriodicSnapshots(
+        METRICS_SNAPSHOT_PERIOD_MS, snapshot -> log.debug("metrics_snapshot {}", snapshot));
+    log.info("simulation_engine_started simulationType={} mode=realtime", simulationType);
+  }
+
+  public void runTicks(long ticks) {
+    for (long ind = 0; ind < ticks; ind++) tick();
+  }
+
+  private void tickSafely() {
+    try {
+      tick();
+    } catch (RuntimeException e) {
+      log.error("simulation_tick_failed tick={} simulationType={}", tickCount, simulationType, e);
+    }
+  }
+
+  public void tick() {
+    long tickStart = System.nanoTime();
+    releaseScheduledSpawns();
+    releaseDemand();
+    PendingSpawn spawned;
+    while ((spawned = pendingSpawns.poll()) != null) {
+      vehicles.add(spawned.vehicle());
+      laneIndex.add(spawned.vehicle());
+      if (motorwayShards != null) motorwayShards.add(spawned.vehicle(), tickCount);
+      if (spawned.event() != null) spawnHistory.add(spawned.event().atTick(tickCount));
+    }
+    laneIndex.refresh();
+
+    if (trafficLightController != null) trafficLightController.advanceTo(getSimulatedTimeMillis());
+
+    if (motorwayShards != null) {
+      if (simulationType == SimulationType.MOTORWAY)
+        motorwayShards.relayout(motorwayGeometry.getLayout(), tickCount);
+      vehicleExecutor.tickShards(motorwayShards, tickCount);
+      spawnFinishedUTurns();
+    } else {
+      vehicleExecutor.tickAll(vehicles);
+    }
+    if (traceRecorder != null) recordTrace();
+
+    Iterator<Vehicle> iterator = vehicles.iterator();
+    while (iterator.hasNext()) {
+      Vehicle vehicle = iterator.next();
+      if (vehicle.isFinished()) {
+        iterator.remove();
+        liveVehicles.remove(vehicle);
+        vehicle.detach();
+        finishedVehicleCount++;
+      }
+    }
+    tickCount++;
+    metrics.recordTick(System.nanoTime() - tickStart);
+  }
+
+  private void recordTrace() {
+    synchronized (traceLock) {
+      TraceRecorder recorder = traceRecorder;
+      if (recorder == null) return;
+      LightMask greenLights =
+          trafficLightController != null ? trafficLightController.getLightMask() : LightMask.NONE;
+      recorder.recordTick(tickCount, greenLights, vehicles.size());
+      for (int ind = 0; ind < vehicles.size(); ind++)
+        recorder.recordVehicle(tickCount, vehicles.get(ind));
+    }
+  }
+
+  /**
+   * Records every following tick into memory-mapped segment files under {@code directory}, see
+   * {@link TraceRecorder}. Also enabled for new engines by the {@code smartflow.traceDir} system
+   * property, with one subdirectory per engine.
+   */
+  public void startRecording(Path directory) throws IOException {
+    openTraceRecorder(directory);
+  }
+
+  private void openTraceRecorder(Path directory) throws IOException {
+    synchronized (traceLock) {
+      if (traceRecorder == null) traceRecorder = new TraceRecorder(directory);
+    }
+  }
+
+  private void startRecordingQuietly(Path directory) {
+    try {
+      openTraceRecorder(directory);
+    } catch (IOException e) {
+      log.error("trace_recording_start_failed directory={}", directory, e);
+    }
+  }
+
+  public void stopRecording() {
+    synchronized (traceLock) {
+      if (traceRecorder == null) return;
+      traceRecorder.close();
+      traceRecorder = null;
+    }
+  }
+
+  private void saveSpawnHistory() {
+    String directory = System.getProperty(SPAWN_SCHEDULE_DIRECTORY_PROPERTY);
+    if (directory == null) return;
+    Path file = Path.of(directory, metrics.getName() + SPAWN_SCHEDULE_EXTENSION);
+    try {
+      getSpawnHistory().write(file);
+      log.info("spawn_schedule_saved file={} events={}", file, spawnHistory.size());
+    } catch (IOException e) {
+      log.error("spawn_schedule_save_failed file={}", file, e);
+    }
+  }
+
+  public long getSimulatedTimeMillis() {
+    return tickCount * TICK_DURATION_MS;
+  }
+
+  /**
+   * Queues the events of {@code schedule} to spawn at the start of their ticks, on this engine's
+   * tick clock rather than wall-clock time. Events already in the past spawn on the next tick.
+   */
+  public void scheduleSpawns(SpawnSchedule schedule) {
+    if (schedule.simulationType() != simulationType)
+      throw new IllegalArgumentException(
+          "schedule for " + schedule.simulationType() + " on a " + simulationType + " engine");
+    if (spawnHistory.isEmpty() && incomingSchedule.isEmpty()) scheduleSeed = schedule.seed();
+    incomingSchedule.addAll(schedule.events());
+    log.info(
+        "spawn_schedule_added simulationType={} seed={} events={} lastTick={}",
+        simulationType,
+        schedule.seed(),
+        schedule.events().size(),
+        schedule.lastTick());
+  }
+
+  private void releaseScheduledSpawns() {
+    SpawnEvent incoming;
+    while ((incoming = incomingSchedule.poll()) != null)
+      scheduledSpawns.computeIfAbsent(incoming.tick(), ignored -> new ArrayList<>()).add(incoming);
+
+    Map.Entry<Long, List<SpawnEvent>> due;
+    while ((due = scheduledSpawns.firstEntry()) != null && due.getKey() <= tickCount) {
+      scheduledSpawns.pollFirstEntry();
+      for (SpawnEvent event : due.getValue()) spawn(event);
+    }
+  }
+
+  /**
+   * Starts drawing arrivals from {@code demand} for {@code ticks} ticks from {@code firstTick}, on
+   * this engine's tick clock. Each tick's arrivals join their entry's queue, and every entry lets
+   * one vehicle in per tick once the previous one has cleared it, so heavy demand backs up in the
+   * returned generator's queues instead of piling vehicles onto the entry point.
+   */
+  public DemandGenerator addDemand(TrafficDemand demand, long seed, long firstTick, long ticks) {
+    if (demand.getSimulationType() != simulationType)
+      throw new IllegalArgumentException(
+          "demand for " + demand.getSimulationType() + " on a " + simulationType + " engine");
+    if (spawnHistory.isEmpty() && incomingSchedule.isEmpty()) scheduleSeed = seed;
+    DemandGenerator generator = demand.generator(seed, firstTick, ticks);
+    incomingDemand.add(generator);
+    log.info(
+        "traffic_demand_added simulationType={} source={} seed={} firstTick={} ticks={}",
+        simulationType,
+        demand.getSource(),
+        seed,
+        firstTick,
+        ticks);
+    return generator;
+  }
+
+  private void releaseDemand() {
+    DemandGenerator incoming;
+    while ((incoming = incomingDemand.poll()) != null) demands.add(incoming);
+    Iterator<DemandGenerator> iterator = demands.iterator();
+    while (iterator.hasNext()) {
+      DemandGenerator demand = iterator.next();
+      demand.generateArrivals(tickCount);
+      for (int entry = 0; entry < demand.getEntryCount(); entry++) {
+        SpawnEvent waiting = demand.peek(entry);
+        if (waiting != null && isEntryClear(waiting)) spawn(demand.insert(entry));
+      }
+      if (!demand.isFinished(tickCount)) continue;
+      iterator.remove();
+      log.info(
+          "traffic_demand_finished simulationType={} seed={} arrivals={} dropped={} tick={}",
+          simulationType,
+          demand.getSeed(),
+          demand.getArrivals(),
+          demand.getDropped(),
+          tickCount);
+    }
+  }
+
+  /**
+   * Whether no vehicle of the lane {@code event} enters is within {@code DEMAND_ENTRY_CLEARANCE}
+   * of its entry point, at the positions of the last index refresh. False while the area has no
+   * size yet, so arrivals wait for the first layout.
+   */
+  private boolean isEntryClear(SpawnEvent event) {
+    VehiclePath path =
+        simulationType == SimulationType.MOTORWAY
+            ? motorwayGeometry.routeFor(
+                event.origin(),
+                event.lane(),
+                event.movement(),
+                motorwayIntersectionOf(event.intersectionId()))
+            : intersectionGeometry.routeFor(event.origin(), event.movement());
+    if (path.isEmpty()) return false;
+    Locations origin = event.origin();
+    double along =
+        origin == Locations.WEST || origin == Locations.EAST ? path.getX(0) : path.getY(0);
+    return laneIndex.countInRange(
+            origin, event.lane(), along - DEMAND_ENTRY_CLEARANCE, along + DEMAND_ENTRY_CLEARANCE)
+        == 0;
+  }
+
+  public Vehicle spawn(SpawnEvent event) {
+    return simulationType == SimulationType.MOTORWAY
+        ? spawnMotorwayVehicle(
+            event.type(), event.origin(), event.lane(), event.movement(), event.intersectionId())
+        : spawnIntersectionVehicle(event.type(), event.origin(), event.movement());
+  }
+
+  /**
+   * Every vehicle spawned so far, scheduled or not, at the tick it entered. Vehicles the engine
+   * derives itself (the straight leg after a U-turn) are not included, since replaying the
+   * schedule derives them again.
+   */
+  public SpawnSchedule getSpawnHistory() {
+    List<SpawnEvent> events;
+    synchronized (spawnHistory) {
+      events = List.copyOf(spawnHistory);
+    }
+    return new SpawnSchedule(
+        simulationType,
+        scheduleSeed,
+        motorwayGeometry.getWidth(),
+        motorwayGeometry.getHeight(),
+        events);
+  }
+
+  public Vehicle spawnMotorwayVehicle(
+      VehicleType type,
+      Locations origin,
+      Locations lane,
+      VehicleMovement movement,
+      Integer intersectionId) {
+    SpawnEvent event = new SpawnEvent(tickCount, type, origin, lane, movement, intersectionId);
+    MotorwayIntersection targetIntersection = motorwayIntersectionOf(intersectionId);
+    Vehicle vehicle = new Vehicle(stateStore, type, origin, movement, targetIntersection);
+    vehicle.setLane(lane);
+    VehiclePath path = motorwayGeometry.routeFor(origin, lane, movement, targetIntersection);
+    if (path.isEmpty()) {
+      vehicle.detach();
+      return null;
+    }
+
+    vehicle.setPosition(path.getX(0), path.getY(0));
+    return enqueue(vehicle, path, event);
+  }
+
+  private MotorwayIntersection motorwayIntersectionOf(Integer intersectionId) {
+    return intersectionId != null && roadNetwork.hasIntersection(intersectionId)
+        ? motorwayIntersectionsById[intersectionId]
+        : null;
+  }
+
+  public void spawnStraightVehicleFromUTurn(Vehicle uTurnVehicle) {
+    if (motorwayShards != null) {
+      finishedUTurns.add(uTurnVehicle);
+      return;
+    }
+    spawnAfterUTurn(uTurnVehicle);
+  }
+
+  /** Spawns in id order, so vehicle ids do not depend on which span finished its U-turn first. */
+  private void spawnFinishedUTurns() {
+    if (finishedUTurns.isEmpty()) return;
+    List<Vehicle> finished = new ArrayList<>(finishedUTurns);
+    finishedUTurns.clear();
+    finished.sort(Comparator.comparingInt(Vehicle::getId));
+    for (Vehicle uTurnVehicle : finished) spawnAfterUTurn(uTurnVehicle);
+  }
+
+  private void spawnAfterUTurn(Vehicle uTurnVehicle) {
+    Locations newOrigin =
+        (uTurnVehicle.getOrigin() == Locations.WEST) ? Locations.EAST : Locations.WEST;
+    Vehicle straightVehicle =
+        new Vehicle(
+            stateStore,
+            uTurnVehicle.getType(),
+            newOrigin,
+            VehicleMovement.STRAIGH_AFTER_U_TURN,
+            (MotorwayIntersection) null);
+    straightVehicle.setLane(Locations.SECOND_RAIL);
+    straightVehicle.setPosition(uTurnVehicle.getX(), uTurnVehicle.getY());
+    VehiclePath path =
+        motorwayGeometry.routeAfterUTurn(
+            newOrigin, Locations.SECOND_RAIL, uTurnVehicle.getX(), uTurnVehicle.getY());
+    enqueue(straightVehicle, path, null);
+  }
+
+  /**
+   * Carries on with a motorway vehicle another engine simulated up to now, for example the engine
+   * of a neighbouring partition. Its route is rebuilt from this engine's layout; the straight leg
+   * after a U-turn starts at {@code (routeStartX, routeStartY)}. The vehicle joins on the next
+   * tick, so the caller restores its state with {@link Vehicle#restoreState} before then.
+   */
+  public Vehicle adoptMotorwayVehicle(
+      VehicleType type,
+      Locations origin,
+      Locations lane,
+      VehicleMovement movement,
+      int targetIntersectionId,
+      double routeStartX,
+      double routeStartY) {
+    MotorwayIntersection targetIntersection =
+        roadNetwork.hasIntersection(targetIntersectionId)
+            ? motorwayIntersectionsById[targetIntersectionId]
+            : null;
+    Vehicle vehicle = new Vehicle(stateStore, type, origin, movement, targetIntersection);
+    vehicle.setLane(lane);
+    VehiclePath path =
+        movement == VehicleMovement.STRAIGH_AFTER_U_TURN
+            ? motorwayGeometry.routeAfterUTurn(origin, lane, routeStartX, routeStartY)
+            : motorwayGeometry.routeFor(origin, lane, movement, targetIntersection);
+    if (path.isEmpty()) {
+      vehicle.detach();
+      return null;
+    }
+    return enqueue(vehicle, path, null);
+  }
+
+  /**
+   * Removes every live vehicle {@code leaving} accepts from this engine without finishing it, and
+   * returns them still attached so the caller can read their state before detaching them. Call
+   * from the thread that ticks the engine, between ticks.
+   */
+  public List<Vehicle> handOffVehicles(Predicate<Vehicle> leaving) {
+    List<Vehicle> handedOff = new ArrayList<>();
+    Iterator<Vehicle> iterator = vehicles.iterator();
+    while (iterator.hasNext()) {
+      Vehicle vehicle = iterator.next();
+      if (vehicle.isFinished() || !leaving.test(vehicle)) continue;
+      vehicle.handOff();
+      iterator.remove();
+      liveVehicles.remove(vehicle);
+      handedOff.add(vehicle);
+    }
+    return handedOff;
+  }
+
+  /**
+   * A stand-in for a vehicle simulated by another engine close to this one's boundary. It is only
+   * visible to leader lookups and is never ticked; move it with {@link Vehicle#setPosition} between
+   * ticks and remove it with {@link Vehicle#handOff()} and {@link Vehicle#detach()}.
+   */
+  public Vehicle addBoundaryVehicle(
+      VehicleType type, Locations origin, Locations lane, double x, double y) {
+    Vehicle vehicle =
+        new Vehicle(
+            stateStore, type, origin, VehicleMovement.STRAIGHT, (MotorwayIntersection) null);
+    vehicle.setLane(lane);
+    vehicle.setPosition(x, y);
+    laneIndex.add(vehicle);
+    return vehicle;
+  }
+
+  public Vehicle spawnIntersectionVehicle(
+      VehicleType type, Locations origin, VehicleMovement movement) {
+    SpawnEvent event = new SpawnEvent(tickCount, type, origin, null, movement, null);
+    Vehicle vehicle = new Vehicle(stateStore, type, origin, movement, intersection);
+    VehiclePath path = intersectionGeometry.routeFor(origin, movement);
+    if (path.isEmpty()) {
+      vehicle.detach();
+      return null;
+    }
+
+    vehicle.setPosition(path.getX(0), path.getY(0));
+    return enqueue(vehicle, path, event);
+  }
+
+  private Vehicle enqueue(Vehicle vehicle, VehiclePath path, SpawnEvent event) {
+    if (stopped) {
+      vehicle.detach();
+      return null;
+    }
+    vehicle.setEngine(this);
+    vehicle.setPath(path);
+    liveVehicles.add(vehicle);
+    pendingSpawns.add(new PendingSpawn(vehicle, event));
+    return vehicle;
+  }
+
+  /**
+   * Hash of every vehicle's position, speed, lane and flags in tick order. Two runs of the same
+   * schedule are identical exactly when their hashes after every tick are. Call from the thread
+   * that ticks the engine.
+   */
+  public long stateHash() {
+    long hash = vehicles.size();
+    for (int ind = 0; ind < vehicles.size(); ind++) {
+      Vehicle vehicle = vehicles.get(ind);
+      Locations lane = vehicle.getLane();
+      hash = hash * 31 + Double.doubleToLongBits(vehicle.getX());
+      hash = hash * 31 + Double.doubleToLongBits(vehicle.getY());
+      hash = hash * 31 + Double.doubleToLongBits(vehicle.getSpeed());
+      hash = hash * 31 + (lane == null ? -1 : lane.ordinal());
+      hash = hash * 31 + vehicle.getStateFlags();
+    }
+    return hash;
+  }
+
+  /** Calls {@code action} for every vehicle in tick order. Call from the thread that ticks it. */
+  public void forEachVehicle(Consumer<Vehicle> action) {
+    for (int ind = 0; ind < vehicles.size(); ind++) action.accept(vehicles.get(ind));
+  }
+
+  public Set<Vehicle> getVehicles() {
+    return Collections.unmodifiableSet(liveVehicles);
+  }
+
+  public int getVehicleCount() {
+    return liveVehicles.size();
+  }
+
+  public int getActiveVehicleCount() {
+    return vehicleExecutor.getActiveCount();
+  }
+
+  public int getParkedVehicleCount() {
+    return vehicleExecutor.getParkedCount();
+  }
+
+  public long getStopCount() {
+    return vehicleExecutor.getStopCount();
+  }
+
+  public Vehicle findLeadingVehicle(Vehicle followerVehicle) {
+    return laneIndex.findLeadingVehicle(followerVehicle);
+  }
+
+  /**
+   * The vehicle ahead of {@code follower} in its lane if it is closer than {@code distance}, or
+   * {@code null}. With the sharded executor both are taken at their start-of-tick positions, so
+   * the answer does not depend on which span ticks first; the other modes read the leader's live
+   * position as they always have.
+   */
+  public Vehicle findLeaderWithin(Vehicle follower, double distance) {
+    if (motorwayShards != null) return laneIndex.findLeaderWithin(follower, distance);
+    Vehicle leader = laneIndex.findLeadingVehicle(follower);
+    if (leader == null) return null;
+    return GeometryUtils.isWithin(
+            follower.getX(), follower.getY(), leader.getX(), leader.getY(), distance)
+        ? leader
+        : null;
+  }
+
+  public Vehicle findEmergencyFollower(Vehicle leader) {
+    return laneIndex.findEmergencyFollower(leader, SAFE_DISTANCE * SAFE_DISTANCE_MULTIPLIER);
+  }
+
+  private record PendingSpawn(Vehicle vehicle, SpawnEvent event) {}
+
+  public synchronized void shutdown() {
+    stopped = true;
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+      try {
+        if (!scheduler.awaitTermination(TICK_DURATION_MS * 10, TimeUnit.MILLISECONDS))
+          log.warn("simulation_engine_shutdown_timeout simulationType={}", simulationType);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      scheduler = null;
+    }
+
+    log.info(
+        "simulation_engine_stopping vehicleCount={} simulationType={}",
+        liveVehicles.size(),
+        simulationType);
+    for (Vehicle vehicle : liveVehicles) vehicle.stop();
+    vehicleExecutor.shutdown();
+    liveVehicles.clear();
+    pendingSpawns.clear();
+    incomingSchedule.clear();
+    incomingDemand.clear();
+    demands.clear();
+    vehicles.clear();
+    laneIndex.clear();
+    stopRecording();
+    saveSpawnHistory();
+    metrics.close();
+    log.info("simulation_engine_stopped ticks={} simulationType={}", tickCount, simulationType);
+  }
+}
@@ -0,0 +1,110 @@
+package com.trafficmanagement.smartflow.simulation;
+
+import static com.trafficmanagement.smartflow.utils.SimulationConstants.*;
+
+import com.trafficmanagement.smartflow.controller.TrafficLightController;
+import java.io.IOException;
+import java.nio.file.Path;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Re-executes a {@link SpawnSchedule} headlessly as fast as the CPU allows. Ticks advance a
+ * virtual clock (the engine's tick count drives spawns and traffic lights alike) and vehicles are
+ * ticked sequentially, so every replay of a schedule produces the same {@link Result#stateHash()}.
+ *
+ * <p>Arguments: {@code <schedule-file> [ticks] [repetitions]}. Without {@code ticks} the replay
+ * runs {@code HEADLESS_DEFAULT_TICKS} past the last spawn. Repetitions after the first are checked
+ * against the first one's hash, which makes the runner usable both as a regression check and as a
+ * fixed-workload benchmark.
+ */
+@Slf4j
+public class SimulationReplay {
+
+  /**
+   * {@code stoppedVehicleTicks} sums, over every tick, the vehicles that did not move in it: the
+   * total delay of the run in ticks. {@code stops} counts how often a vehicle came to a standstill.
+   */
+  public record Result(
+      long ticks,
+      int vehiclesSpawned,
+      long vehiclesFinished,
+      int vehiclesRemaining,
+      long stoppedVehicleTicks,
+      long stops,
+      long stateHash,
+      long elapsedNanos) {}
+
+  private SimulationReplay() {}
+
+  public static Result run(SpawnSchedule schedule, long ticks) {
+    return run(schedule, ticks, TrafficLightController.Mode.fromSystemProperty());
+  }
+
+  public static Result run(
+      SpawnSchedule schedule, long ticks, TrafficLightController.Mode signalControlMode) {
+    return run(
+        schedule, ticks, signalControlMode, new VehicleExecutor(VehicleExecutor.Mode.SEQUENTIAL));
+  }
+
+  /** Replays on {@code vehicleExecutor}, which the run shuts down together with its engine. */
+  public static Result run(
+      SpawnSchedule schedule,
+      long ticks,
+      TrafficLightController.Mode signalControlMode,
+      VehicleExecutor vehicleExecutor) {
+    SimulationEngine engine =
+        new SimulationEngine(schedule.simulationType(), vehicleExecutor, signalControlMode);
+    try {
+      engine.resize(schedule.width(), schedule.height());
+      engine.scheduleSpawns(schedule);
+      long hash = 0;
+      long stoppedVehicleTicks = 0;
+      long startNanos = System.nanoTime();
+      for (long tick = 0; tick < ticks; tick++) {
+        engine.tick();
+        stoppedVehicleTicks += engine.getParkedVehicleCount();
+        hash = hash * 31 + engine.stateHash();
+      }
+      long elapsedNanos = System.nanoTime() - startNanos;
+      return new Result(
+          engine.getTickCount(),
+          engine.getSpawnHistory().events().size(),
+          engine.getFinishedVehicleCount(),
+          engine.getVehicleCount(),
+          stoppedVehicleTicks,
+          engine.getStopCount(),
+          hash,
+          elapsedNanos);
+    } finally {
+      engine.shutdown();
+    }
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 1) {
+      log.error("replay_usage arguments=<schedule-file> [ticks] [repetitions]");
+      return;
+    }
+    SpawnSchedule schedule = SpawnSchedule.read(Path.of(args[0]));
+    long ticks =
+        args.length > 1 ? Long.parseLong(args[1]) : schedule.lastTick() + HEADLESS_DEFAULT_TICKS;
+    int repetitions = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+
+    Result first = null;
+    for (int run = 1; run <= repetitions; run++) {
+      Result result = run(schedule, ticks);
+      if (first == null) first = result;
+      log.info(
+          "replay_completed run={} simulationType={} seed={} ticks={} vehiclesSpawned={} vehiclesRemaining={} stateHash={} elapsedMillis={} identical={}",
+          run,
+          schedule.simulationType(),
+          schedule.seed(),
+          result.ticks(),
+          result.vehiclesSpawned(),
+          result.vehiclesRemaining(),
+          Long.toHexString(result.stateHash()),
+          result.elapsedNanos() / NANOS_PER_MILLI,
+          result.stateHash() == first.stateHash());
+    }
+  }
+}
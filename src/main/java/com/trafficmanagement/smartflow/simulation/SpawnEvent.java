@@ -0,0 +1,22 @@
+package com.trafficmanagement.smartflow.simulation;
+
+import com.trafficmanagement.smartflow.data.enums.Locations;
+import com.trafficmanagement.smartflow.data.enums.VehicleMovement;
+import com.trafficmanagement.smartflow.data.enums.VehicleType;
+
+/**
+ * One vehicle entering the simulation at the start of engine tick {@code tick}. {@code lane} and
+ * {@code intersectionId} are only used by the motorway and may be null.
+ */
+public record SpawnEvent(
+    long tick,
+    VehicleType type,
+    Locations origin,
+    Locations lane,
+    VehicleMovement movement,
+    Integer intersectionId) {
+
+  public SpawnEvent atTick(long newTick) {
+    return new SpawnEvent(newTick, type, origin, lane, movement, intersectionId);
+  }
+}
@@ -0,0 +1,186 @@
+package com.trafficmanagement.smartflow.simulation;
+
+import com.trafficmanagement.smartflow.data.enums.Locations;
+import com.trafficmanagement.smartflow.data.enums.SimulationType;
+import com.trafficmanagement.smartflow.data.enums.VehicleMovement;
+import com.trafficmanagement.smartflow.data.enums.VehicleType;
+import com.trafficmanagement.smartflow.network.RoadNetwork;
+import com.trafficmanagement.smartflow.utils.IntersectionConstants;
+import com.trafficmanagement.smartflow.utils.MotorwayConstants;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The complete input of a simulation run: which vehicles enter at which engine tick, on a drawable
+ * area of a given size. Replaying the same schedule with {@link SimulationReplay} gives the same
+ * result every time, so a schedule is what gets saved to reproduce a run or to benchmark a fixed
+ * workload.
+ *
+ * <p>{@code seed} is the seed {@link #random} expanded into the events; it is informational once
+ * the events exist.
+ */
+public record SpawnSchedule(
+    SimulationType simulationType,
+    long seed,
+    double width,
+    double height,
+    List<SpawnEvent> events) {
+  private static final String HEADER = "tick,type,origin,lane,movement,intersectionId";
+  private static final String SEPARATOR = ",";
+
+  public SpawnSchedule {
+    events = List.copyOf(events);
+  }
+
+  /**
+   * {@code vehicles} random vehicles spread evenly over {@code spawnTicks} ticks from {@code
+   * firstTick}, with the same mix the view controllers have always generated.
+   */
+  public static SpawnSchedule random(
+      SimulationType simulationType,
+      long seed,
+      double width,
+      double height,
+      int vehicles,
+      long firstTick,
+      long spawnTicks) {
+    return random(
+        simulationType,
+        seed,
+        width,
+        height,
+        vehicles,
+        firstTick,
+        spawnTicks,
+        RoadNetwork.fromSystemProperty());
+  }
+
+  /** As above, with turns aimed at the intersections of {@code network} that have a signal. */
+  public static SpawnSchedule random(
+      SimulationType simulationType,
+      long seed,
+      double width,
+      double height,
+      int vehicles,
+      long firstTick,
+      long spawnTicks,
+      RoadNetwork network) {
+    Random random = new Random(seed);
+    int[][] turnTargets = {
+      network.getTurnTargets(Locations.WEST), network.getTurnTargets(Locations.EAST)
+    };
+    List<SpawnEvent> events = new ArrayList<>(vehicles);
+    for (int ind = 0; ind < vehicles; ind++) {
+      long tick = firstTick + ind * Math.max(1, spawnTicks) / vehicles;
+      events.add(
+          simulationType == SimulationType.MOTORWAY
+              ? randomMotorwayEvent(random, tick, turnTargets)
+              : randomIntersectionEvent(random, tick));
+    }
+    return new SpawnSchedule(simulationType, seed, width, height, events);
+  }
+
+  private static SpawnEvent randomMotorwayEvent(Random random, long tick, int[][] turnTargets) {
+    VehicleMovement[] movements = VehicleMovement.getAllMovements();
+    Locations origin = random.nextBoolean() ? Locations.WEST : Locations.EAST;
+    VehicleMovement movement = movements[random.nextInt(movements.length)];
+    VehicleType type =
+        random.nextInt(MotorwayConstants.EMERGENCY_VEHICLE_PROBABILITY) == 0
+            ? VehicleType.EMERGENCY
+            : VehicleType.NORMAL;
+
+    Integer intersectionId = null;
+    int[] targets = turnTargets[origin == Locations.WEST ? 0 : 1];
+    if (movement != VehicleMovement.STRAIGHT && targets.length > 0)
+      intersectionId = targets[random.nextInt(targets.length)];
+    return new SpawnEvent(tick, type, origin, motorwayLaneFor(movement), movement, intersectionId);
+  }
+
+  private static SpawnEvent randomIntersectionEvent(Random random, long tick) {
+    Locations[] origins = {Locations.NORTH, Locations.SOUTH, Locations.EAST, Locations.WEST};
+    VehicleMovement[] movements = VehicleMovement.getAllMovements();
+    Locations origin = origins[random.nextInt(origins.length)];
+    VehicleMovement movement = movements[random.nextInt(movements.length)];
+    VehicleType type =
+        random.nextInt(IntersectionConstants.EMERGENCY_VEHICLE_PROBABILITY) == 0
+            ? VehicleType.EMERGENCY
+            : VehicleType.NORMAL;
+    return new SpawnEvent(tick, type, origin, null, movement, null);
+  }
+
+  /** Left turns and U-turns use the first rail, right turns the third, the rest the second. */
+  public static Locations motorwayLaneFor(VehicleMovement movement) {
+    if (movement == VehicleMovement.U_TURN || movement == VehicleMovement.TURN_LEFT)
+      return Locations.FIRST_RAIL;
+    if (movement == VehicleMovement.TURN_RIGHT) return Locations.THIRD_RAIL;
+    return Locations.SECOND_RAIL;
+  }
+
+  public long lastTick() {
+    return events.isEmpty() ? 0 : events.getLast().tick();
+  }
+
+  /**
+   * Writes the schedule as text: {@code key=value} lines for the header fields, then one CSV line
+   * per event. Doubles are written so they read back bit for bit.
+   */
+  public void write(Path file) throws IOException {
+    Path parent = file.toAbsolutePath().getParent();
+    if (parent != null) Files.createDirectories(parent);
+    try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+      writer.write("simulationType=" + simulationType.name() + "\n");
+      writer.write("seed=" + seed + "\n");
+      writer.write("width=" + width + "\n");
+      writer.write("height=" + height + "\n");
+      writer.write(HEADER + "\n");
+      for (SpawnEvent event : events) {
+        writer.write(
+            String.join(
+                SEPARATOR,
+                Long.toString(event.tick()),
+                event.type().name(),
+                event.origin().name(),
+                event.lane() == null ? "" : event.lane().name(),
+                event.movement().name(),
+                event.intersectionId() == null ? "" : event.intersectionId().toString()));
+        writer.write("\n");
+      }
+    }
+  }
+
+  public static SpawnSchedule read(Path file) throws IOException {
+    List<String> lines = Files.readAllLines(file);
+    if (lines.size() < 5 || !lines.get(4).equals(HEADER))
+      throw new IOException("not a spawn schedule: " + file);
+    SimulationType simulationType = SimulationType.valueOf(valueOf(lines.get(0), "simulationType"));
+    long seed = Long.parseLong(valueOf(lines.get(1), "seed"));
+    double width = Double.parseDouble(valueOf(lines.get(2), "width"));
+    double height = Double.parseDouble(valueOf(lines.get(3), "height"));
+
+    List<SpawnEvent> events = new ArrayList<>(lines.size() - 5);
+    for (String line : lines.subList(5, lines.size())) {
+      if (line.isBlank()) continue;
+      String[] fields = line.split(SEPARATOR, -1);
+      if (fields.length != 6) throw new IOException("malformed spawn event: " + line);
+      events.add(
+          new SpawnEvent(
+              Long.parseLong(fields[0]),
+              VehicleType.valueOf(fields[1]),
+              Locations.valueOf(fields[2]),
+              fields[3].isEmpty() ? null : Locations.valueOf(fields[3]),
+              VehicleMovement.valueOf(fields[4]),
+              fields[5].isEmpty() ? null : Integer.valueOf(fields[5])));
+    }
+    return new SpawnSchedule(simulationType, seed, width, height, events);
+  }
+
+  private static String valueOf(String line, String key) throws IOException {
+    if (!line.startsWith(key + "=")) throw new IOException("expected " + key + ": " + line);
+    return line.substring(key.length() + 1);
+  }
+}
@@ -0,0 +1,272 @@
+package com.trafficmanagement.smartflow.simulation;
+
+import static com.trafficmanagement.smartflow.utils.DemandConstants.*;
+
+import com.trafficmanagement.smartflow.data.enums.Locations;
+import com.trafficmanagement.smartflow.data.enums.SimulationType;
+import com.trafficmanagement.smartflow.data.enums.VehicleMovement;
+import com.trafficmanagement.smartflow.network.RoadNetwork;
+import com.trafficmanagement.smartflow.utils.IntersectionConstants;
+import com.trafficmanagement.smartflow.utils.MotorwayConstants;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * How much traffic enters a simulation and where it goes: a rate profile in vehicles per minute
+ * of simulated time, and an origin-destination matrix of weighted (origin, lane, movement, target
+ * intersection) entries. Arrivals within each step of the profile form a Poisson process; a
+ * profile of measured counts gives an empirical day. {@link DemandGenerator} turns a demand into
+ * vehicles tick by tick. Instances never change.
+ */
+@Slf4j
+public final class TrafficDemand {
+  private static final Locations[] INTERSECTION_ORIGINS = {
+    Locations.NORTH, Locations.SOUTH, Locations.EAST, Locations.WEST
+  };
+
+  /** One cell of the matrix. {@code lane} and {@code intersectionId} are motorway only. */
+  public record OriginDestination(
+      Locations origin,
+      Locations lane,
+      VehicleMovement movement,
+      Integer intersectionId,
+      double weight) {}
+
+  @Getter private final SimulationType simulationType;
+  @Getter private final String source;
+  private final long[] rateStartMillis;
+  private final double[] vehiclesPerMinute;
+  @Getter private final List<OriginDestination> originDestinations;
+  @Getter private final double emergencyShare;
+
+  private TrafficDemand(
+      SimulationType simulationType,
+      String source,
+      long[] rateStartMillis,
+      double[] vehiclesPerMinute,
+      List<OriginDestination> originDestinations,
+      double emergencyShare) {
+    this.simulationType = simulationType;
+    this.source = source;
+    this.rateStartMillis = rateStartMillis;
+    this.vehiclesPerMinute = vehiclesPerMinute;
+    this.originDestinations = List.copyOf(originDestinations);
+    this.emergencyShare = emergencyShare;
+  }
+
+  /**
+   * A constant rate spread evenly over origins and movements, and over the turn targets of {@code
+   * network} for motorway turns: the mix {@link SpawnSchedule#random} has always drawn.
+   */
+  public static TrafficDemand uniform(
+      SimulationType simulationType, RoadNetwork network, double vehiclesPerMinute) {
+    List<OriginDestination> cells = new ArrayList<>();
+    if (simulationType == SimulationType.MOTORWAY) {
+      for (Locations origin : Locations.getMotorwayDirections()) {
+        int[] targets = network.getTurnTargets(origin);
+        for (VehicleMovement movement : VehicleMovement.getAllMovements()) {
+          Locations lane = SpawnSchedule.motorwayLaneFor(movement);
+          if (movement == VehicleMovement.STRAIGHT) {
+            cells.add(new OriginDestination(origin, lane, movement, null, 1.0));
+            continue;
+          }
+          for (int target : targets)
+            cells.add(new OriginDestination(origin, lane, movement, target, 1.0 / targets.length));
+        }
+      }
+    } else {
+      for (Locations origin : INTERSECTION_ORIGINS)
+        for (VehicleMovement movement : VehicleMovement.getAllMovements())
+          cells.add(new OriginDestination(origin, null, movement, null, 1.0));
+    }
+    return new TrafficDemand(
+        simulationType,
+        "uniform",
+        new long[] {0},
+        new double[] {vehiclesPerMinute},
+        cells,
+        defaultEmergencyShare(simulationType));
+  }
+
+  private static double defaultEmergencyShare(SimulationType simulationType) {
+    return 1.0
+        / (simulationType == SimulationType.MOTORWAY
+            ? MotorwayConstants.EMERGENCY_VEHICLE_PROBABILITY
+            : IntersectionConstants.EMERGENCY_VEHICLE_PROBABILITY);
+  }
+
+  /**
+   * The demand file named by {@code -Dsmartflow.demand}, or else a uniform demand at {@code
+   * -Dsmartflow.demandRate} vehicles per minute, by default the rate of the old random batch.
+   */
+  public static TrafficDemand fromSystemProperty(
+      SimulationType simulationType, RoadNetwork network) {
+    String configured = System.getProperty(DEMAND_PROPERTY);
+    if (configured == null) {
+      String rate = System.getProperty(DEMAND_RATE_PROPERTY);
+      return uniform(
+          simulationType,
+          network,
+          rate == null ? DEMAND_DEFAULT_VEHICLES_PER_MINUTE : Double.parseDouble(rate.trim()));
+    }
+    try {
+      return load(Path.of(configured.trim()), simulationType, network);
+    } catch (IOException exception) {
+      throw new UncheckedIOException(exception);
+    }
+  }
+
+  public static TrafficDemand load(Path file, SimulationType simulationType, RoadNetwork network)
+      throws IOException {
+    return parse(Files.readAllLines(file), file.toString(), simulationType, network);
+  }
+
+  /**
+   * Reads {@code rate <from minute> <vehicles per minute>}, {@code od <origin> <lane> <movement>
+   * <intersection> <weight>} and {@code emergency <share>} lines. {@code -} leaves a lane or
+   * intersection unset; an unset motorway lane is the one {@link SpawnSchedule#motorwayLaneFor}
+   * picks.
+   */
+  public static TrafficDemand parse(
+      List<String> lines, String source, SimulationType simulationType, RoadNetwork network)
+      throws IOException {
+    List<Long> rateStarts = new ArrayList<>();
+    List<Double> rates = new ArrayList<>();
+    List<OriginDestination> cells = new ArrayList<>();
+    double emergencyShare = defaultEmergencyShare(simulationType);
+
+    for (String rawLine : lines) {
+      String line = rawLine.strip();
+      if (line.isEmpty() || line.startsWith(COMMENT_PREFIX)) continue;
+      String[] fields = line.split("\\s+");
+      switch (fields[0]) {
+        case RATE_KEYWORD -> {
+          if (fields.length != 3) throw new IOException("malformed rate: " + line);
+          long startMillis = Math.round(parseDouble(fields[1], line) * MILLIS_PER_MINUTE);
+          double rate = parseDouble(fields[2], line);
+          long previous = rateStarts.isEmpty() ? -1 : rateStarts.getLast();
+          if ((rateStarts.isEmpty() && startMillis != 0) || startMillis <= previous)
+            throw new IOException("rate minutes must start at 0 and increase: " + line);
+          if (rate < 0) throw new IOException("rate must not be negative: " + line);
+          rateStarts.add(startMillis);
+          rates.add(rate);
+        }
+        case OD_KEYWORD -> cells.add(parseCell(fields, line, simulationType, network));
+        case EMERGENCY_KEYWORD -> {
+          if (fields.length != 2) throw new IOException("malformed emergency: " + line);
+          emergencyShare = parseDouble(fields[1], line);
+          if (emergencyShare < 0 || emergencyShare > 1)
+            throw new IOException("emergency share must be in 0..1: " + line);
+        }
+        default -> throw new IOException("unknown demand line: " + line);
+      }
+    }
+    if (rates.isEmpty()) throw new IOException("demand has no rate: " + source);
+    if (cells.isEmpty()) throw new IOException("demand has no od entry: " + source);
+
+    TrafficDemand demand =
+        new TrafficDemand(
+            simulationType,
+            source,
+            rateStarts.stream().mapToLong(Long::longValue).toArray(),
+            rates.stream().mapToDouble(Double::doubleValue).toArray(),
+            cells,
+            emergencyShare);
+    log.info(
+        "traffic_demand_loaded source={} simulationType={} rates={} odEntries={}",
+        source,
+        simulationType,
+        rates.size(),
+        cells.size());
+    return demand;
+  }
+
+  private static OriginDestination parseCell(
+      String[] fields, String line, SimulationType simulationType, RoadNetwork network)
+      throws IOException {
+    if (fields.length != 6) throw new IOException("malformed od: " + line);
+    boolean motorway = simulationType == SimulationType.MOTORWAY;
+    Locations origin = parseLocation(fields[1], line);
+    VehicleMovement movement = parseMovement(fields[3], line);
+    double weight = parseDouble(fields[5], line);
+    if (!(motorway
+        ? Locations.getMotorwayDirections().contains(origin)
+        : Arrays.asList(INTERSECTION_ORIGINS).contains(origin)))
+      throw new IOException("no " + simulationType + " traffic enters at " + origin + ": " + line);
+    if (weight <= 0) throw new IOException("weight must be positive: " + line);
+
+    Locations lane = null;
+    Integer intersectionId = null;
+    if (motorway) {
+      lane =
+          fields[2].equals(UNSET_FIELD)
+              ? SpawnSchedule.motorwayLaneFor(movement)
+              : parseLocation(fields[2], line);
+      if (Locations.getMotorwayDirections().contains(lane)
+          || Arrays.asList(INTERSECTION_ORIGINS).contains(lane))
+        throw new IOException("not a motorway lane: " + line);
+      if (movement != VehicleMovement.STRAIGHT) {
+        if (fields[4].equals(UNSET_FIELD))
+          throw new IOException("a turn needs a target intersection: " + line);
+        intersectionId = parseInt(fields[4], line);
+        if (Arrays.stream(network.getTurnTargets(origin)).noneMatch(intersectionId::equals))
+          throw new IOException("no signalled turn from " + origin + " at that intersection: " + line);
+      }
+    } else if (!fields[2].equals(UNSET_FIELD) || !fields[4].equals(UNSET_FIELD)) {
+      throw new IOException("lanes and intersections are motorway only: " + line);
+    }
+    return new OriginDestination(origin, lane, movement, intersectionId, weight);
+  }
+
+  private static Locations parseLocation(String field, String line) throws IOException {
+    try {
+      return Locations.valueOf(field);
+    } catch (IllegalArgumentException exception) {
+      throw new IOException("expected a location, got " + field + ": " + line);
+    }
+  }
+
+  private static VehicleMovement parseMovement(String field, String line) throws IOException {
+    try {
+      VehicleMovement movement = VehicleMovement.valueOf(field);
+      if (movement == VehicleMovement.STRAIGH_AFTER_U_TURN) throw new IllegalArgumentException();
+      return movement;
+    } catch (IllegalArgumentException exception) {
+      throw new IOException("expected a movement, got " + field + ": " + line);
+    }
+  }
+
+  private static int parseInt(String field, String line) throws IOException {
+    try {
+      return Integer.parseInt(field);
+    } catch (NumberFormatException exception) {
+      throw new IOException("expected a whole number, got " + field + ": " + line);
+    }
+  }
+
+  private static double parseDouble(String field, String line) throws IOException {
+    try {
+      return Double.parseDouble(field);
+    } catch (NumberFormatException exception) {
+      throw new IOException("expected a number, got " + field + ": " + line);
+    }
+  }
+
+  /** The rate in force {@code elapsedMillis} after the demand started. */
+  public double vehiclesPerMinuteAt(long elapsedMillis) {
+    int ind = Arrays.binarySearch(rateStartMillis, elapsedMillis);
+    return vehiclesPerMinute[ind >= 0 ? ind : Math.max(0, -ind - 2)];
+  }
+
+  /** A generator drawing arrivals for {@code ticks} engine ticks from {@code firstTick}. */
+  public DemandGenerator generator(long seed, long firstTick, long ticks) {
+    return new DemandGenerator(this, seed, firstTick, ticks);
+  }
+}
@@ -0,0 +1,179 @@
+package com.trafficmanagement.smartflow.simulation;
+
+import static com.trafficmanagement.smartflow.utils.SimulationConstants.*;
+
+import com.trafficmanagement.smartflow.data.model.Vehicle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs the vehicle phase of each engine tick. Vehicles are split into batches of {@link
+ * com.trafficmanagement.smartflow.utils.SimulationConstants#VEHICLE_BATCH_SIZE} and each batch is
+ * ticked on a virtual thread or on a bounded pool of platform workers, so the thread count no
+ * longer grows with the number of vehicles.
+ *
+ * <p>{@code SHARDED} instead cuts the motorway into one span per worker (see {@link
+ * MotorwayShards}) and ticks the spans on a {@link ForkJoinPool}. Its results do not depend on the
+ * number of workers.
+ */
+@Slf4j
+public class VehicleExecutor {
+  public enum Mode {
+    SEQUENTIAL,
+    VIRTUAL_THREADS,
+    WORKER_POOL,
+    SHARDED;
+
+    public static Mode fromSystemProperty() {
+      String configured = System.getProperty(VEHICLE_EXECUTOR_MODE_PROPERTY);
+      return configured == null ? WORKER_POOL : Mode.valueOf(configured.trim().toUpperCase());
+    }
+  }
+
+  @Getter private final Mode mode;
+  @Getter private final int workerCount;
+  private final ExecutorService executor;
+  private final AtomicInteger tickActive = new AtomicInteger();
+  private final AtomicInteger tickParked = new AtomicInteger();
+  private final LongAdder stops = new LongAdder();
+  @Getter private volatile int activeCount = 0;
+  @Getter private volatile int parkedCount = 0;
+
+  public VehicleExecutor(Mode mode) {
+    this(
+        mode,
+        Integer.getInteger(VEHICLE_WORKERS_PROPERTY, Runtime.getRuntime().availableProcessors()));
+  }
+
+  public VehicleExecutor(Mode mode, int workerCount) {
+    this.mode = mode;
+    this.workerCount = Math.max(1, workerCount);
+    this.executor =
+        switch (mode) {
+          case SEQUENTIAL -> null;
+          case VIRTUAL_THREADS ->
+              Executors.newThreadPerTaskExecutor(
+                  Thread.ofVirtual().name(VEHICLE_VIRTUAL_THREAD_PREFIX, 0).factory());
+          case WORKER_POOL ->
+              Executors.newFixedThreadPool(
+                  this.workerCount,
+                  Thread.ofPlatform().name(VEHICLE_WORKER_THREAD_PREFIX, 0).daemon(true).factory());
+          case SHARDED -> new ForkJoinPool(this.workerCount);
+        };
+    log.info(
+        "vehicle_executor_created mode={} workers={} batchSize={}",
+        mode,
+        mode == Mode.WORKER_POOL || mode == Mode.SHARDED ? this.workerCount : 0,
+        VEHICLE_BATCH_SIZE);
+  }
+
+  public void tickAll(List<Vehicle> vehicles) {
+    tickActive.set(0);
+    tickParked.set(0);
+
+    int size = vehicles.size();
+    if (executor == null || size <= VEHICLE_BATCH_SIZE) {
+      tickBatch(vehicles, 0, size);
+    } else {
+      List<Callable<Void>> batches = new ArrayList<>(size / VEHICLE_BATCH_SIZE + 1);
+      for (int from = 0; from < size; from += VEHICLE_BATCH_SIZE) {
+        int start = from;
+        int end = Math.min(size, from + VEHICLE_BATCH_SIZE);
+        batches.add(
+            () -> {
+              tickBatch(vehicles, start, end);
+              return null;
+            });
+      }
+      awaitBatches(batches);
+    }
+
+    activeCount = tickActive.get();
+    parkedCount = tickParked.get();
+  }
+
+  /** Ticks every span of {@code shards} in parallel, see {@link MotorwayShards}. */
+  void tickShards(MotorwayShards shards, long tick) {
+    tickActive.set(0);
+    tickParked.set(0);
+    List<Callable<Void>> tasks = shards.tasks(tick, this);
+    if (executor == null || tasks.size() == 1) {
+      for (Callable<Void> task : tasks) callQuietly(task);
+    } else {
+      awaitBatches(tasks);
+    }
+    activeCount = tickActive.get();
+    parkedCount = tickParked.get();
+  }
+
+  private void callQuietly(Callable<Void> task) {
+    try {
+      task.call();
+    } catch (Exception e) {
+      log.error("vehicle_batch_failed mode={}", mode, e);
+    }
+  }
+
+  /** Times a vehicle went from moving to standing still, summed over every tick so far. */
+  public long getStopCount() {
+    return stops.sum();
+  }
+
+  void tickBatch(List<Vehicle> vehicles, int from, int to) {
+    int active = 0;
+    int parked = 0;
+    int stopped = 0;
+    for (int ind = from; ind < to; ind++) {
+      Vehicle vehicle = vehicles.get(ind);
+      boolean wasParked = vehicle.isParked();
+      vehicle.tick();
+      if (vehicle.isFinished()) continue;
+      if (vehicle.isParked()) {
+        parked++;
+        if (!wasParked) stopped++;
+      } else {
+        active++;
+      }
+    }
+    tickActive.addAndGet(active);
+    tickParked.addAndGet(parked);
+    if (stopped > 0) stops.add(stopped);
+  }
+
+  private void awaitBatches(List<Callable<Void>> batches) {
+    try {
+      for (Future<Void> future : executor.invokeAll(batches)) future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      log.error("vehicle_batch_failed mode={}", mode, e.getCause());
+    }
+  }
+
+  public void shutdown() {
+    if (executor == null) return;
+    executor.shutdownNow();
+    try {
+      if (!executor.awaitTermination(EXECUTOR_SHUTDOWN_TIMEOUT_MS, TimeUnit.MILLISECONDS))
+        log.warn("vehicle_executor_shutdown_timeout mode={}", mode);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    log.info(
+        "vehicle_executor_shutdown mode={} lastActive={} lastParked={}",
+        mode,
+        activeCount,
+        parkedCount);
+  }
+}
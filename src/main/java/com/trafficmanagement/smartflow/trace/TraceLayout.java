@@ -0,0 +1,51 @@
+package com.trafficmanagement.smartflow.trace;
+
+import java.nio.ByteOrder;
+
+/**
+ * Byte layout shared by {@link TraceRecorder} and {@link TraceReader}.
+ *
+ * <p>A segment starts with a header (magic, version, record size, segment index; four ints) and
+ * is followed by fixed-width records until the first record whose kind is {@code
+ * TRACE_RECORD_END}, i.e. the zero-filled unused tail of the segment. Record fields:
+ *
+ * <pre>
+ *  0 byte   kind            TRACE_RECORD_TICK, TRACE_RECORD_LIGHTS or TRACE_RECORD_VEHICLE
+ *  1 byte   lane            Locations ordinal, -1 without a lane
+ *  2 byte   state           VehicleStateStore flags
+ *  3 byte   vehicle type    VehicleType ordinal
+ *  4 int    vehicle id      vehicle count for tick records, word index for lights records
+ *  8 long   tick
+ * 16 double x               for lights records: long light word, the green lights of that word
+ * 24 double y
+ * 32 int    light words     lights records following this tick record
+ * 36 int    intersection    id of the vehicle's traffic manager, -1 without one
+ * </pre>
+ *
+ * <p>A tick record is followed by its lights records, then by its vehicle records. Light word
+ * {@code i} has bit {@code lightId - 1 - 64 * i} set while that light is green, as in {@code
+ * LightMask}; words the tick record does not announce are all red.
+ */
+final class TraceLayout {
+  static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+  static final int HEADER_MAGIC = 0;
+  static final int HEADER_VERSION = 4;
+  static final int HEADER_RECORD_BYTES = 8;
+  static final int HEADER_SEGMENT_INDEX = 12;
+
+  static final int KIND = 0;
+  static final int LANE = 1;
+  static final int STATE = 2;
+  static final int VEHICLE_TYPE = 3;
+  static final int VEHICLE_ID = 4;
+  static final int TICK = 8;
+  static final int X = 16;
+  static final int Y = 24;
+  static final int LIGHT_WORD_INDEX = VEHICLE_ID;
+  static final int LIGHT_WORD = X;
+  static final int LIGHT_WORDS = 32;
+  static final int INTERSECTION = 36;
+
+  private TraceLayout() {}
+}
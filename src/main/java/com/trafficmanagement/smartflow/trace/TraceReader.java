@@ -0,0 +1,158 @@
+package com.trafficmanagement.smartflow.trace;
+
+import static com.trafficmanagement.smartflow.trace.TraceLayout.*;
+import static com.trafficmanagement.smartflow.utils.TraceConstants.*;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sequential cursor over a recording written by {@link TraceRecorder}. Segments are mapped
+ * read-only one at a time and the reader itself is the current record, so iterating allocates
+ * nothing per record:
+ *
+ * <pre>{@code
+ * try (TraceReader reader = TraceReader.open(directory)) {
+ *   while (reader.next()) {
+ *     if (reader.isVehicle()) use(reader.vehicleId(), reader.x(), reader.y());
+ *   }
+ * }
+ * }</pre>
+ */
+public class TraceReader implements AutoCloseable {
+  private final List<Path> segments;
+  private int segmentIndex = -1;
+  private MappedByteBuffer segment;
+  private int position;
+  private int current = -1;
+
+  private TraceReader(List<Path> segments) {
+    this.segments = segments;
+  }
+
+  public static TraceReader open(Path directory) throws IOException {
+    List<Path> segments = new ArrayList<>();
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, TRACE_SEGMENT_GLOB)) {
+      files.forEach(segments::add);
+    }
+    segments.sort(null);
+    return new TraceReader(segments);
+  }
+
+  /** Moves to the next record; false once the recording is exhausted. */
+  public boolean next() throws IOException {
+    while (true) {
+      if (segment != null
+          && position + TRACE_RECORD_BYTES <= segment.limit()
+          && segment.get(position + KIND) != TRACE_RECORD_END) {
+        current = position;
+        position += TRACE_RECORD_BYTES;
+        return true;
+      }
+      if (!openNextSegment()) {
+        current = -1;
+        return false;
+      }
+    }
+  }
+
+  private boolean openNextSegment() throws IOException {
+    segment = null;
+    if (++segmentIndex >= segments.size()) return false;
+    Path file = segments.get(segmentIndex);
+    try (FileChannel channel = FileChannel.open(file)) {
+      segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+    segment.order(BYTE_ORDER);
+    if (segment.limit() < TRACE_HEADER_BYTES
+        || segment.getInt(HEADER_MAGIC) != TRACE_MAGIC
+        || segment.getInt(HEADER_VERSION) != TRACE_VERSION
+        || segment.getInt(HEADER_RECORD_BYTES) != TRACE_RECORD_BYTES)
+      throw new IOException("not a SmartFlow trace segment: " + file);
+    position = TRACE_HEADER_BYTES;
+    return true;
+  }
+
+  public boolean isTick() {
+    return kind() == TRACE_RECORD_TICK;
+  }
+
+  public boolean isVehicle() {
+    return kind() == TRACE_RECORD_VEHICLE;
+  }
+
+  public boolean isLights() {
+    return kind() == TRACE_RECORD_LIGHTS;
+  }
+
+  public byte kind() {
+    return segment.get(current + KIND);
+  }
+
+  public long tick() {
+    return segment.getLong(current + TICK);
+  }
+
+  public int vehicleId() {
+    return segment.getInt(current + VEHICLE_ID);
+  }
+
+  /** Number of vehicles recorded for this tick, only meaningful on tick records. */
+  public int vehicleCount() {
+    return segment.getInt(current + VEHICLE_ID);
+  }
+
+  public int vehicleTypeOrdinal() {
+    return segment.get(current + VEHICLE_TYPE);
+  }
+
+  public int laneOrdinal() {
+    return segment.get(current + LANE);
+  }
+
+  public int stateFlags() {
+    return segment.get(current + STATE) & 0xFF;
+  }
+
+  public double x() {
+    return segment.getDouble(current + X);
+  }
+
+  public double y() {
+    return segment.getDouble(current + Y);
+  }
+
+  /** Number of lights records following this one, only meaningful on tick records. */
+  public int lightWords() {
+    return segment.getInt(current + LIGHT_WORDS);
+  }
+
+  /** Which word of the tick's green lights this is, only meaningful on lights records. */
+  public int lightWordIndex() {
+    return segment.getInt(current + LIGHT_WORD_INDEX);
+  }
+
+  /**
+   * The green lights among ids {@code 64 * lightWordIndex() + 1} onwards, one bit each as in
+   * {@code LightMask}; only meaningful on lights records.
+   */
+  public long lightWord() {
+    return segment.getLong(current + LIGHT_WORD);
+  }
+
+  public int intersectionId() {
+    return segment.getInt(current + INTERSECTION);
+  }
+
+  @Override
+  public void close() {
+    segment = null;
+    segmentIndex = segments.size();
+  }
+}
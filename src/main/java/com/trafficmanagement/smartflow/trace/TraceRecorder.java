@@ -0,0 +1,139 @@
+package com.trafficmanagement.smartflow.trace;
+
+import static com.trafficmanagement.smartflow.trace.TraceLayout.*;
+import static com.trafficmanagement.smartflow.utils.TraceConstants.*;
+
+import com.trafficmanagement.smartflow.controller.LightMask;
+import com.trafficmanagement.smartflow.data.enums.Locations;
+import com.trafficmanagement.smartflow.data.model.TrafficManager;
+import com.trafficmanagement.smartflow.data.model.Vehicle;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Appends fixed-width binary records (see {@link TraceLayout}) to memory-mapped segment files in
+ * one directory, starting a new segment whenever the current one is full. Writing a record is a
+ * handful of absolute puts into the mapped buffer and allocates nothing; only rolling to a new
+ * segment maps a file.
+ *
+ * <p>Not thread-safe: the simulation engine records from its tick thread, after every vehicle of
+ * the tick has moved.
+ */
+@Slf4j
+public class TraceRecorder implements AutoCloseable {
+  @Getter private final Path directory;
+  private final int segmentBytes;
+  private MappedByteBuffer segment;
+  private int segmentIndex = -1;
+  private int position;
+  @Getter private long recordCount;
+  private boolean closed;
+
+  public TraceRecorder(Path directory) throws IOException {
+    this(directory, TRACE_DEFAULT_SEGMENT_BYTES);
+  }
+
+  public TraceRecorder(Path directory, int segmentBytes) throws IOException {
+    if (segmentBytes < TRACE_HEADER_BYTES + TRACE_RECORD_BYTES)
+      throw new IllegalArgumentException("segment too small: " + segmentBytes);
+    this.directory = Files.createDirectories(directory);
+    this.segmentBytes = segmentBytes;
+    nextSegment();
+    log.info("trace_recording_started directory={} segmentBytes={}", directory, segmentBytes);
+  }
+
+  /** Records the tick, followed by one lights record per word of {@code greenLights}. */
+  public void recordTick(long tick, LightMask greenLights, int vehicleCount) {
+    int at = reserve();
+    if (at < 0) return;
+    segment.put(at + KIND, TRACE_RECORD_TICK);
+    segment.put(at + LANE, (byte) -1);
+    segment.putInt(at + VEHICLE_ID, vehicleCount);
+    segment.putLong(at + TICK, tick);
+    segment.putInt(at + LIGHT_WORDS, greenLights.wordCount());
+    segment.putInt(at + INTERSECTION, -1);
+    for (int word = 0; word < greenLights.wordCount(); word++) {
+      at = reserve();
+      if (at < 0) return;
+      segment.put(at + KIND, TRACE_RECORD_LIGHTS);
+      segment.put(at + LANE, (byte) -1);
+      segment.putInt(at + LIGHT_WORD_INDEX, word);
+      segment.putLong(at + TICK, tick);
+      segment.putLong(at + LIGHT_WORD, greenLights.word(word));
+      segment.putInt(at + INTERSECTION, -1);
+    }
+  }
+
+  public void recordVehicle(long tick, Vehicle vehicle) {
+    int at = reserve();
+    if (at < 0) return;
+    Locations lane = vehicle.getLane();
+    TrafficManager trafficManager = vehicle.getTrafficManager();
+    segment.put(at + KIND, TRACE_RECORD_VEHICLE);
+    segment.put(at + LANE, lane == null ? -1 : (byte) lane.ordinal());
+    segment.put(at + STATE, (byte) vehicle.getStateFlags());
+    segment.put(at + VEHICLE_TYPE, (byte) vehicle.getType().ordinal());
+    segment.putInt(at + VEHICLE_ID, vehicle.getId());
+    segment.putLong(at + TICK, tick);
+    segment.putDouble(at + X, vehicle.getX());
+    segment.putDouble(at + Y, vehicle.getY());
+    segment.putInt(at + INTERSECTION, trafficManager == null ? -1 : trafficManager.getId());
+  }
+
+  /** Offset of the next free record, or -1 once closed or after a failed roll. */
+  private int reserve() {
+    if (segment == null) return -1;
+    if (position + TRACE_RECORD_BYTES > segmentBytes) {
+      try {
+        nextSegment();
+      } catch (IOException e) {
+        log.error("trace_segment_roll_failed directory={} segment={}", directory, segmentIndex, e);
+        segment = null;
+        return -1;
+      }
+    }
+    int at = position;
+    position += TRACE_RECORD_BYTES;
+    recordCount++;
+    return at;
+  }
+
+  private void nextSegment() throws IOException {
+    segmentIndex++;
+    Path file = directory.resolve(String.format(TRACE_SEGMENT_FORMAT, segmentIndex));
+    try (FileChannel channel =
+        FileChannel.open(
+            file,
+            StandardOpenOption.CREATE_NEW,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE)) {
+      segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+    }
+    segment.order(BYTE_ORDER);
+    segment.putInt(HEADER_MAGIC, TRACE_MAGIC);
+    segment.putInt(HEADER_VERSION, TRACE_VERSION);
+    segment.putInt(HEADER_RECORD_BYTES, TRACE_RECORD_BYTES);
+    segment.putInt(HEADER_SEGMENT_INDEX, segmentIndex);
+    position = TRACE_HEADER_BYTES;
+    log.debug("trace_segment_opened file={}", file);
+  }
+
+  @Override
+  public void close() {
+    if (closed) return;
+    closed = true;
+    if (segment != null) segment.force();
+    segment = null;
+    log.info(
+        "trace_recording_stopped directory={} segments={} records={}",
+        directory,
+        segmentIndex + 1,
+        recordCount);
+  }
+}
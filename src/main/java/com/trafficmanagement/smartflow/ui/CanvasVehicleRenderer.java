@@ -0,0 +1,89 @@
+package com.trafficmanagement.smartflow.ui;
+
+import static com.trafficmanagement.smartflow.utils.MotorwayConstants.VEHICLE_STROKE_COLOR;
+
+import com.trafficmanagement.smartflow.data.enums.VehicleType;
+import com.trafficmanagement.smartflow.data.model.Vehicle;
+import java.util.Arrays;
+import java.util.Collection;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Pane;
+
+/**
+ * Paints every vehicle into a single {@link Canvas} laid over the pane. Positions are first
+ * bucketed by {@link VehicleType} into primitive arrays, skipping vehicles outside the visible
+ * area, so each frame sets the fill once per type and the stroke once in total.
+ */
+final class CanvasVehicleRenderer extends VehicleRenderer {
+  private static final VehicleType[] TYPES = VehicleType.values();
+  private static final int INITIAL_CAPACITY = 256;
+
+  private final Canvas canvas = new Canvas();
+  private final double[][] xs = new double[TYPES.length][INITIAL_CAPACITY];
+  private final double[][] ys = new double[TYPES.length][INITIAL_CAPACITY];
+  private final int[] counts = new int[TYPES.length];
+
+  CanvasVehicleRenderer(Pane pane, double radius, String simulationType) {
+    super(Mode.CANVAS, pane, radius, simulationType);
+    canvas.setMouseTransparent(true);
+    canvas.setManaged(false);
+    canvas.widthProperty().bind(pane.widthProperty());
+    canvas.heightProperty().bind(pane.heightProperty());
+    pane.getChildren().add(canvas);
+  }
+
+  @Override
+  protected int draw(Collection<Vehicle> vehicles) {
+    double width = canvas.getWidth();
+    double height = canvas.getHeight();
+    GraphicsContext graphics = canvas.getGraphicsContext2D();
+    graphics.clearRect(0, 0, width, height);
+    canvas.toFront();
+
+    Arrays.fill(counts, 0);
+    for (Vehicle vehicle : vehicles) {
+      if (vehicle.isFinished()) continue;
+      double x = vehicle.getX();
+      double y = vehicle.getY();
+      if (x < -radius || y < -radius || x > width + radius || y > height + radius) continue;
+      add(vehicle.getType().ordinal(), x, y);
+    }
+
+    double diameter = 2 * radius;
+    int drawn = 0;
+    for (int type = 0; type < TYPES.length; type++) {
+      graphics.setFill(colorOf(TYPES[type]));
+      double[] typeXs = xs[type];
+      double[] typeYs = ys[type];
+      for (int ind = 0; ind < counts[type]; ind++)
+        graphics.fillOval(typeXs[ind] - radius, typeYs[ind] - radius, diameter, diameter);
+      drawn += counts[type];
+    }
+    graphics.setStroke(VEHICLE_STROKE_COLOR);
+    for (int type = 0; type < TYPES.length; type++) {
+      double[] typeXs = xs[type];
+      double[] typeYs = ys[type];
+      for (int ind = 0; ind < counts[type]; ind++)
+        graphics.strokeOval(typeXs[ind] - radius, typeYs[ind] - radius, diameter, diameter);
+    }
+    return drawn;
+  }
+
+  @Override
+  public void clear() {
+    canvas.getGraphicsContext2D().clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+    pane.getChildren().remove(canvas);
+  }
+
+  private void add(int type, double x, double y) {
+    int count = counts[type];
+    if (count == xs[type].length) {
+      xs[type] = Arrays.copyOf(xs[type], count * 2);
+      ys[type] = Arrays.copyOf(ys[type], count * 2);
+    }
+    xs[type][count] = x;
+    ys[type][count] = y;
+    counts[type] = count + 1;
+  }
+}
@@ -0,0 +1,62 @@
+package com.trafficmanagement.smartflow.ui;
+
+import static com.trafficmanagement.smartflow.utils.MotorwayConstants.VEHICLE_STROKE_COLOR;
+
+import com.trafficmanagement.smartflow.data.model.Vehicle;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import javafx.scene.Node;
+import javafx.scene.layout.Pane;
+import javafx.scene.shape.Circle;
+
+/** One {@link Circle} per vehicle, relocated every frame. */
+final class NodeVehicleRenderer extends VehicleRenderer {
+  private final Map<Vehicle, Circle> vehicleMap = new HashMap<>();
+  private final List<Node> finishedCircles = new ArrayList<>();
+  private final double visualOffset;
+
+  NodeVehicleRenderer(Pane pane, double radius, double visualOffset, String simulationType) {
+    super(Mode.NODES, pane, radius, simulationType);
+    this.visualOffset = visualOffset;
+  }
+
+  @Override
+  protected int draw(Collection<Vehicle> vehicles) {
+    for (Vehicle vehicle : vehicles) vehicleMap.computeIfAbsent(vehicle, this::createCircle);
+
+    Iterator<Map.Entry<Vehicle, Circle>> iterator = vehicleMap.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<Vehicle, Circle> entry = iterator.next();
+      Vehicle vehicle = entry.getKey();
+      if (vehicle.isFinished()) {
+        finishedCircles.add(entry.getValue());
+        iterator.remove();
+      } else {
+        entry.getValue().relocate(vehicle.getX() - visualOffset, vehicle.getY() - visualOffset);
+      }
+    }
+    if (!finishedCircles.isEmpty()) {
+      pane.getChildren().removeAll(finishedCircles);
+      finishedCircles.clear();
+    }
+    return vehicleMap.size();
+  }
+
+  @Override
+  public void clear() {
+    pane.getChildren().removeAll(vehicleMap.values());
+    vehicleMap.clear();
+  }
+
+  private Circle createCircle(Vehicle vehicle) {
+    Circle vehicleCircle = new Circle(radius, colorOf(vehicle.getType()));
+    vehicleCircle.setStroke(VEHICLE_STROKE_COLOR);
+    pane.getChildren().add(vehicleCircle);
+    vehicleCircle.toFront();
+    return vehicleCircle;
+  }
+}
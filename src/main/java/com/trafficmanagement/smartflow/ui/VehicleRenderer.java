@@ -0,0 +1,117 @@
+package com.trafficmanagement.smartflow.ui;
+
+import static com.trafficmanagement.smartflow.utils.RenderConstants.*;
+import static com.trafficmanagement.smartflow.utils.SimulationConstants.NANOS_PER_MICRO;
+import static com.trafficmanagement.smartflow.utils.SimulationConstants.NANOS_PER_SECOND;
+
+import com.trafficmanagement.smartflow.data.enums.VehicleType;
+import com.trafficmanagement.smartflow.data.model.Vehicle;
+import com.trafficmanagement.smartflow.metrics.HistogramSnapshot;
+import com.trafficmanagement.smartflow.metrics.LatencyHistogram;
+import com.trafficmanagement.smartflow.utils.MotorwayConstants;
+import java.util.Collection;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Draws the engine's vehicles on a simulation pane once per animation frame. Every {@code
+ * RENDER_STATS_PERIOD_SECONDS} it logs the frame interval (the whole JavaFX pulse, including
+ * scene-graph layout and rendering) and the time spent in {@link #render} itself, next to the
+ * vehicle count, so both modes can be compared on the same workload.
+ */
+@Slf4j
+public abstract class VehicleRenderer {
+  /**
+   * {@code NODES} keeps one {@code Circle} per vehicle in the scene graph. {@code CANVAS} paints
+   * every vehicle into one {@code Canvas} per frame.
+   */
+  public enum Mode {
+    NODES,
+    CANVAS;
+
+    public static Mode fromSystemProperty() {
+      String configured = System.getProperty(RENDER_MODE_PROPERTY);
+      return configured == null ? NODES : Mode.valueOf(configured.trim().toUpperCase());
+    }
+  }
+
+  private static final Color NORMAL_COLOR = Color.web(MotorwayConstants.NORMAL_VEHICLE_COLOR);
+  private static final Color EMERGENCY_COLOR =
+      Color.web(MotorwayConstants.EMERGENCY_VEHICLE_COLOR);
+
+  protected final Pane pane;
+  protected final double radius;
+  @Getter private final Mode mode;
+  private final String simulationType;
+  private LatencyHistogram frameIntervals = new LatencyHistogram();
+  private LatencyHistogram renderTimes = new LatencyHistogram();
+  private long lastFrameAtNanos;
+  private long statsSinceNanos;
+  private int vehicleCount;
+  private int drawnCount;
+
+  protected VehicleRenderer(Mode mode, Pane pane, double radius, String simulationType) {
+    this.mode = mode;
+    this.pane = pane;
+    this.radius = radius;
+    this.simulationType = simulationType;
+  }
+
+  /**
+   * A renderer in the mode chosen by {@code -Dsmartflow.renderMode}. {@code visualOffset} is what
+   * node mode subtracts from a vehicle's position to place its circle.
+   */
+  public static VehicleRenderer create(
+      Pane pane, double radius, double visualOffset, String simulationType) {
+    return switch (Mode.fromSystemProperty()) {
+      case NODES -> new NodeVehicleRenderer(pane, radius, visualOffset, simulationType);
+      case CANVAS -> new CanvasVehicleRenderer(pane, radius, simulationType);
+    };
+  }
+
+  protected static Color colorOf(VehicleType type) {
+    return type == VehicleType.EMERGENCY ? EMERGENCY_COLOR : NORMAL_COLOR;
+  }
+
+  /** Called from the animation timer with the frame timestamp it was given. */
+  public final void render(long frameNanos, Collection<Vehicle> vehicles) {
+    long startNanos = System.nanoTime();
+    vehicleCount = vehicles.size();
+    drawnCount = draw(vehicles);
+    renderTimes.record(System.nanoTime() - startNanos);
+
+    if (lastFrameAtNanos != 0) frameIntervals.record(frameNanos - lastFrameAtNanos);
+    else statsSinceNanos = frameNanos;
+    lastFrameAtNanos = frameNanos;
+    if (frameNanos - statsSinceNanos >= RENDER_STATS_PERIOD_SECONDS * NANOS_PER_SECOND)
+      logStats(frameNanos);
+  }
+
+  /** Draws the vehicles and returns how many were actually drawn. */
+  protected abstract int draw(Collection<Vehicle> vehicles);
+
+  /** Removes everything this renderer added to the pane. */
+  public abstract void clear();
+
+  private void logStats(long nowNanos) {
+    HistogramSnapshot frames = frameIntervals.snapshot();
+    HistogramSnapshot renders = renderTimes.snapshot();
+    log.info(
+        "render_frame_stats simulationType={} mode={} vehicles={} drawn={} frames={} frameP50Micros={} frameP99Micros={} renderP50Micros={} renderP99Micros={} renderMaxMicros={}",
+        simulationType,
+        mode,
+        vehicleCount,
+        drawnCount,
+        frames.count(),
+        frames.p50() / NANOS_PER_MICRO,
+        frames.p99() / NANOS_PER_MICRO,
+        renders.p50() / NANOS_PER_MICRO,
+        renders.p99() / NANOS_PER_MICRO,
+        renders.max() / NANOS_PER_MICRO);
+    frameIntervals = new LatencyHistogram();
+    renderTimes = new LatencyHistogram();
+    statsSinceNanos = nowNanos;
+  }
+}
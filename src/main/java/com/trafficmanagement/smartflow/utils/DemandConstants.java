@@ -0,0 +1,27 @@
+package com.trafficmanagement.smartflow.utils;
+
+public class DemandConstants {
+
+  public static final String DEMAND_PROPERTY = "smartflow.demand";
+  public static final String DEMAND_RATE_PROPERTY = "smartflow.demandRate";
+  /** The old random batch: 15 vehicles, one a second. */
+  public static final double DEMAND_DEFAULT_VEHICLES_PER_MINUTE = 60.0;
+  public static final long DEMAND_BATCH_DURATION_MS = 15_000;
+  public static final long MILLIS_PER_MINUTE = 60_000;
+
+  public static final String COMMENT_PREFIX = "#";
+  public static final String RATE_KEYWORD = "rate";
+  public static final String OD_KEYWORD = "od";
+  public static final String EMERGENCY_KEYWORD = "emergency";
+  public static final String UNSET_FIELD = "-";
+
+  /** Larger Poisson means are drawn as sums of smaller draws, keeping {@code exp(-mean)} > 0. */
+  public static final double POISSON_MAX_DIRECT_MEAN = 30.0;
+  /** An entry takes a new vehicle once the last one is this far in. */
+  public static final double DEMAND_ENTRY_CLEARANCE = VehicleConstants.SAFE_DISTANCE;
+  /** Powers of two: an entry's queue starts at the first size and doubles up to the second. */
+  public static final int DEMAND_INITIAL_QUEUED_PER_ENTRY = 64;
+  public static final int DEMAND_MAX_QUEUED_PER_ENTRY = 1 << 14;
+
+  private DemandConstants() {}
+}
@@ -0,0 +1,34 @@
+package com.trafficmanagement.smartflow.utils;
+
+/**
+ * Primitive 2D vector helpers for the per-tick vehicle code. Everything works on plain doubles so
+ * the hot path never allocates a {@code Point2D}, and proximity checks compare squared distances
+ * to skip the square root.
+ */
+public final class GeometryUtils {
+
+  private GeometryUtils() {}
+
+  public static double distanceSquared(double x1, double y1, double x2, double y2) {
+    double dx = x2 - x1;
+    double dy = y2 - y1;
+    return dx * dx + dy * dy;
+  }
+
+  public static double distance(double x1, double y1, double x2, double y2) {
+    return Math.sqrt(distanceSquared(x1, y1, x2, y2));
+  }
+
+  /** {@code true} when the two points are strictly closer than {@code radius}. */
+  public static boolean isWithin(double x1, double y1, double x2, double y2, double radius) {
+    return distanceSquared(x1, y1, x2, y2) < radius * radius;
+  }
+
+  public static double dot(double ax, double ay, double bx, double by) {
+    return ax * bx + ay * by;
+  }
+
+  public static double length(double x, double y) {
+    return Math.sqrt(x * x + y * y);
+  }
+}
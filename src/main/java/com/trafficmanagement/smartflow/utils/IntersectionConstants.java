@@ -12,9 +12,7 @@ public class IntersectionConstants {
   public static final double STOP_LINE_GAP = 20.0;
   public static final double ENTRY_EXIT_OFFSET = 50.0;
 
-  public static final int MULTIPLE_VEHICLES_COUNT = 15;
   public static final int EMERGENCY_VEHICLE_PROBABILITY = 200;
-  public static final int VEHICLE_SPAWN_DELAY_MS = 1000;
   public static final int BUTTON_DISABLE_DURATION_SECONDS = 1;
 
   public static final double DASH_LENGTH = 25.0;
@@ -13,12 +13,11 @@ public class MotorwayConstants {
   public static final double SAFE_DISTANCE_MULTIPLIER = 1.5;
 
   public static final int EMERGENCY_VEHICLE_PROBABILITY = 5;
-  public static final int MULTIPLE_VEHICLES_COUNT = 15;
-  public static final int VEHICLE_SPAWN_DELAY_MS = 1000;
 
   public static final double LANE_HEIGHT = 60.0;
   public static final double INTERSECTION_WIDTH = 120.0;
   public static final int TOTAL_LANES = 6;
+  public static final int MEDIAN_LANE_LINE = TOTAL_LANES / 2;
   public static final double VEHICLE_RADIUS = 10.0;
 
   public static final double TRAFFIC_LIGHT_POST_WIDTH = 14.0;
@@ -49,23 +48,6 @@ public class MotorwayConstants {
   public static final double LANE_DASH_LENGTH = 25.0;
   public static final double LANE_DASH_SPACING = 20.0;
 
-  public static final double MOTORWAY_GAP_FROM_CENTER_DIVISOR = 8.0;
-
-  public static final int INTERSECTION_1 = 1;
-  public static final int INTERSECTION_2 = 2;
-  public static final int INTERSECTION_3 = 3;
-  public static final int INTERSECTION_4 = 4;
-
-  public static final int TRAFFIC_LIGHT_1 = 1;
-  public static final int TRAFFIC_LIGHT_2 = 2;
-  public static final int TRAFFIC_LIGHT_3 = 3;
-  public static final int TRAFFIC_LIGHT_4 = 4;
-  public static final int TRAFFIC_LIGHT_5 = 5;
-  public static final int TRAFFIC_LIGHT_6 = 6;
-
-  public static final int TOTAL_INTERSECTIONS = 4;
-  public static final int FIRST_INTERSECTION = 1;
-
   public static final double TRAFFIC_LIGHT_Y_OFFSET = 20.0;
   public static final double TRAFFIC_LIGHT_X_CENTER_OFFSET = 7.0;
   public static final double TRAFFIC_LIGHT_Y_UPPER_OFFSET = -10.0;
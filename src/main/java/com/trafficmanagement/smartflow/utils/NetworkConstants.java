@@ -0,0 +1,23 @@
+package com.trafficmanagement.smartflow.utils;
+
+public class NetworkConstants {
+
+  public static final String SCENARIO_PROPERTY = "smartflow.scenario";
+  public static final String DEFAULT_SCENARIO_RESOURCE = "/scenarios/motorway.scenario";
+  public static final double SCENARIO_REFERENCE_WIDTH = SimulationConstants.HEADLESS_DEFAULT_WIDTH;
+
+  public static final String COMMENT_PREFIX = "#";
+  public static final String INTERSECTION_KEYWORD = "intersection";
+  public static final String ROAD_KEYWORD = "road";
+  public static final String SIGNAL_KEYWORD = "signal";
+
+  public static final int FIRST_SIGNAL_PHASE = 0;
+  public static final int SECOND_SIGNAL_PHASE = 1;
+  /**
+   * Per-light state lives in arrays indexed by light id, and a tick batch counts the 64-light
+   * words of its light masks in an unsigned short; this keeps both small.
+   */
+  public static final int MAX_SIGNAL_ID = 0xFFFF;
+
+  private NetworkConstants() {}
+}
@@ -0,0 +1,9 @@
+package com.trafficmanagement.smartflow.utils;
+
+public class RenderConstants {
+
+  public static final String RENDER_MODE_PROPERTY = "smartflow.renderMode";
+  public static final long RENDER_STATS_PERIOD_SECONDS = 5;
+
+  private RenderConstants() {}
+}
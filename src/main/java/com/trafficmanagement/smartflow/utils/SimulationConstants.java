@@ -0,0 +1,41 @@
+package com.trafficmanagement.smartflow.utils;
+
+public class SimulationConstants {
+
+  public static final long TICK_DURATION_MS = VehicleConstants.MOVEMENT_SLEEP_DURATION_MS;
+  public static final long INITIAL_TICK_DELAY_MS = 0;
+  public static final String ENGINE_THREAD_NAME = "smartflow-engine";
+
+  public static final String VEHICLE_EXECUTOR_MODE_PROPERTY = "smartflow.vehicleExecutor";
+  public static final String VEHICLE_WORKERS_PROPERTY = "smartflow.vehicleWorkers";
+  public static final String VEHICLE_VIRTUAL_THREAD_PREFIX = "smartflow-vehicle-";
+  public static final String VEHICLE_WORKER_THREAD_PREFIX = "smartflow-vehicle-worker-";
+  public static final int VEHICLE_BATCH_SIZE = 256;
+  public static final long EXECUTOR_SHUTDOWN_TIMEOUT_MS = 2_000;
+
+  public static final int VEHICLE_STATE_CHUNK_BITS = 12;
+  public static final int VEHICLE_STATE_MAX_CHUNKS = 4_096;
+  public static final int TICKETED_LANE_INITIAL_CAPACITY = 16;
+
+  public static final int HOT_PATH_DEFAULT_PERMITS_PER_SECOND = 20;
+
+  public static final String METRICS_JMX_DOMAIN = "com.trafficmanagement.smartflow";
+  public static final String METRICS_THREAD_NAME = "smartflow-metrics";
+  public static final long METRICS_SNAPSHOT_PERIOD_MS = 1_000;
+  public static final int HISTOGRAM_SUB_BUCKET_BITS = 3;
+  public static final long NANOS_PER_MICRO = 1_000;
+  public static final long NANOS_PER_MILLI = 1_000_000;
+  public static final long NANOS_PER_SECOND = 1_000_000_000;
+
+  public static final String SEED_PROPERTY = "smartflow.seed";
+  public static final String SPAWN_SCHEDULE_DIRECTORY_PROPERTY = "smartflow.scheduleDir";
+  public static final String SPAWN_SCHEDULE_EXTENSION = ".schedule";
+
+  public static final double HEADLESS_DEFAULT_WIDTH = 1920.0;
+  public static final double HEADLESS_DEFAULT_HEIGHT = 1080.0;
+  public static final int HEADLESS_DEFAULT_VEHICLES = 1_000;
+  public static final long HEADLESS_DEFAULT_TICKS = 10_000;
+  public static final long HEADLESS_DEFAULT_SEED = 42;
+
+  private SimulationConstants() {}
+}
@@ -0,0 +1,21 @@
+package com.trafficmanagement.smartflow.utils;
+
+public class TraceConstants {
+
+  public static final String TRACE_DIRECTORY_PROPERTY = "smartflow.traceDir";
+  public static final String TRACE_SEGMENT_FORMAT = "trace-%05d.sft";
+  public static final String TRACE_SEGMENT_GLOB = "trace-*.sft";
+  public static final int TRACE_DEFAULT_SEGMENT_BYTES = 64 * 1024 * 1024;
+
+  public static final int TRACE_MAGIC = 0x53465452;
+  public static final int TRACE_VERSION = 2;
+  public static final int TRACE_HEADER_BYTES = 16;
+  public static final int TRACE_RECORD_BYTES = 40;
+
+  public static final byte TRACE_RECORD_END = 0;
+  public static final byte TRACE_RECORD_TICK = 1;
+  public static final byte TRACE_RECORD_VEHICLE = 2;
+  public static final byte TRACE_RECORD_LIGHTS = 3;
+
+  private TraceConstants() {}
+}
@@ -2,21 +2,17 @@ package com.trafficmanagement.smartflow.utils;
 
 public class TrafficLightConstants {
     
-    public static final int TOTAL_TRAFFIC_LIGHTS = 6;
     public static final int CYCLE_INTERVAL_SECONDS = 10;
     public static final int INITIAL_DELAY_SECONDS = 0;
     
     public static final int MIN_LIGHT_ID = 1;
-    public static final int MAX_LIGHT_ID = 6;
-    
-    public static final int LIGHT_1 = 1;
-    public static final int LIGHT_2 = 2;
-    public static final int LIGHT_3 = 3;
-    public static final int LIGHT_4 = 4;
-    public static final int LIGHT_5 = 5;
-    public static final int LIGHT_6 = 6;
     
     public static final boolean INITIAL_LIGHT_STATE = false;
+
+    public static final String SIGNAL_CONTROL_MODE_PROPERTY = "smartflow.signalControl";
+    public static final long ADAPTIVE_MIN_GREEN_MS = 5_000;
+    public static final long ADAPTIVE_MAX_GREEN_MS = 15_000;
+    public static final long ADAPTIVE_GAP_OUT_MS = 2_000;
     
     private TrafficLightConstants() {
     }
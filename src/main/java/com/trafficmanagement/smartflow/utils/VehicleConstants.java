@@ -32,6 +32,8 @@ public class VehicleConstants {
     public static final int INITIAL_PATH_SEGMENT = 1;
     public static final int INITIAL_TRAFFIC_LIGHT_INDEX = 0;
     public static final int NO_INTERSECTION = -1;
+    public static final int NO_QUEUE_TICKET = -1;
+    public static final long NO_TIMESTAMP = Long.MIN_VALUE;
     public static final int COUNTER_START = 0;
     
     private VehicleConstants() {
@@ -9,6 +9,10 @@ module com.trafficmanagement.smartflow {
     requires org.kordamp.bootstrapfx.core;
     requires eu.hansolo.tilesfx;
     requires org.slf4j;
+    requires ch.qos.logback.classic;
+    requires ch.qos.logback.core;
+    requires java.management;
+    requires com.rabbitmq.client;
     requires static lombok;
     requires javafx.base;
     requires javafx.graphics;
@@ -17,4 +21,6 @@ module com.trafficmanagement.smartflow {
 
     opens com.trafficmanagement.smartflow.controller to javafx.fxml;
     exports com.trafficmanagement.smartflow;
+    exports com.trafficmanagement.smartflow.logging to ch.qos.logback.core;
+    exports com.trafficmanagement.smartflow.metrics to java.management;
 }
\ No newline at end of file
@@ -0,0 +1,171 @@
+package com.trafficmanagement.smartflow.cluster;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.trafficmanagement.smartflow.controller.LightMask;
+import com.trafficmanagement.smartflow.data.enums.Locations;
+import com.trafficmanagement.smartflow.data.enums.VehicleMovement;
+import com.trafficmanagement.smartflow.data.enums.VehicleType;
+import com.trafficmanagement.smartflow.data.model.MotorwayIntersection;
+import com.trafficmanagement.smartflow.data.model.Vehicle;
+import com.trafficmanagement.smartflow.data.model.VehiclePath;
+import com.trafficmanagement.smartflow.data.model.VehicleStateStore;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import org.junit.jupiter.api.Test;
+
+class TickBatchTest {
+  // Past what the old short and byte fields held.
+  private static final int LARGE_INTERSECTION_ID = 40_000;
+  private static final int LARGE_PATH_SEGMENT = 300;
+  private static final int LARGE_LIGHT_INDEX = 70_000;
+  // Past the 32 lights an int mask held, and in a second 64-light word.
+  private static final int LARGE_LIGHT_ID = 70;
+
+  private final VehicleStateStore stateStore = new VehicleStateStore();
+  private final TickBatch.Writer writer = new TickBatch.Writer();
+
+  private Vehicle vehicle(
+      VehicleType type,
+      Locations origin,
+      Locations lane,
+      VehicleMovement movement,
+      MotorwayIntersection target) {
+    Vehicle vehicle = new Vehicle(stateStore, type, origin, movement, target);
+    vehicle.setLane(lane);
+    return vehicle;
+  }
+
+  private static TickBatch roundTrip(ByteBuffer encoded) throws IOException {
+    ByteBuffer copy = ByteBuffer.allocate(encoded.remaining());
+    copy.put(encoded).flip();
+    return TickBatch.decode(copy);
+  }
+
+  @Test
+  void handoffKeepsFieldsPastTheirOldWidths() throws IOException {
+    Vehicle vehicle =
+        vehicle(
+            VehicleType.EMERGENCY,
+            Locations.EAST,
+            Locations.THIRD_RAIL,
+            VehicleMovement.TURN_LEFT,
+            new MotorwayIntersection(LARGE_INTERSECTION_ID));
+    int flags = VehicleStateStore.STARTED | VehicleStateStore.CROSSING_STARTED | 1 << 7;
+    vehicle.restoreState(812.5, 431.25, 3.5, LARGE_PATH_SEGMENT, LARGE_LIGHT_INDEX, flags);
+
+    LightMask lights = LightMask.NONE.with(2).with(4).with(LARGE_LIGHT_ID);
+    LightMask green = LightMask.NONE.with(2).with(LARGE_LIGHT_ID);
+    writer.begin(3, 1_234_567_890_123L, lights, green);
+    writer.addHandoff(vehicle);
+    TickBatch batch = roundTrip(writer.finish());
+
+    assertEquals(3, batch.sender());
+    assertEquals(1_234_567_890_123L, batch.tick());
+    assertEquals(lights, batch.lights());
+    assertEquals(green, batch.greenMask());
+    assertTrue(batch.boundaryVehicles().isEmpty());
+    assertEquals(
+        new TickBatch.Handoff(
+            vehicle.getId(),
+            VehicleType.EMERGENCY,
+            Locations.EAST,
+            Locations.THIRD_RAIL,
+            VehicleMovement.TURN_LEFT,
+            LARGE_INTERSECTION_ID,
+            flags,
+            LARGE_PATH_SEGMENT,
+            LARGE_LIGHT_INDEX,
+            812.5,
+            431.25,
+            3.5,
+            812.5,
+            431.25),
+        batch.handoffs().getFirst());
+  }
+
+  @Test
+  void handoffAfterAUTurnCarriesItsRouteStart() throws IOException {
+    Vehicle vehicle =
+        vehicle(
+            VehicleType.NORMAL,
+            Locations.WEST,
+            Locations.FIRST_RAIL,
+            VehicleMovement.STRAIGH_AFTER_U_TURN,
+            null);
+    vehicle.setPath(VehiclePath.of(new double[] {640, 1900}, new double[] {380, 380}));
+    vehicle.restoreState(700, 380, 2, 0, 1, VehicleStateStore.STARTED);
+
+    writer.begin(0, 7, LightMask.NONE, LightMask.NONE);
+    writer.addHandoff(vehicle);
+    TickBatch.Handoff handoff = roundTrip(writer.finish()).handoffs().getFirst();
+
+    assertEquals(VehicleMovement.STRAIGH_AFTER_U_TURN, handoff.movement());
+    assertEquals(640, handoff.routeStartX());
+    assertEquals(380, handoff.routeStartY());
+    assertEquals(700, handoff.x());
+  }
+
+  @Test
+  void missingLaneAndTargetTravelAsNone() throws IOException {
+    Vehicle handedOff =
+        vehicle(VehicleType.NORMAL, Locations.WEST, null, VehicleMovement.STRAIGHT, null);
+    Vehicle boundary =
+        vehicle(VehicleType.NORMAL, Locations.EAST, null, VehicleMovement.STRAIGHT, null);
+    boundary.setPosition(960, 420);
+
+    writer.begin(1, 8, LightMask.NONE, LightMask.NONE);
+    writer.addHandoff(handedOff);
+    writer.addBoundaryVehicle(boundary);
+    TickBatch batch = roundTrip(writer.finish());
+
+    TickBatch.Handoff handoff = batch.handoffs().getFirst();
+    assertNull(handoff.lane());
+    assertEquals(-1, handoff.targetIntersectionId());
+    assertEquals(
+        new TickBatch.BoundaryVehicle(
+            boundary.getId(), VehicleType.NORMAL, Locations.EAST, null, 960, 420),
+        batch.boundaryVehicles().getFirst());
+  }
+
+  @Test
+  void flagsAboveTheirByteAreRefused() {
+    // The state store keeps one byte of flags, so only a wider source can hand the writer more.
+    Vehicle vehicle =
+        new Vehicle(
+            stateStore,
+            VehicleType.NORMAL,
+            Locations.WEST,
+            VehicleMovement.STRAIGHT,
+            (MotorwayIntersection) null) {
+          @Override
+          public int getStateFlags() {
+            return VehicleStateStore.STARTED | 1 << 8;
+          }
+        };
+    vehicle.setLane(Locations.SECOND_RAIL);
+
+    writer.begin(0, 0, LightMask.NONE, LightMask.NONE);
+    assertThrows(IllegalStateException.class, () -> writer.addHandoff(vehicle));
+  }
+
+  @Test
+  void truncatedBatchIsMalformed() {
+    Vehicle vehicle =
+        vehicle(
+            VehicleType.NORMAL,
+            Locations.WEST,
+            Locations.SECOND_RAIL,
+            VehicleMovement.STRAIGHT,
+            null);
+    writer.begin(0, 0, LightMask.NONE, LightMask.NONE);
+    writer.addHandoff(vehicle);
+    ByteBuffer encoded = writer.finish();
+
+    for (int length : new int[] {0, 10, encoded.remaining() - 1}) {
+      ByteBuffer truncated = encoded.duplicate().limit(length);
+      IOException error = assertThrows(IOException.class, () -> roundTrip(truncated));
+      assertTrue(error.getMessage().startsWith("malformed tick batch"));
+    }
+  }
+}
@@ -0,0 +1,111 @@
+package com.trafficmanagement.smartflow.controller;
+
+import static com.trafficmanagement.smartflow.utils.SimulationConstants.HEADLESS_DEFAULT_HEIGHT;
+import static com.trafficmanagement.smartflow.utils.VehicleConstants.NO_INTERSECTION;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.trafficmanagement.smartflow.data.enums.Locations;
+import com.trafficmanagement.smartflow.data.enums.SimulationType;
+import com.trafficmanagement.smartflow.network.RoadNetwork;
+import com.trafficmanagement.smartflow.simulation.SimulationEngine;
+import com.trafficmanagement.smartflow.simulation.TrafficDemand;
+import com.trafficmanagement.smartflow.simulation.VehicleExecutor;
+import com.trafficmanagement.smartflow.trace.TraceReader;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LongMotorwayScenarioTest {
+  private static final String SCENARIO = "/scenarios/long-motorway.scenario";
+  private static final double WIDTH = 6_000;
+  private static final double VEHICLES_PER_MINUTE = 60;
+  private static final long SEED = 42;
+  private static final long TICKS = 3_000;
+
+  @TempDir Path traceDirectory;
+
+  private static RoadNetwork longMotorway() throws IOException, URISyntaxException {
+    return RoadNetwork.load(Path.of(LongMotorwayScenarioTest.class.getResource(SCENARIO).toURI()));
+  }
+
+  private static SimulationEngine engine(RoadNetwork network, TrafficLightController.Mode mode) {
+    SimulationEngine engine =
+        new SimulationEngine(
+            SimulationType.MOTORWAY,
+            new VehicleExecutor(VehicleExecutor.Mode.SEQUENTIAL),
+            mode,
+            network);
+    engine.resize(WIDTH, HEADLESS_DEFAULT_HEIGHT);
+    engine.addDemand(
+        TrafficDemand.uniform(SimulationType.MOTORWAY, network, VEHICLES_PER_MINUTE),
+        SEED,
+        0,
+        TICKS);
+    return engine;
+  }
+
+  @Test
+  void moreThan32SignalsLoadAndRunInEveryMode() throws Exception {
+    RoadNetwork network = longMotorway();
+    assertTrue(network.getSignalCount() > Integer.SIZE);
+    int firstEastbound = network.getSignalsOnRoute(Locations.WEST, NO_INTERSECTION)[0];
+    int firstWestbound = network.getSignalsOnRoute(Locations.EAST, NO_INTERSECTION)[0];
+    assertTrue(firstWestbound > Long.SIZE, "the westbound lights reach a second mask word");
+
+    for (TrafficLightController.Mode mode : TrafficLightController.Mode.values()) {
+      SimulationEngine engine = engine(network, mode);
+      try {
+        TrafficLightController lights = engine.getTrafficLightController();
+        List<LightMask> published = new ArrayList<>();
+        lights.addListener(snapshot -> published.add(snapshot.greenMask()));
+
+        engine.runTicks(TICKS);
+
+        LightMask everGreen = published.stream().reduce(LightMask.NONE, LightMask::union);
+        assertTrue(everGreen.contains(firstWestbound), mode + " turned the far light green");
+        assertTrue(lights.lastPassageAt(firstEastbound) >= 0, mode + " passed light 1");
+        assertTrue(lights.lastPassageAt(firstWestbound) >= 0, mode + " passed the far light");
+        if (mode != TrafficLightController.Mode.ADAPTIVE)
+          for (int ind = 0; ind < network.getSignalCount(); ind++)
+            assertTrue(everGreen.contains(network.getSignalId(ind)), mode + " cycled every light");
+      } finally {
+        engine.shutdown();
+      }
+    }
+  }
+
+  @Test
+  void traceRecordsEveryLightOfTheTick() throws Exception {
+    SimulationEngine engine = engine(longMotorway(), TrafficLightController.Mode.FIXED_CYCLE);
+    List<LightMask> expected = new ArrayList<>();
+    try {
+      engine.startRecording(traceDirectory);
+      for (long tick = 0; tick < TICKS; tick++) {
+        engine.tick();
+        expected.add(engine.getTrafficLightController().getLightMask());
+      }
+      engine.stopRecording();
+    } finally {
+      engine.shutdown();
+    }
+
+    List<LightMask> recorded = new ArrayList<>();
+    try (TraceReader reader = TraceReader.open(traceDirectory)) {
+      while (reader.next()) {
+        if (!reader.isTick()) continue;
+        long[] words = new long[reader.lightWords()];
+        for (int word = 0; word < words.length; word++) {
+          assertTrue(reader.next() && reader.isLights(), "lights records follow their tick");
+          assertEquals(word, reader.lightWordIndex());
+          words[word] = reader.lightWord();
+        }
+        recorded.add(LightMask.ofWords(words));
+      }
+    }
+    assertEquals(expected, recorded);
+  }
+}
@@ -0,0 +1,131 @@
+package com.trafficmanagement.smartflow.controller;
+
+import static com.trafficmanagement.smartflow.utils.SimulationConstants.HEADLESS_DEFAULT_HEIGHT;
+import static com.trafficmanagement.smartflow.utils.SimulationConstants.HEADLESS_DEFAULT_WIDTH;
+import static com.trafficmanagement.smartflow.utils.SimulationConstants.TICK_DURATION_MS;
+import static com.trafficmanagement.smartflow.utils.TrafficLightConstants.ADAPTIVE_MAX_GREEN_MS;
+import static com.trafficmanagement.smartflow.utils.VehicleConstants.NO_INTERSECTION;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.trafficmanagement.smartflow.data.enums.Locations;
+import com.trafficmanagement.smartflow.data.enums.SimulationType;
+import com.trafficmanagement.smartflow.data.enums.VehicleMovement;
+import com.trafficmanagement.smartflow.data.enums.VehicleType;
+import com.trafficmanagement.smartflow.data.model.Vehicle;
+import com.trafficmanagement.smartflow.network.RoadNetwork;
+import com.trafficmanagement.smartflow.simulation.SimulationEngine;
+import com.trafficmanagement.smartflow.simulation.VehicleExecutor;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class TrafficLightControllerTest {
+  private static final long MAX_TICKS = 10_000;
+  private static final double LEADER_GAP = 30;
+
+  private final RoadNetwork network = RoadNetwork.fromSystemProperty();
+  // The first light eastbound traffic meets, and the other light of its intersection.
+  private final int light = network.getSignalsOnRoute(Locations.WEST, NO_INTERSECTION)[0];
+  private final int conflicting =
+      network.getSignalInto(Locations.EAST, network.getSignalIntersection(light));
+  private SimulationEngine engine;
+  private TrafficLightController lights;
+
+  @AfterEach
+  void shutdown() {
+    if (engine != null) engine.shutdown();
+  }
+
+  private void startEngine(TrafficLightController.Mode mode) {
+    engine =
+        new SimulationEngine(
+            SimulationType.MOTORWAY,
+            new VehicleExecutor(VehicleExecutor.Mode.SEQUENTIAL),
+            mode,
+            network);
+    engine.resize(HEADLESS_DEFAULT_WIDTH, HEADLESS_DEFAULT_HEIGHT);
+    lights = engine.getTrafficLightController();
+  }
+
+  private void tickUntil(BooleanSupplier condition, String what) {
+    tickUntil(condition, what, MAX_TICKS);
+  }
+
+  private void tickUntil(BooleanSupplier condition, String what, long maxTicks) {
+    for (long tick = 0; tick < maxTicks; tick++) {
+      if (condition.getAsBoolean()) return;
+      engine.tick();
+    }
+    fail("no " + what + " within " + maxTicks + " ticks");
+  }
+
+  /**
+   * Brings an eastbound vehicle to a red {@link #light}, then holds it there behind a stand-in
+   * leader through the whole of the next green. Returns the vehicle with the light red again and
+   * the leader gone, so only the light decides whether it moves on.
+   */
+  private Vehicle missGreenBehindLeader() {
+    lights.awaitGreen(conflicting);
+    tickUntil(() -> !lights.isGreen(light), "red light to stop at");
+
+    Vehicle vehicle =
+        engine.spawnMotorwayVehicle(
+            VehicleType.NORMAL,
+            Locations.WEST,
+            Locations.SECOND_RAIL,
+            VehicleMovement.STRAIGHT,
+            null);
+    tickUntil(() -> vehicle.isParked() && lights.waitingAt(light) > 0, "stop at the red light");
+    assertFalse(lights.isGreen(light), "the vehicle stopped at a red light");
+
+    Vehicle leader =
+        engine.addBoundaryVehicle(
+            VehicleType.NORMAL,
+            Locations.WEST,
+            Locations.SECOND_RAIL,
+            vehicle.getX() + LEADER_GAP,
+            vehicle.getY());
+    tickUntil(() -> lights.isGreen(light), "green for the held vehicle");
+    lights.awaitGreen(conflicting);
+    tickUntil(() -> !lights.isGreen(light), "red after the missed green");
+    assertEquals(0, vehicle.getNextLightIndex(), "the leader held the vehicle through the green");
+
+    leader.handOff();
+    leader.detach();
+    return vehicle;
+  }
+
+  @Test
+  void vehicleThatMissedTheGreenStopsAtTheFollowingRed() {
+    startEngine(TrafficLightController.Mode.ADAPTIVE);
+    Vehicle vehicle = missGreenBehindLeader();
+
+    engine.runTicks(10);
+
+    assertFalse(lights.isGreen(light), "the minimum green of the other light still runs");
+    assertEquals(0, vehicle.getNextLightIndex(), "the vehicle did not pass the red light");
+  }
+
+  @Test
+  void vehicleThatMissedTheGreenStillDemandsTheNextOne() {
+    startEngine(TrafficLightController.Mode.ADAPTIVE);
+    Vehicle vehicle = missGreenBehindLeader();
+
+    engine.tick();
+    assertEquals(1, lights.waitingAt(light), "counted again in the new red phase");
+
+    // Nobody passes the other light, so the group gaps out back to this one well before max-out.
+    long maxGreenTicks = ADAPTIVE_MAX_GREEN_MS / TICK_DURATION_MS;
+    tickUntil(() -> lights.isGreen(light), "green for the waiting vehicle", maxGreenTicks);
+    tickUntil(() -> vehicle.getNextLightIndex() > 0, "passage on that green", maxGreenTicks);
+  }
+
+  @Test
+  void awaitingAnUnknownLightIsRefused() {
+    startEngine(TrafficLightController.Mode.FIXED_CYCLE);
+
+    int unknown = network.getMaxSignalId() + 1;
+    assertThrows(IllegalArgumentException.class, () -> lights.awaitGreen(unknown));
+    assertThrows(IllegalArgumentException.class, () -> lights.awaitGreen(0));
+  }
+}
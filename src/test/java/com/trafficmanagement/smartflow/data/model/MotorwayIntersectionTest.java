@@ -0,0 +1,184 @@
+package com.trafficmanagement.smartflow.data.model;
+
+import static com.trafficmanagement.smartflow.data.model.MotorwayIntersection.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.trafficmanagement.smartflow.data.enums.Locations;
+import com.trafficmanagement.smartflow.data.enums.VehicleMovement;
+import com.trafficmanagement.smartflow.data.enums.VehicleType;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+class MotorwayIntersectionTest {
+  private static final int WEST = 0;
+  private static final int EAST = 1;
+  private static final int COUNT_MAX = (1 << 16) - 1;
+
+  private final VehicleStateStore stateStore = new VehicleStateStore();
+  private final MotorwayIntersection intersection = new MotorwayIntersection(1);
+
+  private Vehicle vehicle(
+      MotorwayIntersection at, VehicleType type, Locations origin, Locations lane) {
+    Vehicle vehicle = new Vehicle(stateStore, type, origin, VehicleMovement.STRAIGHT, at);
+    vehicle.setLane(lane);
+    return vehicle;
+  }
+
+  private Vehicle queued(VehicleType type, Locations origin, Locations lane) {
+    Vehicle vehicle = vehicle(intersection, type, origin, lane);
+    intersection.addToQueue(vehicle);
+    return vehicle;
+  }
+
+  private void cross(Vehicle vehicle) {
+    assertTrue(intersection.startCrossing(vehicle));
+    intersection.leaveIntersection(vehicle);
+  }
+
+  @Test
+  void directionsTakeTurnsInArrivalOrder() {
+    Vehicle west = queued(VehicleType.NORMAL, Locations.WEST, Locations.SECOND_RAIL);
+    Vehicle east = queued(VehicleType.NORMAL, Locations.EAST, Locations.SECOND_RAIL);
+    Vehicle westBehind = queued(VehicleType.NORMAL, Locations.WEST, Locations.SECOND_RAIL);
+
+    assertTrue(intersection.isMyTurn(west));
+    assertFalse(intersection.isMyTurn(east));
+    assertFalse(intersection.isMyTurn(westBehind), "only a lane's head may cross");
+
+    cross(west);
+    assertTrue(intersection.isMyTurn(westBehind), "west keeps the turn while it has vehicles");
+    assertFalse(intersection.isMyTurn(east));
+
+    cross(westBehind);
+    assertTrue(intersection.isMyTurn(east), "an emptied direction leaves the rotation");
+  }
+
+  @Test
+  void emergencyMovesItsDirectionToTheFront() {
+    Vehicle west = queued(VehicleType.NORMAL, Locations.WEST, Locations.SECOND_RAIL);
+    Vehicle east = queued(VehicleType.NORMAL, Locations.EAST, Locations.FIRST_RAIL);
+    Vehicle emergency = queued(VehicleType.EMERGENCY, Locations.EAST, Locations.SECOND_RAIL);
+
+    assertTrue(intersection.isEmergencyActive());
+    assertTrue(intersection.isMyTurn(emergency));
+    assertTrue(intersection.isMyTurn(east), "the whole direction moves, not just the lane");
+    assertFalse(intersection.isMyTurn(west));
+
+    cross(emergency);
+    assertFalse(intersection.isEmergencyActive());
+    cross(east);
+    assertTrue(intersection.isMyTurn(west));
+  }
+
+  @Test
+  void emergencyWaitsForVehiclesAlreadyCrossing() {
+    Vehicle west = queued(VehicleType.NORMAL, Locations.WEST, Locations.SECOND_RAIL);
+    assertTrue(intersection.startCrossing(west));
+    Vehicle emergency = queued(VehicleType.EMERGENCY, Locations.EAST, Locations.SECOND_RAIL);
+
+    assertFalse(intersection.isMyTurn(emergency));
+    intersection.leaveIntersection(west);
+    assertTrue(intersection.isMyTurn(emergency));
+  }
+
+  @Test
+  void emergencyArrivingAfterTheTurnCheckRefusesTheCrossing() {
+    Vehicle west = queued(VehicleType.NORMAL, Locations.WEST, Locations.SECOND_RAIL);
+    assertTrue(intersection.isMyTurn(west));
+    Vehicle emergency = queued(VehicleType.EMERGENCY, Locations.EAST, Locations.SECOND_RAIL);
+
+    assertFalse(intersection.startCrossing(west), "west lost the turn after isMyTurn");
+    assertEquals(0, intersection.getPositionInQueue(west), "a refused vehicle keeps its place");
+    assertTrue(intersection.startCrossing(emergency));
+    assertFalse(intersection.startCrossing(west));
+
+    intersection.leaveIntersection(emergency);
+    assertTrue(intersection.startCrossing(west));
+  }
+
+  @Test
+  void onlyTheLaneHeadStartsCrossingAndOnlyOnce() {
+    Vehicle head = queued(VehicleType.NORMAL, Locations.WEST, Locations.SECOND_RAIL);
+    Vehicle behind = queued(VehicleType.NORMAL, Locations.WEST, Locations.SECOND_RAIL);
+
+    assertFalse(intersection.startCrossing(behind));
+    assertTrue(intersection.startCrossing(head));
+    assertFalse(intersection.startCrossing(head));
+  }
+
+  @Test
+  void racingDirectionsNeverCrossTogether() throws Exception {
+    for (int round = 0; round < 200; round++) {
+      MotorwayIntersection contested = new MotorwayIntersection(round);
+      Vehicle west = vehicle(contested, VehicleType.NORMAL, Locations.WEST, Locations.SECOND_RAIL);
+      Vehicle emergency =
+          vehicle(contested, VehicleType.EMERGENCY, Locations.EAST, Locations.SECOND_RAIL);
+      contested.addToQueue(west);
+      assertTrue(contested.isMyTurn(west));
+
+      CountDownLatch start = new CountDownLatch(1);
+      ExecutorService racer = Executors.newSingleThreadExecutor();
+      try {
+        Future<?> arrival =
+            racer.submit(
+                () -> {
+                  start.await();
+                  contested.addToQueue(emergency);
+                  return null;
+                });
+        start.countDown();
+        boolean westCrossing = contested.startCrossing(west);
+        arrival.get();
+        boolean emergencyCrossing = contested.startCrossing(emergency);
+        assertNotEquals(westCrossing, emergencyCrossing, "exactly one direction crosses");
+      } finally {
+        racer.shutdownNow();
+      }
+    }
+  }
+
+  @Test
+  void countsFillTheirFieldWithoutTouchingTheNextOne() {
+    long word = withWaiting(0, WEST, COUNT_MAX);
+    word = withEmergencyCount(word, COUNT_MAX);
+
+    assertEquals(COUNT_MAX, waitingCount(word, WEST));
+    assertEquals(0, waitingCount(word, EAST));
+    assertEquals(COUNT_MAX, emergencyCount(word));
+
+    word = withWaiting(word, EAST, COUNT_MAX);
+    assertEquals(COUNT_MAX, waitingCount(word, WEST));
+    assertEquals(COUNT_MAX, emergencyCount(word));
+  }
+
+  @Test
+  void countsPastTheirFieldAreRefused() {
+    long full = withWaiting(0, WEST, COUNT_MAX);
+
+    assertThrows(IllegalStateException.class, () -> withWaiting(full, WEST, COUNT_MAX + 1));
+    assertThrows(IllegalStateException.class, () -> withWaiting(full, EAST, COUNT_MAX + 1));
+    assertThrows(IllegalStateException.class, () -> withEmergencyCount(full, COUNT_MAX + 1));
+    assertThrows(IllegalStateException.class, () -> withWaiting(full, WEST, -1));
+  }
+
+  @Test
+  void overflowingVehicleIsRefusedAndStateKept() {
+    Vehicle head = queued(VehicleType.NORMAL, Locations.WEST, Locations.SECOND_RAIL);
+    for (int ind = 1; ind < COUNT_MAX; ind++)
+      queued(VehicleType.NORMAL, Locations.WEST, Locations.SECOND_RAIL);
+
+    Vehicle overflowing =
+        vehicle(intersection, VehicleType.NORMAL, Locations.WEST, Locations.SECOND_RAIL);
+    IllegalStateException refused =
+        assertThrows(IllegalStateException.class, () -> intersection.addToQueue(overflowing));
+    assertTrue(refused.getMessage().startsWith("intersection 1 refused vehicle "));
+
+    assertEquals(-1, intersection.getPositionInQueue(overflowing));
+    assertTrue(intersection.isMyTurn(head));
+    Vehicle east = queued(VehicleType.NORMAL, Locations.EAST, Locations.SECOND_RAIL);
+    assertFalse(intersection.isMyTurn(east), "the west count did not carry into the east one");
+  }
+}
@@ -0,0 +1,68 @@
+package com.trafficmanagement.smartflow.simulation;
+
+import static com.trafficmanagement.smartflow.utils.DemandConstants.DEMAND_MAX_QUEUED_PER_ENTRY;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.trafficmanagement.smartflow.data.enums.Locations;
+import com.trafficmanagement.smartflow.data.enums.SimulationType;
+import com.trafficmanagement.smartflow.data.enums.VehicleType;
+import com.trafficmanagement.smartflow.network.RoadNetwork;
+import java.io.IOException;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class DemandGeneratorTest {
+  private static final long SEED = 42;
+
+  private static DemandGenerator generator(double vehiclesPerMinute, long ticks)
+      throws IOException {
+    TrafficDemand demand =
+        TrafficDemand.parse(
+            List.of(
+                "rate 0 " + vehiclesPerMinute,
+                "od WEST SECOND_RAIL STRAIGHT - 1",
+                "emergency 0.5"),
+            "test",
+            SimulationType.MOTORWAY,
+            RoadNetwork.fromSystemProperty());
+    return demand.generator(SEED, 0, ticks);
+  }
+
+  @Test
+  void arrivalsAreInsertedOldestFirstWithTheirOwnTick() throws IOException {
+    DemandGenerator demand = generator(6_000, 50);
+    for (long tick = 0; tick < 50; tick++) demand.generateArrivals(tick);
+    assertTrue(demand.getArrivals() > 1);
+
+    long previousTick = -1;
+    int emergencies = 0;
+    while (demand.peek(0) != null) {
+      SpawnEvent waiting = demand.peek(0);
+      SpawnEvent inserted = demand.insert(0);
+      assertEquals(waiting.type(), inserted.type(), "peek shows the vehicle insert takes");
+      assertEquals(Locations.WEST, inserted.origin());
+      assertTrue(inserted.tick() >= previousTick, "in arrival order");
+      previousTick = inserted.tick();
+      if (inserted.type() == VehicleType.EMERGENCY) emergencies++;
+    }
+
+    assertTrue(emergencies > 0, "the vehicle type travels with each queued arrival");
+    assertEquals(demand.getArrivals(), demand.getInserted());
+    assertNull(demand.insert(0));
+    assertTrue(demand.isFinished(49));
+  }
+
+  @Test
+  void arrivalsBeyondAFullEntryAreDropped() throws IOException {
+    DemandGenerator demand = generator(600_000, 1_000);
+    for (long tick = 0; tick < 1_000; tick++) demand.generateArrivals(tick);
+
+    assertTrue(demand.getDropped() > 0);
+    assertEquals(DEMAND_MAX_QUEUED_PER_ENTRY, demand.getBacklog());
+    assertFalse(demand.isFinished(999));
+
+    for (int ind = 0; ind < DEMAND_MAX_QUEUED_PER_ENTRY; ind++) assertNotNull(demand.insert(0));
+    assertEquals(demand.getArrivals(), demand.getInserted() + demand.getDropped());
+    assertTrue(demand.isFinished(999));
+  }
+}